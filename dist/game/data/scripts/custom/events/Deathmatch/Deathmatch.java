@@ -58,7 +58,6 @@ import org.l2jmobius.gameserver.model.item.enums.ItemProcessType;
 import org.l2jmobius.gameserver.model.item.holders.ItemHolder;
 import org.l2jmobius.gameserver.model.olympiad.OlympiadManager;
 import org.l2jmobius.gameserver.model.script.Event;
-import org.l2jmobius.gameserver.model.script.QuestTimer;
 import org.l2jmobius.gameserver.model.skill.SkillCaster;
 import org.l2jmobius.gameserver.model.skill.enums.SkillFinishType;
 import org.l2jmobius.gameserver.model.skill.holders.SkillHolder;
@@ -810,13 +809,7 @@ public class Deathmatch extends Event
 		EVENT_ACTIVE = true;
 		
 		// Cancel timers. (In case event started immediately after another event was canceled.)
-		for (List<QuestTimer> timers : getQuestTimers().values())
-		{
-			for (QuestTimer timer : timers)
-			{
-				timer.cancel();
-			}
-		}
+		cancelQuestTimers();
 		
 		// Register the event at AntiFeedManager and clean it for just in case if the event is already registered
 		if (DualboxCheckConfig.DUALBOX_CHECK_MAX_L2EVENT_PARTICIPANTS_PER_IP > 0)
@@ -868,13 +861,7 @@ public class Deathmatch extends Event
 		MANAGER_NPC_INSTANCE.deleteMe();
 		
 		// Cancel timers.
-		for (List<QuestTimer> timers : getQuestTimers().values())
-		{
-			for (QuestTimer timer : timers)
-			{
-				timer.cancel();
-			}
-		}
+		cancelQuestTimers();
 		
 		// Remove participants.
 		for (Player participant : PLAYER_LIST)
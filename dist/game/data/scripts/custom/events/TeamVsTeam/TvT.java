@@ -63,7 +63,6 @@ import org.l2jmobius.gameserver.model.instancezone.InstanceTemplate;
 import org.l2jmobius.gameserver.model.item.holders.ItemHolder;
 import org.l2jmobius.gameserver.model.olympiad.OlympiadManager;
 import org.l2jmobius.gameserver.model.script.Event;
-import org.l2jmobius.gameserver.model.script.QuestTimer;
 import org.l2jmobius.gameserver.model.skill.CommonSkill;
 import org.l2jmobius.gameserver.model.skill.Skill;
 import org.l2jmobius.gameserver.model.skill.SkillCaster;
@@ -1068,13 +1067,7 @@ public class TvT extends Event
 		setState(EventState.PARTICIPATING);
 		
 		// Cancel timers. (In case event started immediately after another event was canceled.)
-		for (List<QuestTimer> timers : getQuestTimers().values())
-		{
-			for (QuestTimer timer : timers)
-			{
-				timer.cancel();
-			}
-		}
+		cancelQuestTimers();
 		
 		// Register the event at AntiFeedManager and clean it for just in case if the event is already registered
 		if (DualboxCheckConfig.DUALBOX_CHECK_MAX_L2EVENT_PARTICIPANTS_PER_IP > 0)
@@ -1119,13 +1112,7 @@ public class TvT extends Event
 		MANAGER_NPC_INSTANCE.deleteMe();
 		
 		// Cancel timers.
-		for (List<QuestTimer> timers : getQuestTimers().values())
-		{
-			for (QuestTimer timer : timers)
-			{
-				timer.cancel();
-			}
-		}
+		cancelQuestTimers();
 		
 		// Remove participants.
 		for (Player participant : PLAYER_LIST)
@@ -80,6 +80,7 @@ import handlers.admincommandhandlers.AdminClan;
 import handlers.admincommandhandlers.AdminClanHall;
 import handlers.admincommandhandlers.AdminCreateItem;
 import handlers.admincommandhandlers.AdminCursedWeapons;
+import handlers.admincommandhandlers.AdminDatabaseStatistics;
 import handlers.admincommandhandlers.AdminDebug;
 import handlers.admincommandhandlers.AdminDelete;
 import handlers.admincommandhandlers.AdminDestroyItems;
@@ -396,6 +397,7 @@ public class MasterHandler
 			AdminCastle.class,
 			AdminCreateItem.class,
 			AdminCursedWeapons.class,
+			AdminDatabaseStatistics.class,
 			AdminDebug.class,
 			AdminDelete.class,
 			AdminDestroyItems.class,
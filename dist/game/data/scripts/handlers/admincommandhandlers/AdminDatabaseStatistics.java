@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package handlers.admincommandhandlers;
+
+import java.util.List;
+
+import org.l2jmobius.commons.config.DatabaseConfig;
+import org.l2jmobius.commons.database.DatabaseStatistics;
+import org.l2jmobius.commons.database.DatabaseStatistics.SqlStatistics;
+import org.l2jmobius.gameserver.cache.HtmCache;
+import org.l2jmobius.gameserver.handler.IAdminCommandHandler;
+import org.l2jmobius.gameserver.model.actor.Player;
+import org.l2jmobius.gameserver.network.serverpackets.NpcHtmlMessage;
+
+/**
+ * Shows the statements with the highest total database time.
+ * @author Mobius
+ */
+public class AdminDatabaseStatistics implements IAdminCommandHandler
+{
+	private static final int STATEMENT_LIMIT = 15;
+	private static final int SQL_LENGTH = 120;
+	
+	private static final String[] ADMIN_COMMANDS =
+	{
+		"admin_dbstats",
+		"admin_dbstats_dump",
+		"admin_dbstats_reset"
+	};
+	
+	@Override
+	public boolean onCommand(String command, Player activeChar)
+	{
+		if (!DatabaseConfig.STATEMENT_STATISTICS)
+		{
+			activeChar.sendSysMessage("Statement statistics are disabled.");
+			return true;
+		}
+		
+		switch (command)
+		{
+			case "admin_dbstats_dump":
+			{
+				DatabaseStatistics.getInstance().dump();
+				activeChar.sendSysMessage("Statement statistics have been logged.");
+				break;
+			}
+			case "admin_dbstats_reset":
+			{
+				DatabaseStatistics.getInstance().reset();
+				activeChar.sendSysMessage("Statement statistics have been reset.");
+				break;
+			}
+		}
+		
+		showStatistics(activeChar);
+		return true;
+	}
+	
+	private void showStatistics(Player activeChar)
+	{
+		final List<SqlStatistics> top = DatabaseStatistics.getInstance().getTopStatistics(STATEMENT_LIMIT);
+		final StringBuilder sb = new StringBuilder();
+		for (SqlStatistics statistics : top)
+		{
+			final String sql = statistics.getSql();
+			sb.append("<table width=270 border=0 bgcolor=444444>");
+			sb.append("<tr><td><font color=LEVEL>").append(escape(sql.length() > SQL_LENGTH ? sql.substring(0, SQL_LENGTH) + "..." : sql)).append("</font></td></tr>");
+			sb.append("<tr><td>").append(statistics.getCount()).append(" calls, ").append(statistics.getTotalNanos() / 1000000).append(" ms total, ").append(String.format("%.2f", statistics.getAverageMillis())).append(" ms avg, ").append(statistics.getMaxNanos() / 1000000).append(" ms max</td></tr>");
+			sb.append("<tr><td>").append(statistics.getRows()).append(" rows");
+			if (statistics.getBatches() > 0)
+			{
+				sb.append(", ").append(statistics.getBatches()).append(" batches");
+			}
+			if (statistics.getErrors() > 0)
+			{
+				sb.append(", <font color=FF0000>").append(statistics.getErrors()).append(" errors</font>");
+			}
+			sb.append("</td></tr>");
+			sb.append("<tr><td><font color=808080>").append(statistics.getCaller()).append("</font></td></tr>");
+			sb.append("</table><br1>");
+		}
+		
+		final NpcHtmlMessage html = new NpcHtmlMessage();
+		html.setHtml(HtmCache.getInstance().getHtm(activeChar, "data/html/admin/dbstats.htm"));
+		html.replace("%count%", DatabaseStatistics.getInstance().getStatementCount());
+		html.replace("%threshold%", DatabaseConfig.SLOW_QUERY_THRESHOLD);
+		html.replace("%statements%", sb.toString());
+		activeChar.sendPacket(html);
+	}
+	
+	private String escape(String text)
+	{
+		return text.replace("<", "&lt;").replace(">", "&gt;");
+	}
+	
+	@Override
+	public String[] getCommandList()
+	{
+		return ADMIN_COMMANDS;
+	}
+}
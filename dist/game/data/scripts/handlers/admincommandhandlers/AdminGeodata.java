@@ -52,6 +52,8 @@ public class AdminGeodata implements IAdminCommandHandler
 		"admin_geo_spawn_pos",
 		"admin_geo_can_move",
 		"admin_geo_can_see",
+		"admin_geo_los_cache",
+		"admin_geo_los_trace",
 		"admin_geogrid",
 		"admin_geomap",
 		"admin_geomap_reload",
@@ -159,6 +161,21 @@ public class AdminGeodata implements IAdminCommandHandler
 				}
 				break;
 			}
+			case "admin_geo_los_cache":
+			{
+				final long hits = GeoEngine.getInstance().getLosCacheHits();
+				final long misses = GeoEngine.getInstance().getLosCacheMisses();
+				activeChar.sendSysMessage("LOS cache: " + hits + " hits, " + misses + " misses (" + ((hits + misses) > 0 ? (hits * 100) / (hits + misses) : 0) + "% hits).");
+				break;
+			}
+			case "admin_geo_los_trace":
+			{
+				final int queries = st.hasMoreTokens() ? Integer.parseInt(st.nextToken()) : 100000;
+				final Path file = GeoEngineConfig.GEOEDIT_PATH.resolve("los_trace.txt");
+				GeoEngine.getInstance().recordLosTrace(file, queries);
+				activeChar.sendSysMessage("Recording the next " + queries + " LOS queries to " + file + ".");
+				break;
+			}
 			case "admin_geogrid":
 			{
 				if (!st.hasMoreTokens() || !st.nextToken().equalsIgnoreCase("off"))
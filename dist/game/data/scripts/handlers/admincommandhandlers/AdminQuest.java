@@ -23,7 +23,7 @@ package handlers.admincommandhandlers;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
@@ -32,6 +32,7 @@ import java.util.logging.Logger;
 
 import org.l2jmobius.commons.util.StringUtil;
 import org.l2jmobius.gameserver.handler.IAdminCommandHandler;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.managers.ScriptManager;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.Player;
@@ -54,7 +55,8 @@ public class AdminQuest implements IAdminCommandHandler
 		"admin_script_unload",
 		"admin_script_dir",
 		"admin_show_quests",
-		"admin_quest_info"
+		"admin_quest_info",
+		"admin_quest_timers"
 	};
 	
 	private static Quest findScript(String script)
@@ -186,6 +188,25 @@ public class AdminQuest implements IAdminCommandHandler
 				activeChar.sendPacket(msg);
 			}
 		}
+		else if (command.startsWith("admin_quest_timers"))
+		{
+			final StringBuilder sb = new StringBuilder();
+			int counter = 0;
+			for (Entry<String, Integer> entry : QuestTimerManager.getInstance().getTimerCounts().entrySet())
+			{
+				sb.append("<tr><td colspan=\"3\"><font color=\"LEVEL\"><a action=\"bypass -h admin_quest_info " + entry.getKey() + "\">" + entry.getKey() + "</a></font></td><td><font color=00FF00>" + entry.getValue() + "</font></td></tr>");
+				if (++counter >= 20)
+				{
+					break;
+				}
+			}
+			
+			final NpcHtmlMessage msg = new NpcHtmlMessage(0, 1);
+			msg.setFile(activeChar, "data/html/admin/npc-quests.htm");
+			msg.replace("%quests%", sb.toString());
+			msg.replace("%questName%", "Running timers: " + QuestTimerManager.getInstance().getTimerCount());
+			activeChar.sendPacket(msg);
+		}
 		else if (command.startsWith("admin_quest_info "))
 		{
 			final String questName = command.substring("admin_quest_info ".length());
@@ -255,7 +276,7 @@ public class AdminQuest implements IAdminCommandHandler
 				items = quest.getRegisteredItemIds().length + ":" + items.substring(2);
 			}
 			
-			for (List<QuestTimer> list : quest.getQuestTimers().values())
+			for (Set<QuestTimer> list : quest.getQuestTimers().values())
 			{
 				for (QuestTimer timer : list)
 				{
@@ -285,7 +306,7 @@ public class AdminQuest implements IAdminCommandHandler
 			
 			if (!timers.isEmpty())
 			{
-				sb.append("<tr><td colspan=\"4\"><table width=270 border=0 bgcolor=131210><tr><td width=270><font color=\"LEVEL\">Timers:</font> <font color=00FF00></font></td></tr></table></td></tr>");
+				sb.append("<tr><td colspan=\"4\"><table width=270 border=0 bgcolor=131210><tr><td width=270><font color=\"LEVEL\">Timers:</font> <font color=00FF00>" + quest.getQuestTimerCount() + "</font></td></tr></table></td></tr>");
 				sb.append(timers);
 			}
 			
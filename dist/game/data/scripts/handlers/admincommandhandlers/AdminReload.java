@@ -171,6 +171,7 @@ public class AdminReload implements IAdminCommandHandler
 					{
 						HtmCache.getInstance().reload();
 						activeChar.sendSysMessage("Cache[HTML]: " + HtmCache.getInstance().getMemoryUsage() + " megabytes on " + HtmCache.getInstance().getLoadedFiles() + " files loaded");
+						activeChar.sendSysMessage("Cache[HTML]: " + HtmCache.getInstance().getHits() + " hits, " + HtmCache.getInstance().getMisses() + " misses, " + HtmCache.getInstance().getEvictions() + " evictions.");
 						AdminData.getInstance().broadcastMessageToGMs(activeChar.getName() + ": Reloaded Htms.");
 					}
 					break;
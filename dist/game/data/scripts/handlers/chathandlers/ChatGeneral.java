@@ -110,6 +110,8 @@ public class ChatGeneral implements IChatHandler
 			
 			final CreatureSay cs = new CreatureSay(activeChar, type, activeChar.getAppearance().getVisibleName(), text, shareLocation);
 			final CreatureSay csRandom = new CreatureSay(activeChar, type, activeChar.getAppearance().getVisibleName(), ChatRandomizer.randomize(text), shareLocation);
+			cs.sendInBroadcast();
+			csRandom.sendInBroadcast();
 			
 			World.getInstance().forEachVisibleObjectInRange(activeChar, Player.class, 1250, player ->
 			{
@@ -65,6 +65,7 @@ public class ChatHeroVoice implements IChatHandler
 		}
 		
 		final CreatureSay cs = new CreatureSay(activeChar, type, activeChar.getName(), text, shareLocation);
+		cs.sendInBroadcast();
 		for (Player player : World.getInstance().getPlayers())
 		{
 			if ((player != null) && !BlockList.isBlocked(player, activeChar))
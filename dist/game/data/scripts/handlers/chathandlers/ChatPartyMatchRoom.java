@@ -55,6 +55,7 @@ public class ChatPartyMatchRoom implements IChatHandler
 			}
 			
 			final CreatureSay cs = new CreatureSay(activeChar, type, activeChar.getName(), text, shareLocation);
+			cs.sendInBroadcast();
 			for (Player _member : room.getMembers())
 			{
 				if (FactionSystemConfig.FACTION_SYSTEM_ENABLED)
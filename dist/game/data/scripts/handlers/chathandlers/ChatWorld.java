@@ -34,6 +34,7 @@ import org.l2jmobius.gameserver.network.enums.ChatType;
 import org.l2jmobius.gameserver.network.serverpackets.CreatureSay;
 import org.l2jmobius.gameserver.network.serverpackets.ExWorldChatCnt;
 import org.l2jmobius.gameserver.network.serverpackets.SystemMessage;
+import org.l2jmobius.gameserver.util.Broadcast;
 
 /**
  * World chat handler.
@@ -114,35 +115,17 @@ public class ChatWorld implements IChatHandler
 			{
 				if (activeChar.isGood())
 				{
-					for (Player player : World.getInstance().getAllGoodPlayers())
-					{
-						if (activeChar.isNotBlocked(player))
-						{
-							player.sendPacket(cs);
-						}
-					}
+					Broadcast.toPlayers(World.getInstance().getAllGoodPlayers(), activeChar::isNotBlocked, cs);
 				}
 				
 				if (activeChar.isEvil())
 				{
-					for (Player player : World.getInstance().getAllEvilPlayers())
-					{
-						if (activeChar.isNotBlocked(player))
-						{
-							player.sendPacket(cs);
-						}
-					}
+					Broadcast.toPlayers(World.getInstance().getAllEvilPlayers(), activeChar::isNotBlocked, cs);
 				}
 			}
 			else
 			{
-				for (Player player : World.getInstance().getPlayers())
-				{
-					if (activeChar.isNotBlocked(player))
-					{
-						player.sendPacket(cs);
-					}
-				}
+				Broadcast.toPlayers(World.getInstance().getPlayers(), activeChar::isNotBlocked, cs);
 			}
 			
 			activeChar.setWorldChatUsed(activeChar.getWorldChatUsed() + 1);
@@ -38,6 +38,13 @@ public class DatabaseConfig
 	public static String DATABASE_PASSWORD;
 	public static int DATABASE_MAX_CONNECTIONS;
 	public static boolean DATABASE_TEST_CONNECTIONS;
+	public static boolean STATEMENT_STATISTICS;
+	public static int SLOW_QUERY_THRESHOLD;
+	public static int STATEMENT_STATISTICS_DUMP_INTERVAL;
+	public static int STATEMENT_STATISTICS_DUMP_SIZE;
+	public static int ASYNC_WRITE_DELAY;
+	public static int ASYNC_WRITE_LANES;
+	public static int ASYNC_WRITE_QUEUE_CAPACITY;
 	public static boolean BACKUP_DATABASE;
 	public static String MYSQL_BIN_PATH;
 	public static String BACKUP_PATH;
@@ -52,6 +59,13 @@ public class DatabaseConfig
 		DATABASE_PASSWORD = config.getString("Password", "");
 		DATABASE_MAX_CONNECTIONS = config.getInt("MaximumDatabaseConnections", 10);
 		DATABASE_TEST_CONNECTIONS = config.getBoolean("TestDatabaseConnections", false);
+		STATEMENT_STATISTICS = config.getBoolean("StatementStatistics", false);
+		SLOW_QUERY_THRESHOLD = config.getInt("SlowQueryThreshold", 1000);
+		STATEMENT_STATISTICS_DUMP_INTERVAL = config.getInt("StatementStatisticsDumpInterval", 60);
+		STATEMENT_STATISTICS_DUMP_SIZE = config.getInt("StatementStatisticsDumpSize", 20);
+		ASYNC_WRITE_DELAY = config.getInt("AsyncWriteDelay", 100);
+		ASYNC_WRITE_LANES = config.getInt("AsyncWriteLanes", 4);
+		ASYNC_WRITE_QUEUE_CAPACITY = config.getInt("AsyncWriteQueueCapacity", 50000);
 		BACKUP_DATABASE = config.getBoolean("BackupDatabase", false);
 		MYSQL_BIN_PATH = config.getString("MySqlBinLocation", "C:/xampp/mysql/bin/");
 		BACKUP_PATH = config.getString("BackupPath", "../backup/");
@@ -35,7 +35,11 @@ public class ThreadConfig
 	public static int SCHEDULED_THREAD_POOL_SIZE;
 	public static int HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE;
 	public static int INSTANT_THREAD_POOL_SIZE;
+	public static int TICK_SHARD_COUNT;
+	public static boolean USE_TIMING_WHEEL;
+	public static int TIMING_WHEEL_TICK_DURATION;
 	public static boolean THREADS_FOR_LOADING;
+	public static boolean PARALLEL_STARTUP;
 	
 	public static void load()
 	{
@@ -53,6 +57,12 @@ public class ThreadConfig
 			INSTANT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
 		}
 		
+		TICK_SHARD_COUNT = config.getInt("TickShardCount", -1);
+		if (TICK_SHARD_COUNT < 1)
+		{
+			TICK_SHARD_COUNT = Runtime.getRuntime().availableProcessors();
+		}
+		
 		if ((SCHEDULED_THREAD_POOL_SIZE > 2) && (INSTANT_THREAD_POOL_SIZE > 2))
 		{
 			HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE = Math.max(2, SCHEDULED_THREAD_POOL_SIZE / 4);
@@ -62,6 +72,9 @@ public class ThreadConfig
 			HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE = 0;
 		}
 		
+		USE_TIMING_WHEEL = config.getBoolean("UseTimingWheel", false);
+		TIMING_WHEEL_TICK_DURATION = Math.max(1, config.getInt("TimingWheelTickDuration", 10));
+		
 		if (config.containsKey("ThreadsForLoading"))
 		{
 			THREADS_FOR_LOADING = config.getBoolean("ThreadsForLoading", false);
@@ -70,5 +83,7 @@ public class ThreadConfig
 		{
 			THREADS_FOR_LOADING = false;
 		}
+		
+		PARALLEL_STARTUP = config.getBoolean("ParallelStartup", false);
 	}
 }
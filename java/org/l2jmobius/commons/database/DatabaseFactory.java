@@ -260,7 +260,7 @@ public class DatabaseFactory
 	{
 		try
 		{
-			return DATABASE_POOL.getConnection();
+			return DatabaseStatistics.getInstance().wrap(DATABASE_POOL.getConnection());
 		}
 		catch (SQLException e)
 		{
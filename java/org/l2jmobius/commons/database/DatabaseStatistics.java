@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.commons.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.l2jmobius.commons.config.DatabaseConfig;
+import org.l2jmobius.commons.threads.ThreadPool;
+
+/**
+ * Statement level database statistics.<br>
+ * Connections are wrapped so that every executed statement records its count, latency histogram, rows, batch sizes and the calling code, grouped by SQL text.<br>
+ * Literals are replaced by {@code ?} before grouping and statements beyond {@link #MAX_STATEMENTS} distinct texts are grouped together, so concatenated SQL cannot grow the map without limit.<br>
+ * The calling code is resolved once per SQL text, a full stack is only captured for statements slower than the configured threshold.
+ * @author Mobius
+ */
+public class DatabaseStatistics
+{
+	private static final Logger LOGGER = Logger.getLogger(DatabaseStatistics.class.getName());
+	
+	/** Upper bounds in milliseconds of the latency histogram buckets, the last bucket is unbounded. */
+	public static final long[] HISTOGRAM_BOUNDS =
+	{
+		1,
+		2,
+		5,
+		10,
+		25,
+		50,
+		100,
+		250,
+		500,
+		1000
+	};
+	
+	private static final String STATEMENT_BATCH = "<statement batch>";
+	private static final String OTHER_STATEMENTS = "<other statements>";
+	private static final int MAX_STATEMENTS = 2000;
+	private static final int STACK_DEPTH = 8;
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+	
+	private final Map<String, SqlStatistics> _statistics = new ConcurrentHashMap<>();
+	
+	/**
+	 * Statistics of a single SQL text.
+	 */
+	public static class SqlStatistics
+	{
+		private final String _sql;
+		private final String _caller;
+		private final LongAdder _count = new LongAdder();
+		private final LongAdder _totalNanos = new LongAdder();
+		private final AtomicLong _maxNanos = new AtomicLong();
+		private final LongAdder _rows = new LongAdder();
+		private final LongAdder _batches = new LongAdder();
+		private final LongAdder _batchedStatements = new LongAdder();
+		private final LongAdder _errors = new LongAdder();
+		private final LongAdder[] _histogram = new LongAdder[HISTOGRAM_BOUNDS.length + 1];
+		
+		SqlStatistics(String sql, String caller)
+		{
+			_sql = sql;
+			_caller = caller;
+			for (int i = 0; i < _histogram.length; i++)
+			{
+				_histogram[i] = new LongAdder();
+			}
+		}
+		
+		void record(long nanos)
+		{
+			_count.increment();
+			_totalNanos.add(nanos);
+			if (nanos > _maxNanos.get())
+			{
+				_maxNanos.accumulateAndGet(nanos, Math::max);
+			}
+			
+			final long millis = nanos / 1000000;
+			int bucket = 0;
+			while ((bucket < HISTOGRAM_BOUNDS.length) && (millis >= HISTOGRAM_BOUNDS[bucket]))
+			{
+				bucket++;
+			}
+			_histogram[bucket].increment();
+		}
+		
+		public String getSql()
+		{
+			return _sql;
+		}
+		
+		/**
+		 * @return the code that first prepared this statement
+		 */
+		public String getCaller()
+		{
+			return _caller;
+		}
+		
+		public long getCount()
+		{
+			return _count.sum();
+		}
+		
+		public long getTotalNanos()
+		{
+			return _totalNanos.sum();
+		}
+		
+		public long getMaxNanos()
+		{
+			return _maxNanos.get();
+		}
+		
+		public double getAverageMillis()
+		{
+			final long count = getCount();
+			return count == 0 ? 0 : getTotalNanos() / 1000000d / count;
+		}
+		
+		/**
+		 * @return the rows read by queries and affected by updates
+		 */
+		public long getRows()
+		{
+			return _rows.sum();
+		}
+		
+		public long getBatches()
+		{
+			return _batches.sum();
+		}
+		
+		public long getBatchedStatements()
+		{
+			return _batchedStatements.sum();
+		}
+		
+		public long getErrors()
+		{
+			return _errors.sum();
+		}
+		
+		/**
+		 * @return the execution counts per bucket of {@link DatabaseStatistics#HISTOGRAM_BOUNDS}
+		 */
+		public long[] getHistogram()
+		{
+			final long[] histogram = new long[_histogram.length];
+			for (int i = 0; i < histogram.length; i++)
+			{
+				histogram[i] = _histogram[i].sum();
+			}
+			return histogram;
+		}
+		
+		@Override
+		public String toString()
+		{
+			final StringBuilder sb = new StringBuilder();
+			sb.append(getCount()).append(" calls, ");
+			sb.append(getTotalNanos() / 1000000).append("ms total, ");
+			sb.append(String.format("%.2f", getAverageMillis())).append("ms avg, ");
+			sb.append(getMaxNanos() / 1000000).append("ms max, ");
+			sb.append(getRows()).append(" rows");
+			if (getBatches() > 0)
+			{
+				sb.append(", ").append(getBatches()).append(" batches of ").append(getBatchedStatements() / getBatches()).append(" avg");
+			}
+			if (getErrors() > 0)
+			{
+				sb.append(", ").append(getErrors()).append(" errors");
+			}
+			sb.append(" [").append(_caller).append("] ").append(_sql);
+			return sb.toString();
+		}
+	}
+	
+	private class ConnectionHandler implements InvocationHandler
+	{
+		private final Connection _connection;
+		
+		ConnectionHandler(Connection connection)
+		{
+			_connection = connection;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			final Object result = invokeTarget(_connection, method, args);
+			if (result instanceof Statement statement)
+			{
+				switch (method.getName())
+				{
+					case "prepareStatement":
+					case "prepareCall":
+					{
+						return wrapStatement(statement, getStatistics((String) args[0]));
+					}
+					case "createStatement":
+					{
+						return wrapStatement(statement, null);
+					}
+				}
+			}
+			
+			return result;
+		}
+	}
+	
+	private class StatementHandler implements InvocationHandler
+	{
+		private final Statement _statement;
+		private final SqlStatistics _statistics;
+		private int _batchSize;
+		
+		StatementHandler(Statement statement, SqlStatistics statistics)
+		{
+			_statement = statement;
+			_statistics = statistics;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			final String name = method.getName();
+			if (!name.startsWith("execute"))
+			{
+				if (name.equals("addBatch"))
+				{
+					_batchSize++;
+				}
+				else if (name.equals("clearBatch"))
+				{
+					_batchSize = 0;
+				}
+				
+				final Object result = invokeTarget(_statement, method, args);
+				return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, _statistics) : result;
+			}
+			
+			final boolean batch = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch");
+			SqlStatistics statistics = _statistics;
+			if ((args != null) && (args.length > 0) && (args[0] instanceof String sql))
+			{
+				statistics = getStatistics(sql);
+			}
+			else if (statistics == null)
+			{
+				statistics = getStatistics(STATEMENT_BATCH);
+			}
+			
+			final long start = System.nanoTime();
+			final Object result;
+			try
+			{
+				result = invokeTarget(_statement, method, args);
+			}
+			catch (Throwable t)
+			{
+				statistics._errors.increment();
+				throw t;
+			}
+			finally
+			{
+				final long nanos = System.nanoTime() - start;
+				statistics.record(nanos);
+				if (batch)
+				{
+					statistics._batches.increment();
+					statistics._batchedStatements.add(_batchSize);
+					_batchSize = 0;
+				}
+				
+				if (nanos >= (DatabaseConfig.SLOW_QUERY_THRESHOLD * 1000000L))
+				{
+					logSlowQuery(statistics, nanos);
+				}
+			}
+			
+			if (result instanceof ResultSet resultSet)
+			{
+				return wrapResultSet(resultSet, statistics);
+			}
+			if (result instanceof Integer rows)
+			{
+				statistics._rows.add(Math.max(0, rows));
+			}
+			else if (result instanceof Long rows)
+			{
+				statistics._rows.add(Math.max(0, rows));
+			}
+			else if (result instanceof int[] batchRows)
+			{
+				for (int rows : batchRows)
+				{
+					statistics._rows.add(Math.max(0, rows));
+				}
+			}
+			else if (result instanceof long[] batchRows)
+			{
+				for (long rows : batchRows)
+				{
+					statistics._rows.add(Math.max(0, rows));
+				}
+			}
+			
+			return result;
+		}
+	}
+	
+	private static class ResultSetHandler implements InvocationHandler
+	{
+		private final ResultSet _resultSet;
+		private final SqlStatistics _statistics;
+		
+		ResultSetHandler(ResultSet resultSet, SqlStatistics statistics)
+		{
+			_resultSet = resultSet;
+			_statistics = statistics;
+		}
+		
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			final Object result = invokeTarget(_resultSet, method, args);
+			if ((result == Boolean.TRUE) && method.getName().equals("next"))
+			{
+				_statistics._rows.increment();
+			}
+			return result;
+		}
+	}
+	
+	protected DatabaseStatistics()
+	{
+	}
+	
+	/**
+	 * Wraps a pooled connection so that its statements are recorded.
+	 * @param connection the connection to wrap
+	 * @return the wrapped connection, or the connection itself when statistics are disabled
+	 */
+	public Connection wrap(Connection connection)
+	{
+		if (!DatabaseConfig.STATEMENT_STATISTICS)
+		{
+			return connection;
+		}
+		
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]
+		{
+			Connection.class
+		}, new ConnectionHandler(connection));
+	}
+	
+	private Statement wrapStatement(Statement statement, SqlStatistics statistics)
+	{
+		final Class<?> type = statement instanceof CallableStatement ? CallableStatement.class : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+		return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]
+		{
+			type
+		}, new StatementHandler(statement, statistics));
+	}
+	
+	private static ResultSet wrapResultSet(ResultSet resultSet, SqlStatistics statistics)
+	{
+		if (statistics == null)
+		{
+			return resultSet;
+		}
+		
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]
+		{
+			ResultSet.class
+		}, new ResultSetHandler(resultSet, statistics));
+	}
+	
+	private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable
+	{
+		try
+		{
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw e.getCause();
+		}
+	}
+	
+	private SqlStatistics getStatistics(String sql)
+	{
+		final SqlStatistics statistics = _statistics.get(sql);
+		if (statistics != null)
+		{
+			return statistics;
+		}
+		
+		final String normalized = normalize(sql);
+		if (normalized != sql)
+		{
+			final SqlStatistics existing = _statistics.get(normalized);
+			if (existing != null)
+			{
+				return existing;
+			}
+		}
+		
+		if (_statistics.size() >= MAX_STATEMENTS)
+		{
+			return _statistics.computeIfAbsent(OTHER_STATEMENTS, key -> new SqlStatistics(key, "various"));
+		}
+		
+		return _statistics.computeIfAbsent(normalized, key -> new SqlStatistics(key, findCaller()));
+	}
+	
+	/**
+	 * Replaces quoted strings and numeric literals with {@code ?}.
+	 * @param sql the SQL text
+	 * @return the normalized text, or the same instance when it contains no literals
+	 */
+	private static String normalize(String sql)
+	{
+		StringBuilder sb = null;
+		final int length = sql.length();
+		int i = 0;
+		while (i < length)
+		{
+			final char c = sql.charAt(i);
+			int end = -1;
+			if ((c == '\'') || (c == '"'))
+			{
+				end = i + 1;
+				while (end < length)
+				{
+					final char e = sql.charAt(end++);
+					if (e == '\\')
+					{
+						end++;
+					}
+					else if (e == c)
+					{
+						if ((end < length) && (sql.charAt(end) == c))
+						{
+							end++;
+						}
+						else
+						{
+							break;
+						}
+					}
+				}
+				end = Math.min(end, length);
+			}
+			else if (Character.isDigit(c) && ((i == 0) || !isIdentifierPart(sql.charAt(i - 1))))
+			{
+				end = i + 1;
+				while ((end < length) && (isIdentifierPart(sql.charAt(end)) || (sql.charAt(end) == '.')))
+				{
+					end++;
+				}
+			}
+			
+			if (end < 0)
+			{
+				if (sb != null)
+				{
+					sb.append(c);
+				}
+				i++;
+				continue;
+			}
+			
+			if (sb == null)
+			{
+				sb = new StringBuilder(length);
+				sb.append(sql, 0, i);
+			}
+			sb.append('?');
+			i = end;
+		}
+		
+		return sb == null ? sql : sb.toString();
+	}
+	
+	private static boolean isIdentifierPart(char c)
+	{
+		return Character.isLetterOrDigit(c) || (c == '_') || (c == '`');
+	}
+	
+	private static boolean isInternalFrame(StackWalker.StackFrame frame)
+	{
+		final String className = frame.getClassName();
+		return className.startsWith(DatabaseStatistics.class.getName()) || className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("com.sun.proxy.");
+	}
+	
+	private static String findCaller()
+	{
+		return STACK_WALKER.walk(frames -> frames.dropWhile(DatabaseStatistics::isInternalFrame).findFirst().map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber()).orElse("unknown"));
+	}
+	
+	private static void logSlowQuery(SqlStatistics statistics, long nanos)
+	{
+		final String stack = STACK_WALKER.walk(frames -> frames.dropWhile(DatabaseStatistics::isInternalFrame).limit(STACK_DEPTH).map(frame -> "\tat " + frame.toString()).collect(Collectors.joining(System.lineSeparator())));
+		LOGGER.warning("DatabaseStatistics: Slow query (" + (nanos / 1000000) + "ms) " + statistics.getSql() + System.lineSeparator() + stack);
+	}
+	
+	/**
+	 * @param limit the maximum number of statements to return
+	 * @return the statistics of the statements with the highest total execution time
+	 */
+	public List<SqlStatistics> getTopStatistics(int limit)
+	{
+		final List<SqlStatistics> result = new ArrayList<>(_statistics.values());
+		result.sort(Comparator.comparingLong(SqlStatistics::getTotalNanos).reversed());
+		return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+	}
+	
+	/**
+	 * @return the number of distinct recorded statements, including the overflow group
+	 */
+	public int getStatementCount()
+	{
+		return _statistics.size();
+	}
+	
+	/**
+	 * Clears all recorded statistics.
+	 */
+	public void reset()
+	{
+		_statistics.clear();
+	}
+	
+	/**
+	 * Schedules the periodic statistics dump, must be called after the thread pools are initialized.
+	 */
+	public void scheduleDump()
+	{
+		if (DatabaseConfig.STATEMENT_STATISTICS && (DatabaseConfig.STATEMENT_STATISTICS_DUMP_INTERVAL > 0))
+		{
+			final long interval = DatabaseConfig.STATEMENT_STATISTICS_DUMP_INTERVAL * 60000L;
+			ThreadPool.scheduleAtFixedRate(this::dump, interval, interval);
+		}
+	}
+	
+	/**
+	 * Logs the statements with the highest total execution time.
+	 */
+	public void dump()
+	{
+		final List<SqlStatistics> top = getTopStatistics(DatabaseConfig.STATEMENT_STATISTICS_DUMP_SIZE);
+		if (top.isEmpty())
+		{
+			return;
+		}
+		
+		final StringBuilder sb = new StringBuilder();
+		sb.append("DatabaseStatistics: Top ").append(top.size()).append(" of ").append(getStatementCount()).append(" statements by total time.");
+		for (SqlStatistics statistics : top)
+		{
+			sb.append(System.lineSeparator()).append('\t').append(statistics);
+		}
+		LOGGER.info(sb.toString());
+	}
+	
+	public static DatabaseStatistics getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final DatabaseStatistics INSTANCE = new DatabaseStatistics();
+	}
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.commons.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.l2jmobius.commons.config.DatabaseConfig;
+import org.l2jmobius.commons.threads.ThreadPool;
+
+/**
+ * Asynchronous database write queue.<br>
+ * Writes are spread over lanes by an ordering key, usually a character or clan id, and each lane executes its writes in the order they were added.<br>
+ * A write added with a coalesce key replaces a pending write with the same key, which moves to the end of the lane. Coalesce keys must only be shared by writes that fully overwrite the same row.<br>
+ * Each lane flushes its pending writes in one transaction, executing consecutive writes of the same statement as a JDBC batch.<br>
+ * When the queue is disabled, full or shut down, writes are executed synchronously after the pending writes of their lane.
+ * @author Mobius
+ */
+public class DatabaseWriteQueue
+{
+	private static final Logger LOGGER = Logger.getLogger(DatabaseWriteQueue.class.getName());
+	
+	private static final int MAX_WRITES_PER_TRANSACTION = 500;
+	
+	private final WriteLane[] _lanes;
+	private final AtomicInteger _pendingWrites = new AtomicInteger();
+	private final AtomicLong _executedWrites = new AtomicLong();
+	private final AtomicLong _coalescedWrites = new AtomicLong();
+	private final AtomicLong _failedWrites = new AtomicLong();
+	private final AtomicLong _synchronousWrites = new AtomicLong();
+	private volatile boolean _shutdown = false;
+	
+	/**
+	 * Sets the parameters of a prepared statement for a single write.
+	 */
+	@FunctionalInterface
+	public interface StatementSetter
+	{
+		void set(PreparedStatement statement) throws SQLException;
+	}
+	
+	private static class DatabaseWrite
+	{
+		final String _sql;
+		final StatementSetter _setter;
+		
+		DatabaseWrite(String sql, StatementSetter setter)
+		{
+			_sql = sql;
+			_setter = setter;
+		}
+	}
+	
+	private class WriteLane implements Runnable
+	{
+		private final Map<Object, DatabaseWrite> _writes = new LinkedHashMap<>();
+		private final ReentrantLock _flushLock = new ReentrantLock();
+		private boolean _scheduled = false;
+		
+		void add(Object key, DatabaseWrite write)
+		{
+			synchronized (this)
+			{
+				if (_writes.remove(key) != null)
+				{
+					_coalescedWrites.incrementAndGet();
+				}
+				else
+				{
+					_pendingWrites.incrementAndGet();
+				}
+				
+				_writes.put(key, write);
+				if (_scheduled)
+				{
+					return;
+				}
+				_scheduled = true;
+			}
+			
+			ThreadPool.schedule(this, DatabaseConfig.ASYNC_WRITE_DELAY);
+		}
+		
+		@Override
+		public void run()
+		{
+			synchronized (this)
+			{
+				_scheduled = false;
+			}
+			
+			flush(null);
+		}
+		
+		/**
+		 * Executes all pending writes of this lane, followed by the given write.
+		 * @param write an additional write to execute last, can be {@code null}
+		 */
+		void flush(DatabaseWrite write)
+		{
+			_flushLock.lock();
+			try
+			{
+				List<DatabaseWrite> writes;
+				while (!(writes = poll()).isEmpty())
+				{
+					executeWrites(writes);
+				}
+				
+				if (write != null)
+				{
+					executeWrites(List.of(write));
+				}
+			}
+			finally
+			{
+				_flushLock.unlock();
+			}
+		}
+		
+		private synchronized List<DatabaseWrite> poll()
+		{
+			if (_writes.isEmpty())
+			{
+				return List.of();
+			}
+			
+			final List<DatabaseWrite> writes = new ArrayList<>(Math.min(_writes.size(), MAX_WRITES_PER_TRANSACTION));
+			final Iterator<DatabaseWrite> iterator = _writes.values().iterator();
+			while (iterator.hasNext() && (writes.size() < MAX_WRITES_PER_TRANSACTION))
+			{
+				writes.add(iterator.next());
+				iterator.remove();
+			}
+			
+			_pendingWrites.addAndGet(-writes.size());
+			return writes;
+		}
+	}
+	
+	protected DatabaseWriteQueue()
+	{
+		_lanes = new WriteLane[Math.max(1, DatabaseConfig.ASYNC_WRITE_LANES)];
+		for (int i = 0; i < _lanes.length; i++)
+		{
+			_lanes[i] = new WriteLane();
+		}
+	}
+	
+	/**
+	 * Adds a write that is executed after all previously added writes with the same ordering key.
+	 * @param orderKey the ordering key, usually a character or clan id
+	 * @param sql the statement to execute
+	 * @param setter sets the statement parameters
+	 */
+	public void add(long orderKey, String sql, StatementSetter setter)
+	{
+		add(orderKey, null, sql, setter);
+	}
+	
+	/**
+	 * Adds a write that is executed after all previously added writes with the same ordering key.<br>
+	 * A pending write with the same coalesce key is discarded in favor of this one.
+	 * @param orderKey the ordering key, usually a character or clan id
+	 * @param coalesceKey identifies the row fully overwritten by this write, or {@code null} to never coalesce
+	 * @param sql the statement to execute
+	 * @param setter sets the statement parameters
+	 */
+	public void add(long orderKey, String coalesceKey, String sql, StatementSetter setter)
+	{
+		final DatabaseWrite write = new DatabaseWrite(sql, setter);
+		if (DatabaseConfig.ASYNC_WRITE_DELAY <= 0)
+		{
+			_synchronousWrites.incrementAndGet();
+			executeWrites(List.of(write));
+			return;
+		}
+		
+		final WriteLane lane = getLane(orderKey);
+		if (_shutdown || (_pendingWrites.get() >= DatabaseConfig.ASYNC_WRITE_QUEUE_CAPACITY))
+		{
+			_synchronousWrites.incrementAndGet();
+			lane.flush(write);
+			return;
+		}
+		
+		lane.add(coalesceKey != null ? sql + '\u0000' + coalesceKey : write, write);
+	}
+	
+	private WriteLane getLane(long orderKey)
+	{
+		return _lanes[(Long.hashCode(orderKey) & Integer.MAX_VALUE) % _lanes.length];
+	}
+	
+	/**
+	 * Executes the pending writes sharing a lane with the given ordering key.<br>
+	 * Must be called before synchronously reading rows that may have pending writes.
+	 * @param orderKey the ordering key
+	 */
+	public void flush(long orderKey)
+	{
+		getLane(orderKey).flush(null);
+	}
+	
+	/**
+	 * Executes all pending writes.
+	 */
+	public void flush()
+	{
+		for (WriteLane lane : _lanes)
+		{
+			lane.flush(null);
+		}
+	}
+	
+	/**
+	 * Executes all pending writes and runs any further writes synchronously.
+	 */
+	public void shutdown()
+	{
+		_shutdown = true;
+		flush();
+		LOGGER.info("DatabaseWriteQueue: Executed " + _executedWrites.get() + " writes, " + _coalescedWrites.get() + " coalesced, " + _synchronousWrites.get() + " synchronous, " + _failedWrites.get() + " failed.");
+	}
+	
+	private void executeWrites(List<DatabaseWrite> writes)
+	{
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			con.setAutoCommit(false);
+			try
+			{
+				int start = 0;
+				while (start < writes.size())
+				{
+					final String sql = writes.get(start)._sql;
+					int end = start + 1;
+					while ((end < writes.size()) && writes.get(end)._sql.equals(sql))
+					{
+						end++;
+					}
+					
+					try (PreparedStatement ps = con.prepareStatement(sql))
+					{
+						for (int i = start; i < end; i++)
+						{
+							writes.get(i)._setter.set(ps);
+							ps.addBatch();
+						}
+						
+						ps.executeBatch();
+					}
+					
+					start = end;
+				}
+				
+				con.commit();
+				_executedWrites.addAndGet(writes.size());
+			}
+			catch (SQLException e)
+			{
+				con.rollback();
+				throw e;
+			}
+			finally
+			{
+				con.setAutoCommit(true);
+			}
+		}
+		catch (Exception e)
+		{
+			if (writes.size() == 1)
+			{
+				_failedWrites.incrementAndGet();
+				LOGGER.log(Level.WARNING, "DatabaseWriteQueue: Could not execute " + writes.get(0)._sql, e);
+				return;
+			}
+			
+			// Retry one by one, so a single failing write does not discard the others.
+			for (DatabaseWrite write : writes)
+			{
+				executeWrites(List.of(write));
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of writes waiting to be executed
+	 */
+	public int getPendingWrites()
+	{
+		return _pendingWrites.get();
+	}
+	
+	public long getExecutedWrites()
+	{
+		return _executedWrites.get();
+	}
+	
+	public long getCoalescedWrites()
+	{
+		return _coalescedWrites.get();
+	}
+	
+	public long getFailedWrites()
+	{
+		return _failedWrites.get();
+	}
+	
+	public long getSynchronousWrites()
+	{
+		return _synchronousWrites.get();
+	}
+	
+	public static DatabaseWriteQueue getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final DatabaseWriteQueue INSTANCE = new DatabaseWriteQueue();
+	}
+}
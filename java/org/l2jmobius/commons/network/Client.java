@@ -20,6 +20,8 @@
  */
 package org.l2jmobius.commons.network;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -46,6 +48,8 @@ public abstract class Client<T extends Connection<?>>
 	private final AtomicBoolean _closing = new AtomicBoolean();
 	private final AtomicInteger _estimateQueueSize = new AtomicInteger();
 	private final AtomicInteger _dataSentSize = new AtomicInteger();
+	private final Queue<ReadablePacket<?>> _packetsToExecute = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger _pendingPackets = new AtomicInteger();
 	private boolean _readingPayload;
 	private int _expectedReadSize;
 	
@@ -162,67 +166,121 @@ public abstract class Client<T extends Connection<?>>
 	}
 	
 	/**
-	 * Writes a specified packet to the connection. Encrypts the data, writes headers and manages the buffer.<br>
-	 * If the packet cannot be written, it handles resource release and retries.
+	 * Writes a specified packet to the connection, together with the packets queued after it.<br>
+	 * Each packet is encrypted in queue order and all of them are gathered into a single write operation, up to the maximum packets per write of the connection.<br>
+	 * If no packet can be written, it handles resource release and retries.
+	 * @param packet The first packet to be written.
+	 */
+	private void write(WritablePacket<? extends Client<T>> packet)
+	{
+		final int maxPackets = _connection.maxPacketsPerWrite();
+		ByteBuffer[] buffers = null;
+		int bufferCount = 0;
+		int dataSize = 0;
+		int packetCount = 0;
+		WritablePacket<? extends Client<T>> next = packet;
+		while (next != null)
+		{
+			final InternalWritableBuffer buffer = writeData(next);
+			if (buffer != null)
+			{
+				final ByteBuffer[] packetBuffers = buffer.toByteBuffers();
+				if (buffers == null)
+				{
+					buffers = packetBuffers;
+				}
+				else
+				{
+					if ((bufferCount + packetBuffers.length) > buffers.length)
+					{
+						buffers = Arrays.copyOf(buffers, Math.max(buffers.length << 1, bufferCount + packetBuffers.length));
+					}
+					
+					System.arraycopy(packetBuffers, 0, buffers, bufferCount, packetBuffers.length);
+				}
+				
+				bufferCount += packetBuffers.length;
+				dataSize += buffer.limit();
+			}
+			
+			if (++packetCount >= maxPackets)
+			{
+				break;
+			}
+			
+			next = _packetsToWrite.poll();
+			if (next != null)
+			{
+				_estimateQueueSize.decrementAndGet();
+			}
+		}
+		
+		if (bufferCount == 0)
+		{
+			handleNotWritten();
+			return;
+		}
+		
+		_dataSentSize.set(dataSize);
+		if (!_connection.write(bufferCount == buffers.length ? buffers : Arrays.copyOf(buffers, bufferCount)))
+		{
+			for (int i = 0; i < bufferCount; i++)
+			{
+				getResourcePool().recycleBuffer(buffers[i]);
+			}
+			
+			handleNotWritten();
+		}
+	}
+	
+	/**
+	 * Writes the data of the specified packet and encrypts it, including its header.
 	 * @param packet The packet to be written.
+	 * @return The buffer ready to be sent, or {@code null} if the packet could not be written.
 	 */
 	@SuppressWarnings(
 	{
 		"unchecked",
 		"rawtypes"
 	})
-	private void write(WritablePacket packet)
+	private InternalWritableBuffer writeData(WritablePacket packet)
 	{
-		boolean written = false;
 		InternalWritableBuffer buffer = null;
 		try
 		{
 			buffer = packet.writeData(this);
 			
 			final int payloadSize = buffer.limit() - ConnectionConfig.HEADER_SIZE;
-			if (payloadSize <= 0)
-			{
-				return;
-			}
-			
-			if (encrypt(buffer, ConnectionConfig.HEADER_SIZE, payloadSize))
+			if ((payloadSize > 0) && encrypt(buffer, ConnectionConfig.HEADER_SIZE, payloadSize))
 			{
 				final int bufferLimit = buffer.limit();
-				_dataSentSize.set(bufferLimit);
-				if (bufferLimit <= ConnectionConfig.HEADER_SIZE)
+				if (bufferLimit > ConnectionConfig.HEADER_SIZE)
 				{
-					return;
+					packet.writeHeader(buffer, bufferLimit);
+					return buffer;
 				}
-				
-				packet.writeHeader(buffer, bufferLimit);
-				written = _connection.write(buffer.toByteBuffers());
 			}
 		}
 		catch (Exception e)
 		{
 			// Placeholder for handling/logging Exception if needed.
 		}
-		finally
+		
+		if (buffer != null)
 		{
-			if (!written)
-			{
-				handleNotWritten(buffer);
-			}
+			buffer.releaseResources();
 		}
+		
+		return null;
 	}
 	
 	/**
-	 * Handles scenarios where a packet could not be written successfully.<br>
-	 * Releases any associated buffer resources and re-attempts the packet send if the client is still connected.
-	 * @param buffer The buffer containing packet data, which may need resource release.
+	 * Handles scenarios where no packet could be written successfully.<br>
+	 * Releases the writing resources and re-attempts the packet send if the client is still connected.
 	 */
-	private void handleNotWritten(InternalWritableBuffer buffer)
+	private void handleNotWritten()
 	{
-		if (!releaseWritingResource() && (buffer != null))
-		{
-			buffer.releaseResources();
-		}
-		
+		releaseWritingResource();
 		if (isConnected())
 		{
 			writeFairPacket();
@@ -234,6 +292,12 @@ public abstract class Client<T extends Connection<?>>
 	 */
 	public void read()
 	{
+		if (_connection.isFramedRead())
+		{
+			_connection.readFrames();
+			return;
+		}
+		
 		_expectedReadSize = ConnectionConfig.HEADER_SIZE;
 		_readingPayload = false;
 		_connection.readHeader();
@@ -368,6 +432,31 @@ public abstract class Client<T extends Connection<?>>
 		return _estimateQueueSize.get();
 	}
 	
+	/**
+	 * Retrieves the number of received packets waiting to be executed when packets are executed serially.
+	 * @return The number of pending packets.
+	 */
+	public int getPendingPacketCount()
+	{
+		return _pendingPackets.get();
+	}
+	
+	/**
+	 * @return The queue of received packets waiting to be executed serially.
+	 */
+	Queue<ReadablePacket<?>> getPacketsToExecute()
+	{
+		return _packetsToExecute;
+	}
+	
+	/**
+	 * @return The counter of received packets waiting to be executed serially.
+	 */
+	AtomicInteger getPendingPackets()
+	{
+		return _pendingPackets;
+	}
+	
 	/**
 	 * Retrieves the resource pool associated with the client's connection.
 	 * @return The {@link ResourcePool} used by the connection.
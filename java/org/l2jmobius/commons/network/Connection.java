@@ -102,6 +102,62 @@ public class Connection<T extends Client<Connection<T>>>
 		}
 	}
 	
+	/**
+	 * Initiates a framed read operation.<br>
+	 * The reading buffer is kept between reads, so it may already contain the beginning of the next packets.
+	 */
+	public void readFrames()
+	{
+		if (_channel.isOpen())
+		{
+			if (_readingBuffer == null)
+			{
+				_readingBuffer = _config.resourcePool.getBuffer(_config.readBufferSize).clear();
+			}
+			
+			read();
+		}
+	}
+	
+	/**
+	 * Prepares the reading buffer for the next framed read, keeping the bytes of a partially received packet.<br>
+	 * The buffer must be in read mode and positioned at the start of the partial packet.<br>
+	 * If the partial packet does not fit in the buffer, a larger one is used until the packet is completed.
+	 */
+	public void compactReadingBuffer()
+	{
+		final ByteBuffer buffer = _readingBuffer;
+		final int remaining = buffer.remaining();
+		if (remaining >= ConnectionConfig.HEADER_SIZE)
+		{
+			final int packetSize = Short.toUnsignedInt(buffer.getShort(buffer.position()));
+			if (packetSize > buffer.capacity())
+			{
+				_readingBuffer = _config.resourcePool.getBuffer(packetSize).clear().put(buffer);
+				_config.resourcePool.recycleBuffer(buffer);
+				return;
+			}
+		}
+		else if ((remaining == 0) && (buffer.capacity() > _config.readBufferSize))
+		{
+			// Return to the regular size after a large packet.
+			_config.resourcePool.recycleBuffer(buffer);
+			_readingBuffer = _config.resourcePool.getBuffer(_config.readBufferSize).clear();
+			return;
+		}
+		
+		buffer.compact();
+	}
+	
+	/**
+	 * Checks if this connection reads several packets at once into a single buffer.
+	 * @return {@code true} if framed reads are enabled, {@code false} if header and payload are read separately.
+	 */
+	public boolean isFramedRead()
+	{
+		return _config.readBufferSize > 0;
+	}
+	
 	/**
 	 * Initiates a write operation with the specified buffers.
 	 * @param buffers The ByteBuffers to write.
@@ -253,4 +309,13 @@ public class Connection<T extends Client<Connection<T>>>
 	{
 		return _config.dropPacketThreshold;
 	}
+	
+	/**
+	 * Retrieves the maximum number of queued packets gathered into a single write operation.
+	 * @return The maximum packets per write.
+	 */
+	public int maxPacketsPerWrite()
+	{
+		return _config.maxPacketsPerWrite;
+	}
 }
@@ -50,6 +50,11 @@ public class ConnectionConfig
 	public int dropPacketThreshold;
 	public int threadPriority;
 	public boolean autoExpandPoolCapacity;
+	public int readBufferSize;
+	public int maxPacketsPerWrite;
+	public boolean serialPacketExecution;
+	public int packetQueueCapacity;
+	public boolean packetQueueOverflowKick;
 	
 	/**
 	 * Initializes the connection configuration with the specified socket address.
@@ -79,6 +84,11 @@ public class ConnectionConfig
 		initBufferPoolFactor = networkConfig.getFloat("BufferPool.InitFactor", 0);
 		dropPackets = networkConfig.getBoolean("DropPackets", dropPackets);
 		dropPacketThreshold = networkConfig.getInt("DropPacketThreshold", 250);
+		readBufferSize = networkConfig.getInt("ReadBufferSize", 4096);
+		maxPacketsPerWrite = Math.max(1, networkConfig.getInt("MaxPacketsPerWrite", 32));
+		serialPacketExecution = networkConfig.getBoolean("SerialPacketExecution", false);
+		packetQueueCapacity = networkConfig.getInt("PacketQueueCapacity", 0);
+		packetQueueOverflowKick = networkConfig.getString("PacketQueueOverflowPolicy", "DROP").equalsIgnoreCase("KICK");
 		resourcePool.setBufferSegmentSize(networkConfig.getInt("BufferSegmentSize", resourcePool.getSegmentSize()));
 		
 		// Set up custom buffer pools from properties.
@@ -104,6 +114,12 @@ public class ConnectionConfig
 			resourcePool.addBufferPool(bufferSize, new BufferPool(10, bufferSize));
 		}
 		
+		// Add buffer pool for framed reads.
+		if (readBufferSize > 0)
+		{
+			resourcePool.addBufferPool(readBufferSize, new BufferPool(100, readBufferSize));
+		}
+		
 		// Initialize resource pool buffers.
 		resourcePool.initializeBuffers(autoExpandPoolCapacity, initBufferPoolFactor);
 	}
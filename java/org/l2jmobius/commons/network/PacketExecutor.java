@@ -21,16 +21,21 @@
 package org.l2jmobius.commons.network;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.network.internal.MMOThreadFactory;
 
 /**
  * Defines a class for executing incoming network packets.<br>
- * Handles the processing of packets, ideally offloading long-running or blocking operations to separate threads.
+ * Handles the processing of packets, ideally offloading long-running or blocking operations to separate threads.<br>
+ * When serial execution is enabled, each client has its own packet queue. Packets of a client are executed in the order they were received and never at the same time, while different clients run in parallel on a work-stealing pool.
  * @param <T> The type of Client associated with the packet to be executed.
  * @author Mobius
  */
@@ -38,18 +43,43 @@ public class PacketExecutor<T extends Client<Connection<T>>>
 {
 	private static final Logger LOGGER = Logger.getLogger(PacketExecutor.class.getName());
 	
-	private final ThreadPoolExecutor _executor;
+	// Maximum packets of one client executed before letting other clients run.
+	private static final int MAX_PACKETS_PER_RUN = 32;
+	
+	private final ExecutorService _executor;
+	private final boolean _serialExecution;
+	private final int _queueCapacity;
+	private final boolean _overflowKick;
+	private final AtomicInteger _queuedPackets = new AtomicInteger();
+	private final AtomicLong _droppedPackets = new AtomicLong();
 	
 	public PacketExecutor(ConnectionConfig config)
 	{
-		_executor = new ThreadPoolExecutor(config.threadPoolSize, Integer.MAX_VALUE, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new MMOThreadFactory("PacketExecutor", config.threadPriority));
+		_serialExecution = config.serialPacketExecution;
+		_queueCapacity = config.packetQueueCapacity;
+		_overflowKick = config.packetQueueOverflowKick;
+		if (_serialExecution)
+		{
+			_executor = new ForkJoinPool(config.threadPoolSize, new MMOThreadFactory("PacketExecutor", config.threadPriority), null, true);
+		}
+		else
+		{
+			_executor = new ThreadPoolExecutor(config.threadPoolSize, Integer.MAX_VALUE, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new MMOThreadFactory("PacketExecutor", config.threadPriority));
+		}
 	}
 	
 	public void execute(ReadablePacket<T> packet)
 	{
 		try
 		{
-			_executor.execute(new PacketRunnable<>(packet));
+			if (_serialExecution)
+			{
+				executeSerial(packet);
+			}
+			else
+			{
+				_executor.execute(new PacketRunnable<>(packet));
+			}
 		}
 		catch (Exception e)
 		{
@@ -57,6 +87,69 @@ public class PacketExecutor<T extends Client<Connection<T>>>
 		}
 	}
 	
+	private void executeSerial(ReadablePacket<T> packet)
+	{
+		final T client = packet.getClient();
+		if ((_queueCapacity > 0) && (client.getPendingPacketCount() >= _queueCapacity))
+		{
+			_droppedPackets.incrementAndGet();
+			if (_overflowKick)
+			{
+				LOGGER.warning("PacketExecutor: Client " + client.getHostAddress() + " exceeded " + _queueCapacity + " pending packets, disconnecting.");
+				client.disconnect();
+			}
+			return;
+		}
+		
+		_queuedPackets.incrementAndGet();
+		client.getPacketsToExecute().add(packet);
+		if (client.getPendingPackets().getAndIncrement() == 0)
+		{
+			_executor.execute(new ClientPacketRunnable(client));
+		}
+	}
+	
+	/**
+	 * @return {@code true} if packets of a client are executed one at a time in the order they were received.
+	 */
+	public boolean isSerialExecution()
+	{
+		return _serialExecution;
+	}
+	
+	/**
+	 * @return The number of packets waiting to be executed by all clients when packets are executed serially.
+	 */
+	public int getQueuedPackets()
+	{
+		return _queuedPackets.get();
+	}
+	
+	/**
+	 * @return The number of packets dropped because the packet queue of their client was full.
+	 */
+	public long getDroppedPackets()
+	{
+		return _droppedPackets.get();
+	}
+	
+	private static void runPacket(Runnable packet)
+	{
+		try
+		{
+			packet.run();
+		}
+		catch (Throwable t)
+		{
+			final Thread currentThread = Thread.currentThread();
+			final UncaughtExceptionHandler exceptionHandler = currentThread.getUncaughtExceptionHandler();
+			if (exceptionHandler != null)
+			{
+				exceptionHandler.uncaughtException(currentThread, t);
+			}
+		}
+	}
+	
 	private static class PacketRunnable<T extends Client<Connection<T>>> implements Runnable
 	{
 		private final ReadablePacket<T> _packet;
@@ -69,17 +162,45 @@ public class PacketExecutor<T extends Client<Connection<T>>>
 		@Override
 		public void run()
 		{
-			try
-			{
-				_packet.run();
-			}
-			catch (Throwable t)
+			runPacket(_packet);
+		}
+	}
+	
+	/**
+	 * Executes the pending packets of a single client.<br>
+	 * Only one instance per client is scheduled at any time, it is scheduled again after {@link #MAX_PACKETS_PER_RUN} packets to keep execution fair between clients.
+	 */
+	private class ClientPacketRunnable implements Runnable
+	{
+		private final T _client;
+		
+		public ClientPacketRunnable(T client)
+		{
+			_client = client;
+		}
+		
+		@Override
+		public void run()
+		{
+			int executed = 0;
+			while (true)
 			{
-				final Thread currentThread = Thread.currentThread();
-				final UncaughtExceptionHandler exceptionHandler = currentThread.getUncaughtExceptionHandler();
-				if (exceptionHandler != null)
+				final ReadablePacket<?> packet = _client.getPacketsToExecute().poll();
+				if (packet != null)
+				{
+					_queuedPackets.decrementAndGet();
+					runPacket(packet);
+				}
+				
+				if (_client.getPendingPackets().decrementAndGet() == 0)
+				{
+					return;
+				}
+				
+				if (++executed >= MAX_PACKETS_PER_RUN)
 				{
-					exceptionHandler.uncaughtException(currentThread, t);
+					_executor.execute(this);
+					return;
 				}
 			}
 		}
@@ -19,6 +19,7 @@
 package org.l2jmobius.commons.network;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.CompletionHandler;
 
 /**
@@ -59,6 +60,13 @@ public class ReadHandler<T extends Client<Connection<T>>> implements CompletionH
 			return;
 		}
 		
+		// Extract every complete packet of the buffer.
+		if (client.getConnection().isFramedRead())
+		{
+			handleFrames(client);
+			return;
+		}
+		
 		// If partial data is read, resume reading the remaining bytes.
 		if (bytesRead < client.getExpectedReadSize())
 		{
@@ -116,6 +124,47 @@ public class ReadHandler<T extends Client<Connection<T>>> implements CompletionH
 		client.read(); // Continue reading next data.
 	}
 	
+	private void handleFrames(T client)
+	{
+		final Connection<T> connection = client.getConnection();
+		final ByteBuffer buffer = connection.getReadingBuffer();
+		if (buffer == null)
+		{
+			client.disconnect();
+			return;
+		}
+		
+		buffer.flip();
+		
+		// Each packet is prefixed by its size, header included.
+		while (buffer.remaining() >= ConnectionConfig.HEADER_SIZE)
+		{
+			final int position = buffer.position();
+			final int packetSize = Math.max(Short.toUnsignedInt(buffer.getShort(position)), ConnectionConfig.HEADER_SIZE);
+			if (buffer.remaining() < packetSize)
+			{
+				break; // Partial packet, wait for the remaining bytes.
+			}
+			
+			final int dataSize = packetSize - ConnectionConfig.HEADER_SIZE;
+			if (dataSize > 0)
+			{
+				parseAndExecutePacket(client, buffer.slice(position + ConnectionConfig.HEADER_SIZE, dataSize).order(ByteOrder.LITTLE_ENDIAN));
+				
+				// The reading buffer is released when the connection is closed.
+				if (!connection.isOpen())
+				{
+					return;
+				}
+			}
+			
+			buffer.position(position + packetSize);
+		}
+		
+		connection.compactReadingBuffer();
+		client.read(); // Continue reading next data.
+	}
+	
 	private void parseAndExecutePacket(T client, ByteBuffer incomingBuffer)
 	{
 		try
@@ -137,7 +137,17 @@ public abstract class WritablePacket<T extends Client<Connection<T>>>
 	 */
 	public void sendInBroadcast()
 	{
-		_broadcast = true;
+		_broadcast = canBroadcast();
+	}
+	
+	/**
+	 * Checks if the data of this packet is the same for every client, so that a broadcast can write it only once.<br>
+	 * Packets writing data that depends on the receiving client must override this method, they are then written for each client.
+	 * @return {@code true} if the packet data can be shared by all clients, {@code false} otherwise
+	 */
+	protected boolean canBroadcast()
+	{
+		return true;
 	}
 	
 	/**
@@ -18,6 +18,9 @@
  */
 package org.l2jmobius.commons.network.internal;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -26,7 +29,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * This factory assigns custom names and priorities to the threads it creates, aiding in identification and management.
  * @author JoeAlisson
  */
-public class MMOThreadFactory implements ThreadFactory
+public class MMOThreadFactory implements ThreadFactory, ForkJoinWorkerThreadFactory
 {
 	private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
 	
@@ -48,4 +51,13 @@ public class MMOThreadFactory implements ThreadFactory
 		thread.setDaemon(false);
 		return thread;
 	}
+	
+	@Override
+	public ForkJoinWorkerThread newThread(ForkJoinPool pool)
+	{
+		final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName(_namePrefix + _threadNumber.getAndIncrement());
+		thread.setPriority(_priority);
+		return thread;
+	}
 }
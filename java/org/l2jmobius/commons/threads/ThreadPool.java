@@ -23,6 +23,7 @@ package org.l2jmobius.commons.threads;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -40,6 +41,7 @@ import org.l2jmobius.commons.util.TraceUtil;
  * <li>Scheduled thread pool for delayed and recurring tasks.</li>
  * <li>Instant thread pool for immediate task execution.</li>
  * <li>High priority scheduled thread pool for critical tasks.</li>
+ * <li>Optional timing wheel backend for the scheduled thread pools.</li>
  * <li>Automatic task purging and cleanup mechanisms.</li>
  * </ul>
  * @author Mobius
@@ -55,8 +57,8 @@ public class ThreadPool
 	private static final int INSTANT_POOL_KEEP_ALIVE_MINUTES = 1;
 	
 	// Thread Pool Executors.
-	private static ScheduledThreadPoolExecutor HIGH_PRIORITY_SCHEDULED_POOL;
-	private static ScheduledThreadPoolExecutor SCHEDULED_POOL;
+	private static ScheduledExecutorService HIGH_PRIORITY_SCHEDULED_POOL;
+	private static ScheduledExecutorService SCHEDULED_POOL;
 	private static ThreadPoolExecutor INSTANT_POOL;
 	
 	/**
@@ -72,15 +74,31 @@ public class ThreadPool
 		// Configure High Priority ScheduledThreadPoolExecutor.
 		if (ThreadConfig.HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE > 0)
 		{
-			HIGH_PRIORITY_SCHEDULED_POOL = new ScheduledThreadPoolExecutor(ThreadConfig.HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE, new ThreadProvider("L2jMobius High Priority ScheduledThread", ThreadPriority.PRIORITY_8), new ThreadPoolExecutor.CallerRunsPolicy());
+			if (ThreadConfig.USE_TIMING_WHEEL)
+			{
+				HIGH_PRIORITY_SCHEDULED_POOL = new TimingWheelExecutor(ThreadConfig.HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE, ThreadConfig.TIMING_WHEEL_TICK_DURATION, new ThreadProvider("L2jMobius High Priority ScheduledThread", ThreadPriority.PRIORITY_8));
+			}
+			else
+			{
+				HIGH_PRIORITY_SCHEDULED_POOL = new ScheduledThreadPoolExecutor(ThreadConfig.HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE, new ThreadProvider("L2jMobius High Priority ScheduledThread", ThreadPriority.PRIORITY_8), new ThreadPoolExecutor.CallerRunsPolicy());
+			}
 			LOGGER.info(StringUtil.concat("...scheduled pool executor with ", String.valueOf(ThreadConfig.HIGH_PRIORITY_SCHEDULED_THREAD_POOL_SIZE), " high priority threads."));
 		}
 		
-		// Configure ScheduledThreadPoolExecutor.
-		SCHEDULED_POOL = new ScheduledThreadPoolExecutor(ThreadConfig.SCHEDULED_THREAD_POOL_SIZE, new ThreadProvider("L2jMobius ScheduledThread"), new ThreadPoolExecutor.CallerRunsPolicy());
-		SCHEDULED_POOL.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
-		SCHEDULED_POOL.setRemoveOnCancelPolicy(true);
-		SCHEDULED_POOL.prestartAllCoreThreads();
+		// Configure scheduled pool.
+		if (ThreadConfig.USE_TIMING_WHEEL)
+		{
+			SCHEDULED_POOL = new TimingWheelExecutor(ThreadConfig.SCHEDULED_THREAD_POOL_SIZE, ThreadConfig.TIMING_WHEEL_TICK_DURATION, new ThreadProvider("L2jMobius ScheduledThread"));
+			LOGGER.info(StringUtil.concat("...using timing wheel scheduling with ", String.valueOf(ThreadConfig.TIMING_WHEEL_TICK_DURATION), "ms ticks."));
+		}
+		else
+		{
+			final ScheduledThreadPoolExecutor scheduledPool = new ScheduledThreadPoolExecutor(ThreadConfig.SCHEDULED_THREAD_POOL_SIZE, new ThreadProvider("L2jMobius ScheduledThread"), new ThreadPoolExecutor.CallerRunsPolicy());
+			scheduledPool.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
+			scheduledPool.setRemoveOnCancelPolicy(true);
+			scheduledPool.prestartAllCoreThreads();
+			SCHEDULED_POOL = scheduledPool;
+		}
 		
 		// Configure ThreadPoolExecutor.
 		INSTANT_POOL = new ThreadPoolExecutor(ThreadConfig.INSTANT_THREAD_POOL_SIZE, Integer.MAX_VALUE, INSTANT_POOL_KEEP_ALIVE_MINUTES, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new ThreadProvider("L2jMobius Thread"));
@@ -100,11 +118,14 @@ public class ThreadPool
 	 */
 	public static void purge()
 	{
-		SCHEDULED_POOL.purge();
+		if (SCHEDULED_POOL instanceof ScheduledThreadPoolExecutor scheduledPool)
+		{
+			scheduledPool.purge();
+		}
 		INSTANT_POOL.purge();
-		if (HIGH_PRIORITY_SCHEDULED_POOL != null)
+		if (HIGH_PRIORITY_SCHEDULED_POOL instanceof ScheduledThreadPoolExecutor highPriorityPool)
 		{
-			HIGH_PRIORITY_SCHEDULED_POOL.purge();
+			highPriorityPool.purge();
 		}
 	}
 	
@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.commons.threads;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import org.l2jmobius.commons.util.TraceUtil;
+
+/**
+ * ScheduledExecutorService backed by a hierarchical hashed timing wheel.<br>
+ * Scheduling and cancelling a task are constant time, lock free queue operations. A single timer thread moves queued tasks into the wheels once per tick and hands expired tasks to a fixed pool of worker threads.<br>
+ * The wheels have {@value #WHEEL_SIZE} slots on each of {@value #LEVELS} levels. Tasks further away than the lowest level are kept in the coarser levels and cascade down as their time approaches.<br>
+ * Tasks run with a precision of one tick.
+ * @author Mobius
+ */
+public class TimingWheelExecutor extends AbstractExecutorService implements ScheduledExecutorService
+{
+	private static final Logger LOGGER = Logger.getLogger(TimingWheelExecutor.class.getName());
+	
+	private static final int WHEEL_BITS = 9;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 3;
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+	
+	private static final int WAITING = 0;
+	private static final int RUNNING = 1;
+	private static final int DONE = 2;
+	private static final int CANCELLED = 3;
+	
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<WheelTask> STATE = AtomicIntegerFieldUpdater.newUpdater(WheelTask.class, "_state");
+	
+	// Wheel slots, only accessed by the timer thread.
+	private final WheelTask<?>[][] _wheels = new WheelTask<?>[LEVELS][WHEEL_SIZE];
+	private final Queue<WheelTask<?>> _pendingTasks = new ConcurrentLinkedQueue<>();
+	private final Queue<WheelTask<?>> _cancelledTasks = new ConcurrentLinkedQueue<>();
+	private final ThreadPoolExecutor _workers;
+	private final Thread _timer;
+	private final long _tickNanos;
+	private final long _startTime;
+	private volatile boolean _shutdown = false;
+	private volatile int _scheduledCount = 0;
+	
+	/**
+	 * Creates a new timing wheel executor and starts its timer thread.
+	 * @param threads the number of worker threads running expired tasks
+	 * @param tickDuration the duration of a tick in milliseconds
+	 * @param threadFactory the factory used to create the worker and timer threads
+	 */
+	public TimingWheelExecutor(int threads, long tickDuration, ThreadFactory threadFactory)
+	{
+		_tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickDuration));
+		_workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+		_workers.prestartAllCoreThreads();
+		_startTime = System.nanoTime();
+		_timer = threadFactory.newThread(this::runTimer);
+		_timer.setName(_timer.getName() + " Timer");
+		_timer.setDaemon(true);
+		_timer.start();
+	}
+	
+	private void runTimer()
+	{
+		long tick = 0;
+		while (!_shutdown)
+		{
+			final long tickEnd = _startTime + ((tick + 1) * _tickNanos);
+			long sleep;
+			while (((sleep = tickEnd - System.nanoTime()) > 0) && !_shutdown)
+			{
+				LockSupport.parkNanos(sleep);
+			}
+			
+			if (_shutdown)
+			{
+				break;
+			}
+			
+			try
+			{
+				removeCancelledTasks();
+				transferPendingTasks(tick);
+				if ((tick & WHEEL_MASK) == 0)
+				{
+					if (((tick >>> WHEEL_BITS) & WHEEL_MASK) == 0)
+					{
+						cascade(2, (int) ((tick >>> (WHEEL_BITS * 2)) & WHEEL_MASK), tick);
+					}
+					cascade(1, (int) ((tick >>> WHEEL_BITS) & WHEEL_MASK), tick);
+				}
+				expire(tick);
+			}
+			catch (Throwable t)
+			{
+				LOGGER.warning("TimingWheelExecutor: Problem processing tick " + tick + ".");
+				LOGGER.warning(TraceUtil.getStackTrace(t));
+			}
+			
+			tick++;
+		}
+	}
+	
+	private void removeCancelledTasks()
+	{
+		WheelTask<?> task;
+		while ((task = _cancelledTasks.poll()) != null)
+		{
+			if (task._level >= 0)
+			{
+				unlink(task);
+			}
+		}
+	}
+	
+	private void transferPendingTasks(long tick)
+	{
+		WheelTask<?> task;
+		for (int i = 0; (i < MAX_TRANSFERS_PER_TICK) && ((task = _pendingTasks.poll()) != null); i++)
+		{
+			if (task._state == WAITING)
+			{
+				place(task, tick);
+			}
+		}
+	}
+	
+	private void cascade(int level, int slot, long tick)
+	{
+		WheelTask<?> task = detach(level, slot);
+		WheelTask<?> next;
+		while (task != null)
+		{
+			next = task._next;
+			task._next = null;
+			if (task._state == WAITING)
+			{
+				place(task, tick);
+			}
+			task = next;
+		}
+	}
+	
+	private void expire(long tick)
+	{
+		WheelTask<?> task = detach(0, (int) (tick & WHEEL_MASK));
+		WheelTask<?> next;
+		while (task != null)
+		{
+			next = task._next;
+			task._next = null;
+			if (task._state == WAITING)
+			{
+				if (task.getDeadlineTick() <= tick)
+				{
+					_workers.execute(task);
+				}
+				else
+				{
+					place(task, tick);
+				}
+			}
+			task = next;
+		}
+	}
+	
+	private void place(WheelTask<?> task, long tick)
+	{
+		final long deadlineTick = Math.max(task.getDeadlineTick(), tick);
+		final long delta = deadlineTick - tick;
+		final int level;
+		final int slot;
+		if (delta < WHEEL_SIZE)
+		{
+			level = 0;
+			slot = (int) (deadlineTick & WHEEL_MASK);
+		}
+		else if (delta < (1L << (WHEEL_BITS * 2)))
+		{
+			level = 1;
+			slot = (int) ((deadlineTick >>> WHEEL_BITS) & WHEEL_MASK);
+		}
+		else
+		{
+			level = 2;
+			slot = (int) ((deadlineTick >>> (WHEEL_BITS * 2)) & WHEEL_MASK);
+		}
+		
+		final WheelTask<?> head = _wheels[level][slot];
+		task._level = level;
+		task._slot = slot;
+		task._prev = null;
+		task._next = head;
+		if (head != null)
+		{
+			head._prev = task;
+		}
+		_wheels[level][slot] = task;
+		_scheduledCount++;
+	}
+	
+	private WheelTask<?> detach(int level, int slot)
+	{
+		final WheelTask<?> head = _wheels[level][slot];
+		_wheels[level][slot] = null;
+		for (WheelTask<?> task = head; task != null; task = task._next)
+		{
+			task._level = -1;
+			task._prev = null;
+			_scheduledCount--;
+		}
+		return head;
+	}
+	
+	private void unlink(WheelTask<?> task)
+	{
+		if (task._prev != null)
+		{
+			task._prev._next = task._next;
+		}
+		else
+		{
+			_wheels[task._level][task._slot] = task._next;
+		}
+		
+		if (task._next != null)
+		{
+			task._next._prev = task._prev;
+		}
+		
+		task._level = -1;
+		task._prev = null;
+		task._next = null;
+		_scheduledCount--;
+	}
+	
+	private <V> WheelTask<V> enqueue(WheelTask<V> task)
+	{
+		if (!_shutdown)
+		{
+			_pendingTasks.add(task);
+		}
+		return task;
+	}
+	
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+	{
+		return enqueue(new WheelTask<>(Executors.callable(command), System.nanoTime() + unit.toNanos(delay), 0));
+	}
+	
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit)
+	{
+		return enqueue(new WheelTask<>(callable, System.nanoTime() + unit.toNanos(delay), 0));
+	}
+	
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit)
+	{
+		if (period <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+		return enqueue(new WheelTask<>(Executors.callable(command), System.nanoTime() + unit.toNanos(initialDelay), unit.toNanos(period)));
+	}
+	
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit)
+	{
+		if (delay <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+		return enqueue(new WheelTask<>(Executors.callable(command), System.nanoTime() + unit.toNanos(initialDelay), -unit.toNanos(delay)));
+	}
+	
+	@Override
+	public void execute(Runnable command)
+	{
+		_workers.execute(command);
+	}
+	
+	/**
+	 * @return the number of tasks currently held by the wheels
+	 */
+	public int getScheduledCount()
+	{
+		return _scheduledCount;
+	}
+	
+	/**
+	 * @return the number of tasks waiting to be moved into the wheels
+	 */
+	public int getPendingCount()
+	{
+		return _pendingTasks.size();
+	}
+	
+	@Override
+	public void shutdown()
+	{
+		_shutdown = true;
+		_pendingTasks.clear();
+		_timer.interrupt();
+		_workers.shutdown();
+	}
+	
+	@Override
+	public List<Runnable> shutdownNow()
+	{
+		_shutdown = true;
+		_pendingTasks.clear();
+		_timer.interrupt();
+		return _workers.shutdownNow();
+	}
+	
+	@Override
+	public boolean isShutdown()
+	{
+		return _shutdown;
+	}
+	
+	@Override
+	public boolean isTerminated()
+	{
+		return _shutdown && !_timer.isAlive() && _workers.isTerminated();
+	}
+	
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return _workers.awaitTermination(timeout, unit);
+	}
+	
+	/**
+	 * A task held by the timing wheel.<br>
+	 * The period is positive for fixed rate tasks, negative for fixed delay tasks and zero for one-shot tasks.
+	 * @param <V> the result type
+	 */
+	private class WheelTask<V> implements ScheduledFuture<V>, Runnable
+	{
+		private final Callable<V> _callable;
+		private final long _period;
+		private volatile long _deadline;
+		volatile int _state = WAITING;
+		private volatile Thread _runner;
+		private V _result;
+		private Throwable _exception;
+		
+		// Wheel position, only accessed by the timer thread.
+		WheelTask<?> _prev;
+		WheelTask<?> _next;
+		int _level = -1;
+		int _slot;
+		
+		public WheelTask(Callable<V> callable, long deadline, long period)
+		{
+			_callable = callable;
+			_deadline = deadline;
+			_period = period;
+		}
+		
+		long getDeadlineTick()
+		{
+			return Math.max(0, _deadline - _startTime) / _tickNanos;
+		}
+		
+		@Override
+		public void run()
+		{
+			if (!STATE.compareAndSet(this, WAITING, RUNNING))
+			{
+				return;
+			}
+			
+			_runner = Thread.currentThread();
+			try
+			{
+				final V result = _callable.call();
+				if (_period == 0)
+				{
+					_result = result;
+					finish();
+					return;
+				}
+			}
+			catch (Throwable t)
+			{
+				_exception = t;
+				finish();
+				return;
+			}
+			finally
+			{
+				_runner = null;
+			}
+			
+			if (STATE.compareAndSet(this, RUNNING, WAITING))
+			{
+				_deadline = _period > 0 ? _deadline + _period : System.nanoTime() - _period;
+				enqueue(this);
+			}
+		}
+		
+		private void finish()
+		{
+			if (STATE.compareAndSet(this, RUNNING, DONE))
+			{
+				synchronized (this)
+				{
+					notifyAll();
+				}
+			}
+		}
+		
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			while (true)
+			{
+				final int state = _state;
+				if ((state == DONE) || (state == CANCELLED))
+				{
+					return false;
+				}
+				
+				if (STATE.compareAndSet(this, state, CANCELLED))
+				{
+					if (state == WAITING)
+					{
+						_cancelledTasks.add(this);
+					}
+					else if (mayInterruptIfRunning)
+					{
+						final Thread runner = _runner;
+						if (runner != null)
+						{
+							runner.interrupt();
+						}
+					}
+					
+					synchronized (this)
+					{
+						notifyAll();
+					}
+					return true;
+				}
+			}
+		}
+		
+		@Override
+		public boolean isCancelled()
+		{
+			return _state == CANCELLED;
+		}
+		
+		@Override
+		public boolean isDone()
+		{
+			return _state >= DONE;
+		}
+		
+		@Override
+		public V get() throws InterruptedException, ExecutionException
+		{
+			synchronized (this)
+			{
+				while (!isDone())
+				{
+					wait();
+				}
+			}
+			return report();
+		}
+		
+		@Override
+		public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+		{
+			final long end = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this)
+			{
+				long remaining;
+				while (!isDone())
+				{
+					remaining = end - System.nanoTime();
+					if (remaining <= 0)
+					{
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			}
+			return report();
+		}
+		
+		private V report() throws ExecutionException
+		{
+			if (_state == CANCELLED)
+			{
+				throw new CancellationException();
+			}
+			
+			if (_exception != null)
+			{
+				throw new ExecutionException(_exception);
+			}
+			
+			return _result;
+		}
+		
+		@Override
+		public long getDelay(TimeUnit unit)
+		{
+			return unit.convert(_deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		
+		@Override
+		public int compareTo(Delayed other)
+		{
+			if (other == this)
+			{
+				return 0;
+			}
+			
+			if (other instanceof WheelTask<?> task)
+			{
+				return Long.compare(_deadline, task._deadline);
+			}
+			
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+}
@@ -25,7 +25,9 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -82,6 +84,21 @@ public interface IXmlReader
 			return;
 		}
 		
+		final Document document = readDocument(file);
+		if (document != null)
+		{
+			processDocument(document, file);
+		}
+	}
+	
+	/**
+	 * Reads a single XML file into a document without parsing its content. <b>Validation is enabled by default.</b><br>
+	 * This method does not use the state of the reader, so it can be called from any thread.
+	 * @param file the XML file to read.
+	 * @return the document, or {@code null} if the file could not be read.
+	 */
+	default Document readDocument(File file)
+	{
 		final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		factory.setNamespaceAware(true);
 		factory.setValidating(isValidating());
@@ -90,7 +107,7 @@ public interface IXmlReader
 		{
 			factory.setAttribute(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
 			final DocumentBuilder builder = factory.newDocumentBuilder();
-			parseDocument(builder.parse(file), file);
+			return builder.parse(file);
 		}
 		catch (SAXParseException e)
 		{
@@ -100,6 +117,25 @@ public interface IXmlReader
 		{
 			LOGGER.log(Level.WARNING, "Error parsing " + file.getName(), e);
 		}
+		
+		return null;
+	}
+	
+	/**
+	 * Calls {@link #parseDocument(Document, File)} and logs any error raised while parsing.
+	 * @param document the document to parse
+	 * @param file the file being processed
+	 */
+	private void processDocument(Document document, File file)
+	{
+		try
+		{
+			parseDocument(document, file);
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Error parsing " + file.getName(), e);
+		}
 	}
 	
 	/**
@@ -137,8 +173,14 @@ public interface IXmlReader
 			return false;
 		}
 		
-		// If multithreading is enabled, use a thread pool to parse files.
-		if (ThreadConfig.THREADS_FOR_LOADING)
+		// If parallel startup is enabled, read the files in parallel and parse them in their original order.
+		if (ThreadConfig.PARALLEL_STARTUP)
+		{
+			final List<File> files = new ArrayList<>();
+			collectFiles(directory, recursive, files);
+			parseFilesInOrder(files);
+		}
+		else if (ThreadConfig.THREADS_FOR_LOADING) // If multithreading is enabled, use a thread pool to parse files.
 		{
 			final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
 			final List<Future<?>> tasks = new ArrayList<>();
@@ -204,6 +246,66 @@ public interface IXmlReader
 		return true;
 	}
 	
+	/**
+	 * Collects the XML files of a directory in the same order they are parsed sequentially.
+	 * @param directory the directory to scan for XML files.
+	 * @param recursive if {@code true}, collects files in all subdirectories.
+	 * @param files the list where the files are added.
+	 */
+	private void collectFiles(File directory, boolean recursive, List<File> files)
+	{
+		final File[] directoryFiles = directory.listFiles();
+		if (directoryFiles == null)
+		{
+			return;
+		}
+		
+		for (File file : directoryFiles)
+		{
+			if (recursive && file.isDirectory())
+			{
+				collectFiles(file, true, files);
+			}
+			else if (isValidXmlFile(file))
+			{
+				files.add(file);
+			}
+		}
+	}
+	
+	/**
+	 * Reads the given files on the common fork-join pool and parses each document on the calling thread, in the order of the list.<br>
+	 * Only a limited number of files are read ahead, to avoid keeping many documents in memory.
+	 * @param files the XML files to parse.
+	 */
+	private void parseFilesInOrder(List<File> files)
+	{
+		final int fileCount = files.size();
+		if (fileCount == 1)
+		{
+			parseFile(files.get(0));
+			return;
+		}
+		
+		final int readAhead = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+		final List<CompletableFuture<Document>> documents = new ArrayList<>(fileCount);
+		for (int i = 0; i < fileCount; i++)
+		{
+			while ((documents.size() < fileCount) && (documents.size() < (i + readAhead)))
+			{
+				final File file = files.get(documents.size());
+				documents.add(CompletableFuture.supplyAsync(() -> readDocument(file), ForkJoinPool.commonPool()));
+			}
+			
+			final Document document = documents.get(i).join();
+			documents.set(i, null);
+			if (document != null)
+			{
+				processDocument(document, files.get(i));
+			}
+		}
+	}
+	
 	/**
 	 * Abstract method for parsing the current document. Called from {@link #parseFile(File)}.
 	 * @param document the document to parse
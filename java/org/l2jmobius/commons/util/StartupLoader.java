@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.commons.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Loads the startup sections of a server in dependency order.<br>
+ * Each section declares the sections it depends on and starts as soon as all of them are loaded, so independent sections are loaded at the same time.<br>
+ * When parallel loading is disabled, sections are loaded one after another in the order they were added.<br>
+ * The time spent in each section is reported once all sections are loaded.
+ * @author Mobius
+ */
+public class StartupLoader
+{
+	private static final Logger LOGGER = Logger.getLogger(StartupLoader.class.getName());
+	
+	private final Map<String, Section> _sections = new LinkedHashMap<>();
+	private final boolean _parallel;
+	private final Consumer<String> _onSectionStart;
+	
+	/**
+	 * @param parallel if {@code true}, independent sections are loaded at the same time.
+	 * @param onSectionStart called with the name of each section before it is loaded.
+	 */
+	public StartupLoader(boolean parallel, Consumer<String> onSectionStart)
+	{
+		_parallel = parallel;
+		_onSectionStart = onSectionStart;
+	}
+	
+	/**
+	 * Adds a section to be loaded.<br>
+	 * Dependencies must be added before the sections that depend on them, which also prevents circular dependencies.
+	 * @param name the unique name of the section.
+	 * @param loader the code that loads the section.
+	 * @param dependencies the names of the sections that must be loaded first.
+	 */
+	public void add(String name, Runnable loader, String... dependencies)
+	{
+		if (_sections.containsKey(name))
+		{
+			throw new IllegalArgumentException("Startup section " + name + " is already added.");
+		}
+		
+		final List<Section> required = new ArrayList<>(dependencies.length);
+		for (String dependency : dependencies)
+		{
+			final Section section = _sections.get(dependency);
+			if (section == null)
+			{
+				throw new IllegalArgumentException("Startup section " + name + " depends on unknown section " + dependency + ".");
+			}
+			
+			required.add(section);
+		}
+		
+		_sections.put(name, new Section(name, loader, required));
+	}
+	
+	/**
+	 * Loads all sections and waits until they are completed.<br>
+	 * If a section fails, the sections depending on it are not loaded and the failure is thrown once the others are completed.
+	 */
+	public void run()
+	{
+		final long start = System.nanoTime();
+		if (_parallel && (_sections.size() > 1))
+		{
+			final ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+			try
+			{
+				final List<CompletableFuture<Void>> futures = new ArrayList<>(_sections.size());
+				for (Section section : _sections.values())
+				{
+					final CompletableFuture<?>[] required = new CompletableFuture<?>[section._dependencies.size()];
+					for (int i = 0; i < required.length; i++)
+					{
+						required[i] = section._dependencies.get(i)._future;
+					}
+					
+					section._future = CompletableFuture.allOf(required).thenRunAsync(section::load, pool);
+					futures.add(section._future);
+				}
+				
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+			}
+			catch (CompletionException e)
+			{
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+				{
+					throw (RuntimeException) cause;
+				}
+				
+				if (cause instanceof Error)
+				{
+					throw (Error) cause;
+				}
+				
+				throw e;
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+		else
+		{
+			for (Section section : _sections.values())
+			{
+				section.load();
+			}
+		}
+		
+		report((System.nanoTime() - start) / 1000000);
+	}
+	
+	/**
+	 * Logs the time spent in each section, compared to the total loading time.
+	 * @param totalTime the total loading time in milliseconds.
+	 */
+	private void report(long totalTime)
+	{
+		long sectionTime = 0;
+		for (Section section : _sections.values())
+		{
+			LOGGER.info(getClass().getSimpleName() + ": " + section._name + " loaded in " + section._time + " ms.");
+			sectionTime += section._time;
+		}
+		
+		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _sections.size() + " sections in " + totalTime + " ms (" + sectionTime + " ms of section time).");
+	}
+	
+	private class Section
+	{
+		private final String _name;
+		private final Runnable _loader;
+		private final List<Section> _dependencies;
+		private CompletableFuture<Void> _future;
+		private volatile long _time;
+		
+		public Section(String name, Runnable loader, List<Section> dependencies)
+		{
+			_name = name;
+			_loader = loader;
+			_dependencies = dependencies;
+		}
+		
+		public void load()
+		{
+			final long start = System.nanoTime();
+			_onSectionStart.accept(_name);
+			_loader.run();
+			_time = (System.nanoTime() - start) / 1000000;
+		}
+	}
+}
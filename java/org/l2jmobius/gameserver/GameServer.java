@@ -31,10 +31,13 @@ import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.config.InterfaceConfig;
+import org.l2jmobius.commons.config.ThreadConfig;
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseStatistics;
 import org.l2jmobius.commons.network.ConnectionManager;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.DeadlockWatcher;
+import org.l2jmobius.commons.util.StartupLoader;
 import org.l2jmobius.gameserver.cache.HtmCache;
 import org.l2jmobius.gameserver.config.ConfigLoader;
 import org.l2jmobius.gameserver.config.GeneralConfig;
@@ -226,6 +229,7 @@ public class GameServer
 		
 		printSection("ThreadPool");
 		ThreadPool.init();
+		DatabaseStatistics.getInstance().scheduleDump();
 		
 		// Start game time task manager early
 		GameTimeTaskManager.getInstance();
@@ -237,140 +241,159 @@ public class GameServer
 		EventDispatcher.getInstance();
 		ScriptEngine.getInstance();
 		
-		printSection("World");
-		World.getInstance();
-		MapRegionManager.getInstance();
-		ZoneManager.getInstance();
-		DoorData.getInstance();
-		FenceData.getInstance();
-		AnnouncementsTable.getInstance();
-		GlobalVariablesManager.getInstance();
-		
-		printSection("Data");
-		ActionData.getInstance();
-		CategoryData.getInstance();
-		DynamicExpRateData.getInstance();
-		SecondaryAuthData.getInstance();
-		SayuneData.getInstance();
-		ClanRewardData.getInstance();
-		DailyMissionHandler.getInstance().executeScript();
-		DailyMissionData.getInstance();
-		ElementalSpiritData.getInstance();
-		
-		printSection("Skills");
-		SkillConditionHandler.getInstance().executeScript();
-		EffectHandler.getInstance().executeScript();
-		TransformData.getInstance();
-		EnchantSkillGroupsData.getInstance();
-		SkillData.getInstance();
-		SkillTreeData.getInstance();
-		PetSkillData.getInstance();
-		
-		printSection("Items");
-		ConditionHandler.getInstance().executeScript();
-		ItemData.getInstance();
-		EnchantItemGroupsData.getInstance();
-		EnchantItemData.getInstance();
-		EnchantItemOptionsData.getInstance();
-		ElementalAttributeData.getInstance();
-		ItemCrystallizationData.getInstance();
-		OptionData.getInstance();
-		VariationData.getInstance();
-		EnsoulData.getInstance();
-		EnchantItemHPBonusData.getInstance();
-		BuyListData.getInstance();
-		MultisellData.getInstance();
-		CombinationItemsData.getInstance();
-		EquipmentUpgradeData.getInstance();
-		AgathionData.getInstance();
-		RaidTeleportListData.getInstance();
-		RecipeData.getInstance();
-		ArmorSetData.getInstance();
-		FishingData.getInstance();
-		HennaData.getInstance();
-		PrimeShopData.getInstance();
-		LimitShopData.getInstance();
-		RaidDropAnnounceData.getInstance();
-		PcCafePointsManager.getInstance();
-		AppearanceItemData.getInstance();
-		ItemCommissionManager.getInstance();
-		Costumes.getInstance();
-		LuckyGameData.getInstance();
-		MableGameData.getInstance();
-		AttendanceRewardData.getInstance();
-		RandomCraftData.getInstance();
-		VipData.getInstance();
-		ItemLifeTimeTaskManager.getInstance();
-		
-		printSection("Characters");
-		ClassListData.getInstance();
-		InitialEquipmentData.getInstance();
-		InitialShortcutData.getInstance();
-		ExperienceData.getInstance();
-		ExperienceLossData.getInstance();
-		KarmaLossData.getInstance();
-		HitConditionBonusData.getInstance();
-		PlayerTemplateData.getInstance();
-		CharInfoTable.getInstance();
-		PartyMatchingHistoryTable.getInstance();
-		AdminData.getInstance();
-		PetDataTable.getInstance();
-		CubicData.getInstance();
-		CharSummonTable.getInstance().init();
-		CaptchaManager.getInstance();
-		BeautyShopData.getInstance();
-		MentorManager.getInstance();
-		VipManager.getInstance();
-		
-		if (PremiumSystemConfig.PREMIUM_SYSTEM_ENABLED)
+		final StartupLoader loader = new StartupLoader(ThreadConfig.PARALLEL_STARTUP, this::printSection);
+		loader.add("World", () ->
 		{
-			LOGGER.info("PremiumManager: Premium system is enabled.");
-			PremiumManager.getInstance();
-		}
+			World.getInstance();
+			MapRegionManager.getInstance();
+			ZoneManager.getInstance();
+			DoorData.getInstance();
+			FenceData.getInstance();
+			AnnouncementsTable.getInstance();
+			GlobalVariablesManager.getInstance();
+		});
+		
+		loader.add("Data", () ->
+		{
+			ActionData.getInstance();
+			CategoryData.getInstance();
+			DynamicExpRateData.getInstance();
+			SecondaryAuthData.getInstance();
+			SayuneData.getInstance();
+			ClanRewardData.getInstance();
+			DailyMissionHandler.getInstance().executeScript();
+			DailyMissionData.getInstance();
+			ElementalSpiritData.getInstance();
+		}, "World");
+		
+		loader.add("Skills", () ->
+		{
+			SkillConditionHandler.getInstance().executeScript();
+			EffectHandler.getInstance().executeScript();
+			TransformData.getInstance();
+			EnchantSkillGroupsData.getInstance();
+			SkillData.getInstance();
+			SkillTreeData.getInstance();
+			PetSkillData.getInstance();
+		}, "Data");
+		
+		loader.add("Items", () ->
+		{
+			ConditionHandler.getInstance().executeScript();
+			ItemData.getInstance();
+			EnchantItemGroupsData.getInstance();
+			EnchantItemData.getInstance();
+			EnchantItemOptionsData.getInstance();
+			ElementalAttributeData.getInstance();
+			ItemCrystallizationData.getInstance();
+			OptionData.getInstance();
+			VariationData.getInstance();
+			EnsoulData.getInstance();
+			EnchantItemHPBonusData.getInstance();
+			BuyListData.getInstance();
+			MultisellData.getInstance();
+			CombinationItemsData.getInstance();
+			EquipmentUpgradeData.getInstance();
+			AgathionData.getInstance();
+			RaidTeleportListData.getInstance();
+			RecipeData.getInstance();
+			ArmorSetData.getInstance();
+			FishingData.getInstance();
+			HennaData.getInstance();
+			PrimeShopData.getInstance();
+			LimitShopData.getInstance();
+			RaidDropAnnounceData.getInstance();
+			PcCafePointsManager.getInstance();
+			AppearanceItemData.getInstance();
+			ItemCommissionManager.getInstance();
+			Costumes.getInstance();
+			LuckyGameData.getInstance();
+			MableGameData.getInstance();
+			AttendanceRewardData.getInstance();
+			RandomCraftData.getInstance();
+			VipData.getInstance();
+			ItemLifeTimeTaskManager.getInstance();
+		}, "Skills");
+		
+		loader.add("Characters", () ->
+		{
+			ClassListData.getInstance();
+			InitialEquipmentData.getInstance();
+			InitialShortcutData.getInstance();
+			ExperienceData.getInstance();
+			ExperienceLossData.getInstance();
+			KarmaLossData.getInstance();
+			HitConditionBonusData.getInstance();
+			PlayerTemplateData.getInstance();
+			CharInfoTable.getInstance();
+			PartyMatchingHistoryTable.getInstance();
+			AdminData.getInstance();
+			PetDataTable.getInstance();
+			CubicData.getInstance();
+			CharSummonTable.getInstance().init();
+			CaptchaManager.getInstance();
+			BeautyShopData.getInstance();
+			MentorManager.getInstance();
+			VipManager.getInstance();
+			
+			if (PremiumSystemConfig.PREMIUM_SYSTEM_ENABLED)
+			{
+				LOGGER.info("PremiumManager: Premium system is enabled.");
+				PremiumManager.getInstance();
+			}
+		}, "Items");
+		
+		loader.add("Clans", () ->
+		{
+			ClanLevelData.getInstance();
+			ClanTable.getInstance();
+			ResidenceFunctionsData.getInstance();
+			ClanHallData.getInstance();
+			ClanHallAuctionManager.getInstance();
+			ClanEntryManager.getInstance();
+		}, "Characters");
+		
+		loader.add("Geodata", () -> GeoEngine.getInstance());
 		
-		printSection("Clans");
-		ClanLevelData.getInstance();
-		ClanTable.getInstance();
-		ResidenceFunctionsData.getInstance();
-		ClanHallData.getInstance();
-		ClanHallAuctionManager.getInstance();
-		ClanEntryManager.getInstance();
-		
-		printSection("Geodata");
-		GeoEngine.getInstance();
-		
-		printSection("NPCs");
-		NpcData.getInstance();
-		FakePlayerChatManager.getInstance();
-		SpawnData.getInstance();
-		WalkingManager.getInstance();
-		StaticObjectData.getInstance();
-		ItemAuctionManager.getInstance();
-		CastleManager.getInstance().loadInstances();
-		SchemeBufferTable.getInstance();
-		GrandBossManager.getInstance();
-		EventDropManager.getInstance();
-		
-		printSection("Instance");
-		InstanceManager.getInstance();
-		
-		printSection("Olympiad");
-		Olympiad.getInstance();
-		Hero.getInstance();
-		
-		// Call to load caches
-		printSection("Cache");
-		HtmCache.getInstance();
-		CrestTable.getInstance();
-		TeleportListData.getInstance();
-		SharedTeleportManager.getInstance();
-		TeleporterData.getInstance();
-		TimedHuntingZoneData.getInstance();
-		MatchingRoomManager.getInstance();
-		PetitionManager.getInstance();
-		CursedWeaponsManager.getInstance();
-		BotReportTable.getInstance();
-		RankManager.getInstance();
+		loader.add("NPCs", () ->
+		{
+			NpcData.getInstance();
+			FakePlayerChatManager.getInstance();
+			SpawnData.getInstance();
+			WalkingManager.getInstance();
+			StaticObjectData.getInstance();
+			ItemAuctionManager.getInstance();
+			CastleManager.getInstance().loadInstances();
+			SchemeBufferTable.getInstance();
+			GrandBossManager.getInstance();
+			EventDropManager.getInstance();
+		}, "Clans", "Geodata");
+		
+		loader.add("Instance", () -> InstanceManager.getInstance(), "NPCs");
+		
+		loader.add("Olympiad", () ->
+		{
+			Olympiad.getInstance();
+			Hero.getInstance();
+		}, "Instance");
+		
+		loader.add("HtmCache", () -> HtmCache.getInstance());
+		
+		loader.add("Cache", () ->
+		{
+			CrestTable.getInstance();
+			TeleportListData.getInstance();
+			SharedTeleportManager.getInstance();
+			TeleporterData.getInstance();
+			TimedHuntingZoneData.getInstance();
+			MatchingRoomManager.getInstance();
+			PetitionManager.getInstance();
+			CursedWeaponsManager.getInstance();
+			BotReportTable.getInstance();
+			RankManager.getInstance();
+		}, "Olympiad", "HtmCache");
+		
+		loader.run();
 		
 		if (SellBuffsConfig.SELLBUFF_ENABLED)
 		{
@@ -26,7 +26,9 @@ import java.util.logging.Logger;
 import org.l2jmobius.commons.config.DatabaseConfig;
 import org.l2jmobius.commons.database.DatabaseBackup;
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.cache.HtmCache;
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.config.ServerConfig;
 import org.l2jmobius.gameserver.config.custom.OfflinePlayConfig;
@@ -43,6 +45,7 @@ import org.l2jmobius.gameserver.managers.DatabaseSpawnManager;
 import org.l2jmobius.gameserver.managers.GlobalVariablesManager;
 import org.l2jmobius.gameserver.managers.GrandBossManager;
 import org.l2jmobius.gameserver.managers.ItemAuctionManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.managers.ItemsOnGroundManager;
 import org.l2jmobius.gameserver.managers.PrecautionaryRestartManager;
 import org.l2jmobius.gameserver.managers.ScriptManager;
@@ -507,6 +510,12 @@ public class Shutdown extends Thread
 		SchemeBufferTable.getInstance().saveSchemes();
 		LOGGER.info("SchemeBufferTable data has been saved.");
 		
+		// Store the requested html pages, to prewarm the cache on next startup.
+		if (HtmCache.getInstance().storeHotSet())
+		{
+			LOGGER.info("Html Cache: Hot set saved(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+		}
+		
 		// Save items on ground before closing
 		if (GeneralConfig.SAVE_DROPPED_ITEM)
 		{
@@ -516,6 +525,14 @@ public class Shutdown extends Thread
 			LOGGER.info("Items On Ground Manager: Cleaned up(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
 		}
 		
+		// Store pending item changes.
+		ItemPersistenceManager.getInstance().flush();
+		LOGGER.info("Item Persistence Manager: Pending items saved(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+		
+		// Execute queued database writes, further writes are executed immediately.
+		DatabaseWriteQueue.getInstance().shutdown();
+		LOGGER.info("Database Write Queue: Pending writes saved(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+		
 		// Save bot reports to database
 		if (GeneralConfig.BOTREPORT_ENABLE)
 		{
@@ -23,12 +23,30 @@ package org.l2jmobius.gameserver.cache;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.config.ServerConfig;
@@ -43,14 +61,30 @@ public class HtmCache
 {
 	private static final Logger LOGGER = Logger.getLogger(HtmCache.class.getName());
 	
-	private static final Map<String, String> HTML_CACHE = GeneralConfig.HTM_CACHE ? new HashMap<>() : new ConcurrentHashMap<>();
+	private static final Map<String, HtmEntry> HTML_CACHE = new ConcurrentHashMap<>();
 	
-	private int _loadedFiles;
-	private long _bytesBuffLen;
+	// Pages requested during the previous run, stored on shutdown and loaded again on startup.
+	private static final File HOT_SET_FILE = new File(ServerConfig.DATAPACK_ROOT, "data/html.hotset");
+	
+	private final AtomicInteger _loadedFiles = new AtomicInteger();
+	private final AtomicLong _bytesHeld = new AtomicLong();
+	private final LongAdder _hits = new LongAdder();
+	private final LongAdder _misses = new LongAdder();
+	private final LongAdder _evictions = new LongAdder();
 	
 	protected HtmCache()
 	{
 		reload();
+		
+		if (!GeneralConfig.HTM_CACHE && GeneralConfig.HTM_CACHE_PREWARM)
+		{
+			prewarm();
+		}
+		
+		if (GeneralConfig.HTM_CACHE_WATCH_FILES)
+		{
+			startWatcher();
+		}
 	}
 	
 	public void reload()
@@ -64,13 +98,14 @@ public class HtmCache
 		{
 			LOGGER.info("Html cache start...");
 			parseDir(file);
-			LOGGER.info("Cache[HTML]: " + String.format("%.3f", getMemoryUsage()) + " megabytes on " + _loadedFiles + " files loaded.");
+			LOGGER.info("Cache[HTML]: " + String.format("%.3f", getMemoryUsage()) + " megabytes on " + getLoadedFiles() + " files loaded.");
 		}
 		else
 		{
-			HTML_CACHE.clear();
-			_loadedFiles = 0;
-			_bytesBuffLen = 0;
+			for (String filePath : new ArrayList<>(HTML_CACHE.keySet()))
+			{
+				remove(filePath);
+			}
 			LOGGER.info("Cache[HTML]: Running lazy cache.");
 		}
 	}
@@ -81,14 +116,32 @@ public class HtmCache
 		LOGGER.info("Cache[HTML]: Reloaded specified path.");
 	}
 	
+	/**
+	 * @return the megabytes held by the cached pages, after compression, and their parsed templates
+	 */
 	public double getMemoryUsage()
 	{
-		return (float) _bytesBuffLen / 1048576;
+		return (float) _bytesHeld.get() / 1048576;
 	}
 	
 	public int getLoadedFiles()
 	{
-		return _loadedFiles;
+		return _loadedFiles.get();
+	}
+	
+	public long getHits()
+	{
+		return _hits.sum();
+	}
+	
+	public long getMisses()
+	{
+		return _misses.sum();
+	}
+	
+	public long getEvictions()
+	{
+		return _evictions.sum();
 	}
 	
 	private void parseDir(File dir)
@@ -112,18 +165,11 @@ public class HtmCache
 	
 	public String loadFile(File file)
 	{
-		if ((file == null) || !file.isFile())
+		if ((file == null) || !file.isFile() || !isHtml(file.getName()))
 		{
 			return null;
 		}
 		
-		final String lowerCaseName = file.getName().toLowerCase();
-		if (!(lowerCaseName.endsWith(".htm") || lowerCaseName.endsWith(".html")))
-		{
-			return null;
-		}
-		
-		String filePath = null;
 		String content = null;
 		try (FileInputStream fis = new FileInputStream(file);
 			BufferedInputStream bis = new BufferedInputStream(fis))
@@ -136,22 +182,13 @@ public class HtmCache
 			content = content.replaceAll("(?s)<!--.*?-->", ""); // Remove html comments.
 			content = content.replaceAll("[\\t\\n]", ""); // Remove tabs and new lines.
 			
-			filePath = file.toURI().getPath().substring(ServerConfig.DATAPACK_ROOT.toURI().getPath().length());
+			final String filePath = getFilePath(file);
 			if (GeneralConfig.CHECK_HTML_ENCODING && !filePath.startsWith("data/lang") && !StandardCharsets.US_ASCII.newEncoder().canEncode(content))
 			{
 				LOGGER.warning("HTML encoding check: File " + filePath + " contains non ASCII content.");
 			}
 			
-			final String oldContent = HTML_CACHE.put(filePath, content);
-			if (oldContent == null)
-			{
-				_bytesBuffLen += bytes;
-				_loadedFiles++;
-			}
-			else
-			{
-				_bytesBuffLen = (_bytesBuffLen - oldContent.length()) + bytes;
-			}
+			store(filePath, new HtmEntry(content, GeneralConfig.HTM_CACHE_COMPRESSION));
 		}
 		catch (Exception e)
 		{
@@ -162,37 +199,451 @@ public class HtmCache
 	}
 	
 	public String getHtm(Player player, String path)
+	{
+		final HtmEntry entry = getEntry(player, path);
+		return entry == null ? null : entry.getContent();
+	}
+	
+	/**
+	 * @param player the player, used for the localized path
+	 * @param path the path of the page
+	 * @return the parsed template of the page, or {@code null} if the page does not exist
+	 */
+	public HtmlTemplate getTemplate(Player player, String path)
+	{
+		final HtmEntry entry = getEntry(player, path);
+		return entry == null ? null : entry.getTemplate(_bytesHeld);
+	}
+	
+	public boolean contains(String path)
+	{
+		return HTML_CACHE.containsKey(path);
+	}
+	
+	private HtmEntry getEntry(Player player, String path)
 	{
 		final String prefix = player != null ? player.getHtmlPrefix() : "";
 		String newPath = prefix + path;
-		String content = HTML_CACHE.get(newPath);
-		if (!GeneralConfig.HTM_CACHE && (content == null))
+		HtmEntry entry = getEntry(newPath);
+		
+		// In case localisation does not exist try the default path.
+		if ((entry == null) && !prefix.contentEquals(""))
+		{
+			entry = getEntry(path);
+			newPath = path;
+		}
+		
+		if ((player != null) && player.isGM() && GeneralConfig.GM_DEBUG_HTML_PATHS)
 		{
-			content = loadFile(new File(ServerConfig.DATAPACK_ROOT, newPath));
+			player.sendPacket(new CreatureSay(null, ChatType.GENERAL, "HTML", newPath.substring(5)));
+		}
+		
+		return entry;
+	}
+	
+	private HtmEntry getEntry(String path)
+	{
+		HtmEntry entry = HTML_CACHE.get(path);
+		if (entry != null)
+		{
+			_hits.increment();
+			entry.touch();
+			return entry;
+		}
+		
+		_misses.increment();
+		if (!GeneralConfig.HTM_CACHE)
+		{
+			String content = loadFile(new File(ServerConfig.DATAPACK_ROOT, path));
 			if (content == null)
 			{
-				content = loadFile(new File(ServerConfig.SCRIPT_ROOT, newPath));
+				content = loadFile(new File(ServerConfig.SCRIPT_ROOT, path));
+			}
+			
+			if (content != null)
+			{
+				// Pages found outside the datapack root are not cached under the requested path.
+				entry = HTML_CACHE.get(path);
+				if (entry == null)
+				{
+					entry = new HtmEntry(content, false);
+				}
 			}
 		}
 		
-		// In case localisation does not exist try the default path.
-		if ((content == null) && !prefix.contentEquals(""))
+		return entry;
+	}
+	
+	private void store(String filePath, HtmEntry entry)
+	{
+		entry.setCached(_bytesHeld, true);
+		final HtmEntry oldEntry = HTML_CACHE.put(filePath, entry);
+		if (oldEntry == null)
 		{
-			content = HTML_CACHE.get(path);
-			newPath = path;
+			_loadedFiles.incrementAndGet();
+		}
+		else
+		{
+			oldEntry.setCached(_bytesHeld, false);
 		}
 		
-		if ((player != null) && player.isGM() && GeneralConfig.GM_DEBUG_HTML_PATHS)
+		if (!GeneralConfig.HTM_CACHE && (GeneralConfig.HTM_CACHE_MAX_SIZE > 0) && (_bytesHeld.get() > GeneralConfig.HTM_CACHE_MAX_SIZE))
 		{
-			player.sendPacket(new CreatureSay(null, ChatType.GENERAL, "HTML", newPath.substring(5)));
+			evict();
+		}
+	}
+	
+	private void remove(String filePath)
+	{
+		final HtmEntry oldEntry = HTML_CACHE.remove(filePath);
+		if (oldEntry != null)
+		{
+			oldEntry.setCached(_bytesHeld, false);
+			_loadedFiles.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Removes the least recently requested pages, until the lazy cache is back at nine tenths of its maximum size.
+	 */
+	private synchronized void evict()
+	{
+		if (_bytesHeld.get() <= GeneralConfig.HTM_CACHE_MAX_SIZE)
+		{
+			return;
 		}
 		
-		return content;
+		final List<Entry<String, HtmEntry>> entries = new ArrayList<>(HTML_CACHE.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> entry.getValue().getLastAccess()));
+		
+		final long target = GeneralConfig.HTM_CACHE_MAX_SIZE - (GeneralConfig.HTM_CACHE_MAX_SIZE / 10);
+		for (Entry<String, HtmEntry> entry : entries)
+		{
+			if (_bytesHeld.get() <= target)
+			{
+				break;
+			}
+			
+			if (HTML_CACHE.remove(entry.getKey(), entry.getValue()))
+			{
+				entry.getValue().setCached(_bytesHeld, false);
+				_loadedFiles.decrementAndGet();
+				_evictions.increment();
+			}
+		}
 	}
 	
-	public boolean contains(String path)
+	/**
+	 * Loads the pages stored by {@link #storeHotSet()} on the previous shutdown, so the first requests do not hit the disk.
+	 */
+	private void prewarm()
 	{
-		return HTML_CACHE.containsKey(path);
+		if (!HOT_SET_FILE.isFile())
+		{
+			return;
+		}
+		
+		int count = 0;
+		try
+		{
+			for (String filePath : Files.readAllLines(HOT_SET_FILE.toPath(), StandardCharsets.UTF_8))
+			{
+				if ((GeneralConfig.HTM_CACHE_MAX_SIZE > 0) && (_bytesHeld.get() >= GeneralConfig.HTM_CACHE_MAX_SIZE))
+				{
+					break;
+				}
+				
+				if (!filePath.isEmpty() && (loadFile(new File(ServerConfig.DATAPACK_ROOT, filePath)) != null))
+				{
+					count++;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, "Cache[HTML]: Could not read " + HOT_SET_FILE.getName() + ".", e);
+		}
+		
+		LOGGER.info("Cache[HTML]: Prewarmed " + count + " files, " + String.format("%.3f", getMemoryUsage()) + " megabytes.");
+	}
+	
+	/**
+	 * Stores the paths of the cached pages, most recently requested first, to be loaded on the next startup.
+	 * @return {@code true} if the hot set was written
+	 */
+	public boolean storeHotSet()
+	{
+		if (GeneralConfig.HTM_CACHE || !GeneralConfig.HTM_CACHE_PREWARM)
+		{
+			return false;
+		}
+		
+		final List<Entry<String, HtmEntry>> entries = new ArrayList<>(HTML_CACHE.entrySet());
+		entries.sort(Comparator.comparingLong((Entry<String, HtmEntry> entry) -> entry.getValue().getLastAccess()).reversed());
+		
+		final List<String> paths = new ArrayList<>(entries.size());
+		for (Entry<String, HtmEntry> entry : entries)
+		{
+			paths.add(entry.getKey());
+		}
+		
+		try
+		{
+			Files.write(HOT_SET_FILE.toPath(), paths, StandardCharsets.UTF_8);
+			return true;
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, "Cache[HTML]: Could not store " + HOT_SET_FILE.getName() + ".", e);
+			return false;
+		}
+	}
+	
+	/**
+	 * Watches the data folder, so edited pages are reloaded, or dropped from the lazy cache, without reloading the whole cache.
+	 */
+	private void startWatcher()
+	{
+		final Path root = new File(ServerConfig.DATAPACK_ROOT, "data").toPath();
+		final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+		try
+		{
+			final WatchService watchService = FileSystems.getDefault().newWatchService();
+			register(watchService, directories, root);
+			
+			final Thread watcher = new Thread(() -> watch(watchService, directories), "HtmCacheWatcher");
+			watcher.setDaemon(true);
+			watcher.start();
+			LOGGER.info("Cache[HTML]: Watching " + directories.size() + " folders for changes.");
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, "Cache[HTML]: Could not watch " + root + " for changes.", e);
+		}
+	}
+	
+	private void register(WatchService watchService, Map<WatchKey, Path> directories, Path root) throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(root))
+		{
+			for (Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator)
+			{
+				directories.put(path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), path);
+			}
+		}
+	}
+	
+	private void watch(WatchService watchService, Map<WatchKey, Path> directories)
+	{
+		while (true)
+		{
+			final WatchKey key;
+			try
+			{
+				key = watchService.take();
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			
+			final Path directory = directories.get(key);
+			for (WatchEvent<?> event : key.pollEvents())
+			{
+				// Events were lost, the lazy cache starts over.
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+				{
+					if (!GeneralConfig.HTM_CACHE)
+					{
+						reload();
+					}
+					continue;
+				}
+				
+				if (directory == null)
+				{
+					continue;
+				}
+				
+				final Path path = directory.resolve((Path) event.context());
+				try
+				{
+					if (Files.isDirectory(path))
+					{
+						if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE)
+						{
+							register(watchService, directories, path);
+						}
+						continue;
+					}
+					
+					if (!isHtml(path.getFileName().toString()))
+					{
+						continue;
+					}
+					
+					if (GeneralConfig.HTM_CACHE && (event.kind() != StandardWatchEventKinds.ENTRY_DELETE))
+					{
+						loadFile(path.toFile());
+					}
+					else
+					{
+						remove(getFilePath(path.toFile()));
+					}
+				}
+				catch (Exception e)
+				{
+					LOGGER.log(Level.WARNING, "Cache[HTML]: Problem updating " + path + ".", e);
+				}
+			}
+			
+			if (!key.reset())
+			{
+				directories.remove(key);
+			}
+		}
+	}
+	
+	private static boolean isHtml(String fileName)
+	{
+		final String lowerCaseName = fileName.toLowerCase();
+		return lowerCaseName.endsWith(".htm") || lowerCaseName.endsWith(".html");
+	}
+	
+	private static String getFilePath(File file)
+	{
+		return file.toURI().getPath().substring(ServerConfig.DATAPACK_ROOT.toURI().getPath().length());
+	}
+	
+	/**
+	 * A cached page, held as is or deflated.<br>
+	 * Templates are kept only for pages held as is, since a template holds the whole page.<br>
+	 * While the page is cached, its size and the size of its template are counted in the bytes held by the cache.
+	 */
+	private static class HtmEntry
+	{
+		private final String _content;
+		private final byte[] _compressed;
+		private final int _length;
+		private volatile HtmlTemplate _template;
+		private int _templateSize;
+		private boolean _cached;
+		private volatile long _lastAccess = System.nanoTime();
+		
+		public HtmEntry(String content, boolean compress)
+		{
+			final byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+			_length = raw.length;
+			if (compress)
+			{
+				final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+				deflater.setInput(raw);
+				deflater.finish();
+				final byte[] buffer = new byte[raw.length + 64];
+				final int size = deflater.deflate(buffer);
+				deflater.end();
+				
+				// Pages that do not get smaller are held as is.
+				if (deflater.finished() && (size < raw.length))
+				{
+					_content = null;
+					_compressed = new byte[size];
+					System.arraycopy(buffer, 0, _compressed, 0, size);
+					return;
+				}
+			}
+			
+			_content = content;
+			_compressed = null;
+		}
+		
+		public String getContent()
+		{
+			if (_content != null)
+			{
+				return _content;
+			}
+			
+			final Inflater inflater = new Inflater();
+			try
+			{
+				inflater.setInput(_compressed);
+				final byte[] raw = new byte[_length];
+				inflater.inflate(raw);
+				return new String(raw, StandardCharsets.UTF_8);
+			}
+			catch (DataFormatException e)
+			{
+				LOGGER.log(Level.WARNING, "Cache[HTML]: Could not inflate page.", e);
+				return null;
+			}
+			finally
+			{
+				inflater.end();
+			}
+		}
+		
+		/**
+		 * @param bytesHeld the bytes held by the cache, increased by the size of a new template while the page is cached
+		 * @return the parsed template of the page
+		 */
+		public HtmlTemplate getTemplate(AtomicLong bytesHeld)
+		{
+			if (_content == null)
+			{
+				final String content = getContent();
+				return content == null ? null : new HtmlTemplate(content);
+			}
+			
+			HtmlTemplate template = _template;
+			if (template != null)
+			{
+				return template;
+			}
+			
+			synchronized (this)
+			{
+				template = _template;
+				if (template == null)
+				{
+					template = new HtmlTemplate(_content);
+					_templateSize = template.getSize();
+					_template = template;
+					if (_cached)
+					{
+						bytesHeld.addAndGet(_templateSize);
+					}
+				}
+				return template;
+			}
+		}
+		
+		/**
+		 * Adds or removes the size of the page and of its template to the bytes held by the cache.
+		 * @param bytesHeld the bytes held by the cache
+		 * @param cached {@code true} when the page is added to the cache, {@code false} when it is removed
+		 */
+		public synchronized void setCached(AtomicLong bytesHeld, boolean cached)
+		{
+			if (_cached == cached)
+			{
+				return;
+			}
+			
+			_cached = cached;
+			final int size = (_compressed != null ? _compressed.length : _length) + _templateSize;
+			bytesHeld.addAndGet(cached ? size : -size);
+		}
+		
+		public long getLastAccess()
+		{
+			return _lastAccess;
+		}
+		
+		public void touch()
+		{
+			_lastAccess = System.nanoTime();
+		}
 	}
 	
 	public static HtmCache getInstance()
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Html page parsed once into literal segments and %placeholder% slots.<br>
+ * Packets store replacement values per slot and build the final page in a single pass, instead of copying the whole page for every replacement.
+ * @author Mobius
+ */
+public class HtmlTemplate
+{
+	private static final int MAX_PLACEHOLDER_LENGTH = 64;
+	private static final int STRING_OVERHEAD = 40; // String and backing array headers.
+	
+	private final String _source;
+	private final String[] _literals;
+	private final int[] _segmentSlots;
+	private final String[] _placeholders;
+	private final Map<String, Integer> _slots = new HashMap<>();
+	
+	public HtmlTemplate(String source)
+	{
+		_source = source;
+		
+		final List<String> literals = new ArrayList<>();
+		final List<Integer> segmentSlots = new ArrayList<>();
+		final List<String> placeholders = new ArrayList<>();
+		int literalStart = 0;
+		int start = source.indexOf('%');
+		while (start >= 0)
+		{
+			final int end = source.indexOf('%', start + 1);
+			if (end < 0)
+			{
+				break;
+			}
+			
+			if (isPlaceholder(source, start + 1, end))
+			{
+				final String placeholder = source.substring(start, end + 1);
+				Integer slot = _slots.get(placeholder);
+				if (slot == null)
+				{
+					slot = placeholders.size();
+					_slots.put(placeholder, slot);
+					placeholders.add(placeholder);
+				}
+				
+				literals.add(source.substring(literalStart, start));
+				segmentSlots.add(slot);
+				literalStart = end + 1;
+				start = source.indexOf('%', literalStart);
+			}
+			else
+			{
+				// The closing character may open the next placeholder.
+				start = end;
+			}
+		}
+		literals.add(source.substring(literalStart));
+		
+		_literals = literals.toArray(new String[literals.size()]);
+		_segmentSlots = segmentSlots.stream().mapToInt(Integer::intValue).toArray();
+		_placeholders = placeholders.toArray(new String[placeholders.size()]);
+	}
+	
+	private static boolean isPlaceholder(String source, int start, int end)
+	{
+		if ((end == start) || ((end - start) > MAX_PLACEHOLDER_LENGTH))
+		{
+			return false;
+		}
+		
+		for (int i = start; i < end; i++)
+		{
+			final char c = source.charAt(i);
+			if (!Character.isLetterOrDigit(c) && (c != '_') && (c != '-') && (c != '.'))
+			{
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @return the approximate number of bytes held by the parsed segments, not counting the source page
+	 */
+	public int getSize()
+	{
+		int size = _segmentSlots.length * 4;
+		for (String literal : _literals)
+		{
+			size += STRING_OVERHEAD + literal.length();
+		}
+		for (String placeholder : _placeholders)
+		{
+			size += (STRING_OVERHEAD * 2) + placeholder.length(); // Also counts the slot map entry.
+		}
+		return size;
+	}
+	
+	/**
+	 * @return the unparsed page
+	 */
+	public String getSource()
+	{
+		return _source;
+	}
+	
+	/**
+	 * @return the number of distinct placeholders
+	 */
+	public int getSlotCount()
+	{
+		return _placeholders.length;
+	}
+	
+	/**
+	 * @param placeholder the placeholder, including its % characters
+	 * @return the slot of the placeholder, or -1 if the page has no such placeholder
+	 */
+	public int getSlot(String placeholder)
+	{
+		final Integer slot = _slots.get(placeholder);
+		return slot == null ? -1 : slot;
+	}
+	
+	/**
+	 * Builds the page, leaving placeholders without a value untouched.
+	 * @param values the values indexed by slot, {@code null} entries are not replaced
+	 * @return the page with the values filled in
+	 */
+	public String build(String[] values)
+	{
+		int length = _source.length();
+		for (String value : values)
+		{
+			if (value != null)
+			{
+				length += value.length();
+			}
+		}
+		
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < _segmentSlots.length; i++)
+		{
+			sb.append(_literals[i]);
+			final int slot = _segmentSlots[i];
+			final String value = values[slot];
+			sb.append(value != null ? value : _placeholders[slot]);
+		}
+		sb.append(_literals[_segmentSlots.length]);
+		return sb.toString();
+	}
+}
@@ -77,8 +77,11 @@ public class GeneralConfig
 	public static int HERB_AUTO_DESTROY_TIME;
 	public static Set<Integer> LIST_PROTECTED_ITEMS;
 	public static int CHAR_DATA_STORE_INTERVAL;
+	public static int CHAR_DATA_STORE_BATCH_SIZE;
+	public static int CHAR_DATA_STORE_THREADS;
 	public static int CLAN_VARIABLES_STORE_INTERVAL;
 	public static boolean LAZY_ITEMS_UPDATE;
+	public static int ITEMS_WRITE_BEHIND_INTERVAL;
 	public static boolean UPDATE_ITEMS_ON_CHAR_STORE;
 	public static boolean DESTROY_DROPPED_PLAYER_ITEM;
 	public static boolean DESTROY_EQUIPABLE_PLAYER_ITEM;
@@ -92,6 +95,10 @@ public class GeneralConfig
 	public static boolean ENABLE_STORY_QUEST_BUFF_REWARD;
 	public static boolean MULTIPLE_ITEM_DROP;
 	public static boolean HTM_CACHE;
+	public static long HTM_CACHE_MAX_SIZE;
+	public static boolean HTM_CACHE_COMPRESSION;
+	public static boolean HTM_CACHE_PREWARM;
+	public static boolean HTM_CACHE_WATCH_FILES;
 	public static boolean CHECK_HTML_ENCODING;
 	public static int MIN_NPC_ANIMATION;
 	public static int MAX_NPC_ANIMATION;
@@ -100,6 +107,8 @@ public class GeneralConfig
 	public static boolean GRIDS_ALWAYS_ON;
 	public static int GRID_NEIGHBOR_TURNON_TIME;
 	public static int GRID_NEIGHBOR_TURNOFF_TIME;
+	public static boolean DORMANT_SPAWNS;
+	public static int DORMANT_SPAWN_GRACE_TIME;
 	public static boolean CORRECT_PRICES;
 	public static long MULTISELL_AMOUNT_LIMIT;
 	public static boolean ENABLE_FALLING_DAMAGE;
@@ -117,6 +126,8 @@ public class GeneralConfig
 	public static int WEAR_PRICE;
 	public static int INSTANCE_FINISH_TIME;
 	public static boolean RESTORE_PLAYER_INSTANCE;
+	public static int INSTANCE_POOL_SIZE;
+	public static int INSTANCE_POOL_UPDATE_TIME;
 	public static int EJECT_DEAD_PLAYER_TIME;
 	public static boolean ALLOW_RACE;
 	public static boolean ALLOW_WATER;
@@ -221,8 +232,11 @@ public class GeneralConfig
 			LIST_PROTECTED_ITEMS.add(Integer.parseInt(id));
 		}
 		CHAR_DATA_STORE_INTERVAL = config.getInt("CharacterDataStoreInterval", 15) * 60 * 1000;
+		CHAR_DATA_STORE_BATCH_SIZE = Math.max(1, config.getInt("CharacterDataStoreBatchSize", 50));
+		CHAR_DATA_STORE_THREADS = Math.max(1, config.getInt("CharacterDataStoreThreads", 4));
 		CLAN_VARIABLES_STORE_INTERVAL = config.getInt("ClanVariablesStoreInterval", 15) * 60 * 1000;
 		LAZY_ITEMS_UPDATE = config.getBoolean("LazyItemsUpdate", false);
+		ITEMS_WRITE_BEHIND_INTERVAL = config.getInt("ItemsWriteBehindInterval", 0);
 		UPDATE_ITEMS_ON_CHAR_STORE = config.getBoolean("UpdateItemsOnCharStore", false);
 		DESTROY_DROPPED_PLAYER_ITEM = config.getBoolean("DestroyPlayerDroppedItem", false);
 		DESTROY_EQUIPABLE_PLAYER_ITEM = config.getBoolean("DestroyEquipableItem", false);
@@ -236,6 +250,10 @@ public class GeneralConfig
 		ENABLE_STORY_QUEST_BUFF_REWARD = config.getBoolean("StoryQuestRewardBuff", true);
 		MULTIPLE_ITEM_DROP = config.getBoolean("MultipleItemDrop", true);
 		HTM_CACHE = config.getBoolean("HtmCache", true);
+		HTM_CACHE_MAX_SIZE = config.getInt("HtmCacheMaxSize", 8) * 1048576L;
+		HTM_CACHE_COMPRESSION = config.getBoolean("HtmCacheCompression", false);
+		HTM_CACHE_PREWARM = config.getBoolean("HtmCachePrewarm", true);
+		HTM_CACHE_WATCH_FILES = config.getBoolean("HtmCacheWatchFiles", false);
 		CHECK_HTML_ENCODING = config.getBoolean("CheckHtmlEncoding", true);
 		MIN_NPC_ANIMATION = config.getInt("MinNpcAnimation", 5);
 		MAX_NPC_ANIMATION = config.getInt("MaxNpcAnimation", 60);
@@ -244,6 +262,8 @@ public class GeneralConfig
 		GRIDS_ALWAYS_ON = config.getBoolean("GridsAlwaysOn", false);
 		GRID_NEIGHBOR_TURNON_TIME = config.getInt("GridNeighborTurnOnTime", 1);
 		GRID_NEIGHBOR_TURNOFF_TIME = config.getInt("GridNeighborTurnOffTime", 90);
+		DORMANT_SPAWNS = config.getBoolean("DormantSpawns", false);
+		DORMANT_SPAWN_GRACE_TIME = config.getInt("DormantSpawnGraceTime", 300);
 		CORRECT_PRICES = config.getBoolean("CorrectPrices", true);
 		MULTISELL_AMOUNT_LIMIT = config.getLong("MultisellAmountLimit", 10000);
 		ENABLE_FALLING_DAMAGE = config.getBoolean("EnableFallingDamage", true);
@@ -261,6 +281,8 @@ public class GeneralConfig
 		WEAR_PRICE = config.getInt("WearPrice", 10);
 		INSTANCE_FINISH_TIME = config.getInt("DefaultFinishTime", 5);
 		RESTORE_PLAYER_INSTANCE = config.getBoolean("RestorePlayerInstance", false);
+		INSTANCE_POOL_SIZE = config.getInt("InstancePoolSize", 0);
+		INSTANCE_POOL_UPDATE_TIME = Math.max(1, config.getInt("InstancePoolUpdateTime", 60));
 		EJECT_DEAD_PLAYER_TIME = config.getInt("EjectDeadPlayerTime", 1);
 		ALLOW_RACE = config.getBoolean("AllowRace", true);
 		ALLOW_WATER = config.getBoolean("AllowWater", true);
@@ -40,6 +40,7 @@ public class GeoEngineConfig
 	public static Path GEOEDIT_PATH;
 	public static int PATHFINDING;
 	public static String PATHFIND_BUFFERS;
+	public static int MAX_PATHFIND_ITERATIONS;
 	public static float LOW_WEIGHT;
 	public static float MEDIUM_WEIGHT;
 	public static float HIGH_WEIGHT;
@@ -47,6 +48,8 @@ public class GeoEngineConfig
 	public static boolean AVOID_OBSTRUCTED_PATH_NODES;
 	public static float DIAGONAL_WEIGHT;
 	public static int MAX_POSTFILTER_PASSES;
+	public static int LOS_CACHE_SIZE;
+	public static long LOS_CACHE_TIME;
 	
 	public static void load()
 	{
@@ -56,6 +59,7 @@ public class GeoEngineConfig
 		GEOEDIT_PATH = Paths.get(ServerConfig.DATAPACK_ROOT.getPath() + "/" + config.getString("GeoEditPath", "saves"));
 		PATHFINDING = config.getInt("PathFinding", 0);
 		PATHFIND_BUFFERS = config.getString("PathFindBuffers", "100x6;128x6;192x6;256x4;320x4;384x4;500x2");
+		MAX_PATHFIND_ITERATIONS = config.getInt("MaxPathFindIterations", 7000);
 		LOW_WEIGHT = config.getFloat("LowWeight", 0.5f);
 		MEDIUM_WEIGHT = config.getFloat("MediumWeight", 2);
 		HIGH_WEIGHT = config.getFloat("HighWeight", 3);
@@ -63,5 +67,7 @@ public class GeoEngineConfig
 		AVOID_OBSTRUCTED_PATH_NODES = config.getBoolean("AvoidObstructedPathNodes", true);
 		DIAGONAL_WEIGHT = config.getFloat("DiagonalWeight", 0.707f);
 		MAX_POSTFILTER_PASSES = config.getInt("MaxPostfilterPasses", 3);
+		LOS_CACHE_SIZE = config.getInt("LosCacheSize", 65536);
+		LOS_CACHE_TIME = config.getLong("LosCacheTime", 2000);
 	}
 }
@@ -80,6 +80,7 @@ public class ServerConfig
 	public static boolean ACCEPT_ALTERNATE_ID;
 	public static File DATAPACK_ROOT;
 	public static File SCRIPT_ROOT;
+	public static boolean SCRIPT_CACHE;
 	public static Pattern CHARNAME_TEMPLATE_PATTERN;
 	public static String PET_NAME_TEMPLATE;
 	public static String CLAN_NAME_TEMPLATE;
@@ -145,6 +146,7 @@ public class ServerConfig
 			LOGGER.log(Level.WARNING, "Error setting script root!", e);
 			SCRIPT_ROOT = new File(".");
 		}
+		SCRIPT_CACHE = config.getBoolean("ScriptCache", true);
 		
 		Pattern charNamePattern;
 		try
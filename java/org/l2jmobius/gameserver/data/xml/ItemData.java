@@ -27,7 +27,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Logger;
 
@@ -95,8 +97,26 @@ public class ItemData
 		_etcItems.clear();
 		_weapons.clear();
 		
-		// If multithreading is enabled, use a thread pool to parse files.
-		if (ThreadConfig.THREADS_FOR_LOADING)
+		// If parallel startup is enabled, parse the files on the common fork-join pool.
+		if (ThreadConfig.PARALLEL_STARTUP)
+		{
+			final List<CompletableFuture<Void>> tasks = new ArrayList<>(_itemFiles.size());
+			for (File file : _itemFiles)
+			{
+				tasks.add(CompletableFuture.runAsync(() ->
+				{
+					final DocumentItem document = new DocumentItem(file);
+					document.parse();
+					items.addAll(document.getItemList());
+				}, ForkJoinPool.commonPool()));
+			}
+			
+			for (CompletableFuture<Void> task : tasks)
+			{
+				task.join();
+			}
+		}
+		else if (ThreadConfig.THREADS_FOR_LOADING) // If multithreading is enabled, use a thread pool to parse files.
 		{
 			final Collection<ScheduledFuture<?>> tasks = ConcurrentHashMap.newKeySet();
 			for (File file : _itemFiles)
@@ -27,7 +27,9 @@ import java.nio.ByteOrder;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,7 +41,7 @@ import org.l2jmobius.gameserver.geoengine.geodata.IRegion;
 import org.l2jmobius.gameserver.geoengine.geodata.regions.NullRegion;
 import org.l2jmobius.gameserver.geoengine.geodata.regions.Region;
 import org.l2jmobius.gameserver.geoengine.util.GridLineIterator2D;
-import org.l2jmobius.gameserver.geoengine.util.GridLineIterator3D;
+import org.l2jmobius.gameserver.geoengine.util.LineOfSightTrace;
 import org.l2jmobius.gameserver.model.Location;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.WorldObject;
@@ -83,6 +85,13 @@ public class GeoEngine
 	// Region Management.
 	private static final AtomicReferenceArray<IRegion> REGIONS = new AtomicReferenceArray<>(GEO_REGIONS);
 	
+	// Recent line of sight results, dropped when the geodata version changes.
+	private final LosEntry[] _losCache = GeoEngineConfig.LOS_CACHE_SIZE > 0 ? new LosEntry[Integer.highestOneBit(GeoEngineConfig.LOS_CACHE_SIZE)] : null;
+	private final AtomicInteger _geodataVersion = new AtomicInteger();
+	private final LongAdder _losCacheHits = new LongAdder();
+	private final LongAdder _losCacheMisses = new LongAdder();
+	private volatile LineOfSightTrace _losTrace;
+	
 	protected GeoEngine()
 	{
 		// Initially set all regions to NullRegion.
@@ -170,12 +179,14 @@ public class GeoEngine
 			{
 				final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(geoFilePath)).order(ByteOrder.LITTLE_ENDIAN);
 				((Region) region).load(buffer);
+				clearLosCache();
 				LOGGER.info(getClass().getSimpleName() + ": Reloaded region " + regionX + "_" + regionY + " from bytes.");
 				return true;
 			}
 			
 			// Not a real region? fallback load.
 			loadRegion(geoFilePath, regionX, regionY);
+			clearLosCache();
 			LOGGER.info(getClass().getSimpleName() + ": Replaced NullRegion with new region " + regionX + "_" + regionY);
 			return true;
 		}
@@ -196,6 +207,7 @@ public class GeoEngine
 	{
 		final int regionOffset = (regionX * GEO_REGIONS_Y) + regionY;
 		REGIONS.set(regionOffset, region);
+		clearLosCache();
 	}
 	
 	/**
@@ -279,6 +291,7 @@ public class GeoEngine
 	public void setNearestNswe(int geoX, int geoY, int worldZ, byte nswe)
 	{
 		getRegion(geoX, geoY).setNearestNswe(geoX, geoY, worldZ, nswe);
+		clearLosCache();
 	}
 	
 	/**
@@ -291,6 +304,7 @@ public class GeoEngine
 	public void unsetNearestNswe(int geoX, int geoY, int worldZ, byte nswe)
 	{
 		getRegion(geoX, geoY).unsetNearestNswe(geoX, geoY, worldZ, nswe);
+		clearLosCache();
 	}
 	
 	/**
@@ -502,7 +516,8 @@ public class GeoEngine
 	}
 	
 	/**
-	 * Checks if position can see target position without door and fence validation.
+	 * Checks if position can see target position without door and fence validation.<br>
+	 * Results depend only on the geodata cells and heights of both positions, so recent results of the same cells are reused until geodata changes.
 	 * @param x The x coordinate
 	 * @param y The y coordinate
 	 * @param z The z coordinate
@@ -513,6 +528,12 @@ public class GeoEngine
 	 */
 	public boolean canSeeTarget(int x, int y, int z, int targetX, int targetY, int targetZ)
 	{
+		final LineOfSightTrace trace = _losTrace;
+		if (trace != null)
+		{
+			trace.add(x, y, z, targetX, targetY, targetZ);
+		}
+		
 		int geoX = getGeoX(x);
 		int geoY = getGeoY(y);
 		int targetGeoX = getGeoX(targetX);
@@ -527,21 +548,9 @@ public class GeoEngine
 			return !hasGeoPos(targetGeoX, targetGeoY) || (nearestFromZ == nearestToZ);
 		}
 		
-		int fromX = targetX;
-		int fromY = targetY;
-		int toX = targetX;
-		int toY = targetY;
 		if (nearestToZ > nearestFromZ)
 		{
-			int temp = toX;
-			toX = fromX;
-			fromX = temp;
-			
-			temp = toY;
-			toY = fromY;
-			fromY = temp;
-			
-			temp = nearestToZ;
+			int temp = nearestToZ;
 			nearestToZ = nearestFromZ;
 			nearestFromZ = temp;
 			
@@ -554,25 +563,127 @@ public class GeoEngine
 			geoY = temp;
 		}
 		
-		final GridLineIterator3D pointIterator = new GridLineIterator3D(geoX, geoY, nearestFromZ, targetGeoX, targetGeoY, nearestToZ);
+		final LosEntry[] cache = _losCache;
+		if ((cache == null) || (GeoEngineConfig.LOS_CACHE_TIME <= 0))
+		{
+			return checkLineOfSight(geoX, geoY, nearestFromZ, targetGeoX, targetGeoY, nearestToZ);
+		}
+		
+		final int hash = (((((((((geoX * 31) + geoY) * 31) + targetGeoX) * 31) + targetGeoY) * 31) + nearestFromZ) * 31) + nearestToZ;
+		final int index = (hash ^ (hash >>> 16)) & (cache.length - 1);
+		final int version = _geodataVersion.get();
+		final long currentTime = System.currentTimeMillis();
+		final LosEntry entry = cache[index];
+		if ((entry != null) && (entry.version == version) && (entry.expiration > currentTime) && entry.matches(geoX, geoY, nearestFromZ, targetGeoX, targetGeoY, nearestToZ))
+		{
+			_losCacheHits.increment();
+			return entry.canSee;
+		}
+		
+		_losCacheMisses.increment();
+		final boolean canSee = checkLineOfSight(geoX, geoY, nearestFromZ, targetGeoX, targetGeoY, nearestToZ);
+		cache[index] = new LosEntry(geoX, geoY, nearestFromZ, targetGeoX, targetGeoY, nearestToZ, version, currentTime + GeoEngineConfig.LOS_CACHE_TIME, canSee);
+		return canSee;
+	}
+	
+	/**
+	 * Walks the 3D line between two geodata positions, the origin being the higher one.<br>
+	 * Steps with Bresenham's line algorithm, like {@link org.l2jmobius.gameserver.geoengine.util.GridLineIterator3D}, without creating an iterator.
+	 * @param geoX The origin geodata X coordinate
+	 * @param geoY The origin geodata Y coordinate
+	 * @param nearestFromZ The origin geodata height
+	 * @param targetGeoX The target geodata X coordinate
+	 * @param targetGeoY The target geodata Y coordinate
+	 * @param nearestToZ The target geodata height
+	 * @return {@code true} if there is line of sight between the given positions, {@code false} otherwise
+	 */
+	private boolean checkLineOfSight(int geoX, int geoY, int nearestFromZ, int targetGeoX, int targetGeoY, int nearestToZ)
+	{
+		final int deltaX = Math.abs(targetGeoX - geoX);
+		final int deltaY = Math.abs(targetGeoY - geoY);
+		final int deltaZ = Math.abs(nearestToZ - nearestFromZ);
+		final int stepX = geoX < targetGeoX ? 1 : -1;
+		final int stepY = geoY < targetGeoY ? 1 : -1;
+		final int stepZ = nearestFromZ < nearestToZ ? 1 : -1;
+		final int dominantAxis = (deltaX >= deltaY) && (deltaX >= deltaZ) ? 0 : (deltaY >= deltaX) && (deltaY >= deltaZ) ? 1 : 2;
+		final int dominantDelta = dominantAxis == 0 ? deltaX : dominantAxis == 1 ? deltaY : deltaZ;
+		int errorXY = dominantDelta / 2;
+		int errorXZ = errorXY;
 		
 		// First point is guaranteed to be available, skip it, we can always see our own position.
-		pointIterator.next();
-		int previousX = pointIterator.x();
-		int previousY = pointIterator.y();
-		int previousGeoZ = pointIterator.z();
+		int pointX = geoX;
+		int pointY = geoY;
+		int pointZ = nearestFromZ;
+		int previousX = pointX;
+		int previousY = pointY;
+		int previousGeoZ = pointZ;
 		int pointIndex = 0;
-		while (pointIterator.next())
+		while ((pointX != targetGeoX) || (pointY != targetGeoY) || (pointZ != nearestToZ))
 		{
-			final int currentX = pointIterator.x();
-			final int currentY = pointIterator.y();
+			// Move along the dominant axis and adjust the minor axes.
+			switch (dominantAxis)
+			{
+				case 0:
+				{
+					pointX += stepX;
+					errorXY += deltaY;
+					if (errorXY >= deltaX)
+					{
+						pointY += stepY;
+						errorXY -= deltaX;
+					}
+					errorXZ += deltaZ;
+					if (errorXZ >= deltaX)
+					{
+						pointZ += stepZ;
+						errorXZ -= deltaX;
+					}
+					break;
+				}
+				case 1:
+				{
+					pointY += stepY;
+					errorXY += deltaX;
+					if (errorXY >= deltaY)
+					{
+						pointX += stepX;
+						errorXY -= deltaY;
+					}
+					errorXZ += deltaZ;
+					if (errorXZ >= deltaY)
+					{
+						pointZ += stepZ;
+						errorXZ -= deltaY;
+					}
+					break;
+				}
+				default:
+				{
+					pointZ += stepZ;
+					errorXY += deltaX;
+					if (errorXY >= deltaZ)
+					{
+						pointX += stepX;
+						errorXY -= deltaZ;
+					}
+					errorXZ += deltaY;
+					if (errorXZ >= deltaZ)
+					{
+						pointY += stepY;
+						errorXZ -= deltaZ;
+					}
+					break;
+				}
+			}
 			
+			final int currentX = pointX;
+			final int currentY = pointY;
 			if ((currentX == previousX) && (currentY == previousY))
 			{
 				continue;
 			}
 			
-			final int beeCurrentZ = pointIterator.z();
+			final int beeCurrentZ = pointZ;
 			int currentGeoZ = previousGeoZ;
 			
 			// Check if the position has geodata.
@@ -629,6 +740,39 @@ public class GeoEngine
 		return true;
 	}
 	
+	/**
+	 * Drops all cached line of sight results.<br>
+	 * Called when geodata changes.
+	 */
+	public void clearLosCache()
+	{
+		_geodataVersion.incrementAndGet();
+	}
+	
+	public long getLosCacheHits()
+	{
+		return _losCacheHits.sum();
+	}
+	
+	public long getLosCacheMisses()
+	{
+		return _losCacheMisses.sum();
+	}
+	
+	/**
+	 * Records the next line of sight queries, to be replayed with the LosBenchmark tool.
+	 * @param file the file the queries are written to once recorded
+	 * @param queries the number of queries to record
+	 */
+	public void recordLosTrace(Path file, int queries)
+	{
+		_losTrace = new LineOfSightTrace(queries, trace ->
+		{
+			_losTrace = null;
+			trace.save(file);
+		});
+	}
+	
 	/**
 	 * Verifies if there is a path between origin and destination locations.<br>
 	 * Returns the destination if there is a path or the closest valid location.
@@ -844,6 +988,40 @@ public class GeoEngine
 		return true;
 	}
 	
+	/**
+	 * A cached line of sight result, between two geodata positions at a geodata version.
+	 */
+	private static class LosEntry
+	{
+		final int geoX;
+		final int geoY;
+		final int fromZ;
+		final int targetGeoX;
+		final int targetGeoY;
+		final int toZ;
+		final int version;
+		final long expiration;
+		final boolean canSee;
+		
+		LosEntry(int geoX, int geoY, int fromZ, int targetGeoX, int targetGeoY, int toZ, int version, long expiration, boolean canSee)
+		{
+			this.geoX = geoX;
+			this.geoY = geoY;
+			this.fromZ = fromZ;
+			this.targetGeoX = targetGeoX;
+			this.targetGeoY = targetGeoY;
+			this.toZ = toZ;
+			this.version = version;
+			this.expiration = expiration;
+			this.canSee = canSee;
+		}
+		
+		boolean matches(int x, int y, int z, int targetX, int targetY, int targetZ)
+		{
+			return (geoX == x) && (geoY == y) && (fromZ == z) && (targetGeoX == targetX) && (targetGeoY == targetY) && (toZ == targetZ);
+		}
+	}
+	
 	public static GeoEngine getInstance()
 	{
 		return SingletonHolder.INSTANCE;
@@ -31,6 +31,10 @@ public class GeoNode
 	private boolean _isInUse = true;
 	private float _cost = -1000;
 	
+	// Open list heap position, -1 when not in the open list.
+	private int _heapIndex = -1;
+	private boolean _closed = false;
+	
 	// A* specific costs.
 	private double _gCost = -1; // Actual cost from start.
 	private double _hCost = 0; // Heuristic cost to target.
@@ -144,14 +148,36 @@ public class GeoNode
 		_fCost = _gCost + _hCost;
 	}
 	
+	public int getHeapIndex()
+	{
+		return _heapIndex;
+	}
+	
+	public void setHeapIndex(int heapIndex)
+	{
+		_heapIndex = heapIndex;
+	}
+	
+	public boolean isClosed()
+	{
+		return _closed;
+	}
+	
+	public void setClosed()
+	{
+		_closed = true;
+	}
+	
 	/**
-	 * Resets all A* costs to initial values.
+	 * Resets all A* costs and list states to initial values.
 	 */
 	public void resetCosts()
 	{
 		_gCost = -1;
 		_hCost = 0;
 		_fCost = 0;
+		_heapIndex = -1;
+		_closed = false;
 	}
 	
 	public void free()
@@ -20,9 +20,7 @@
  */
 package org.l2jmobius.gameserver.geoengine.pathfinding;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Arrays;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.l2jmobius.gameserver.config.GeoEngineConfig;
@@ -32,15 +30,17 @@ import org.l2jmobius.gameserver.config.GeoEngineConfig;
  */
 public class NodeBuffer
 {
-	private static final int MAX_ITERATIONS = 7000;
-	
 	private final ReentrantLock _lock = new ReentrantLock();
 	private final int _mapSize;
 	private final GeoNode[][] _buffer;
 	
-	// A* specific data structures.
-	private final PriorityQueue<GeoNode> _openList;
-	private final Set<GeoNode> _closedList;
+	// A* open list as a binary heap ordered by F cost, then H cost. Nodes keep their own heap index and closed state.
+	private GeoNode[] _openList = new GeoNode[256];
+	private int _openListSize = 0;
+	
+	// Nodes taken into use by the current search, reset by free() instead of scanning the whole buffer.
+	private GeoNode[] _usedNodes = new GeoNode[256];
+	private int _usedNodesSize = 0;
 	
 	private int _baseX = 0;
 	private int _baseY = 0;
@@ -55,16 +55,6 @@ public class NodeBuffer
 	{
 		_mapSize = size;
 		_buffer = new GeoNode[_mapSize][_mapSize];
-		_openList = new PriorityQueue<>((a, b) ->
-		{
-			if (a.getFCost() != b.getFCost())
-			{
-				return Double.compare(a.getFCost(), b.getFCost());
-			}
-			
-			return Double.compare(a.getHCost(), b.getHCost());
-		});
-		_closedList = new HashSet<>();
 	}
 	
 	public final boolean lock()
@@ -101,16 +91,16 @@ public class NodeBuffer
 		_current.setHCost(getCost(x, y, z));
 		_current.calculateFCost();
 		
-		_openList.add(_current);
+		addToOpenList(_current);
 		
-		for (int count = 0; count < MAX_ITERATIONS; count++)
+		for (int count = 0; count < GeoEngineConfig.MAX_PATHFIND_ITERATIONS; count++)
 		{
-			if (_openList.isEmpty())
+			if (_openListSize == 0)
 			{
 				return null; // No path found.
 			}
 			
-			_current = _openList.poll();
+			_current = pollOpenList();
 			
 			// Check if we reached the target.
 			if ((_current.getLocation().getNodeX() == _targetX) && (_current.getLocation().getNodeY() == _targetY) && (Math.abs(_current.getLocation().getZ() - _targetZ) < 64))
@@ -118,7 +108,7 @@ public class NodeBuffer
 				return _current; // Found target.
 			}
 			
-			_closedList.add(_current);
+			_current.setClosed();
 			
 			// Get and process neighbors.
 			getNeighbors();
@@ -130,21 +120,15 @@ public class NodeBuffer
 	public void free()
 	{
 		_current = null;
-		_openList.clear();
-		_closedList.clear();
+		Arrays.fill(_openList, 0, _openListSize, null);
+		_openListSize = 0;
 		
-		GeoNode node;
-		for (int i = 0; i < _mapSize; i++)
+		for (int i = 0; i < _usedNodesSize; i++)
 		{
-			for (int j = 0; j < _mapSize; j++)
-			{
-				node = _buffer[i][j];
-				if (node != null)
-				{
-					node.free();
-				}
-			}
+			_usedNodes[i].free();
+			_usedNodes[i] = null;
 		}
+		_usedNodesSize = 0;
 		
 		_lock.unlock();
 	}
@@ -242,9 +226,11 @@ public class NodeBuffer
 		{
 			result = new GeoNode(new GeoLocation(x, y, z));
 			_buffer[aX][aY] = result;
+			addUsedNode(result);
 		}
 		else if (!result.isInUse())
 		{
+			addUsedNode(result);
 			result.setInUse();
 			
 			// Re-init node if needed.
@@ -282,7 +268,7 @@ public class NodeBuffer
 		}
 		
 		// Skip if already in closed list.
-		if (_closedList.contains(newNode))
+		if (newNode.isClosed())
 		{
 			return newNode;
 		}
@@ -305,7 +291,7 @@ public class NodeBuffer
 		final double newGCost = _current.getGCost() + weight;
 		
 		// Check if this node is already in open list.
-		final boolean inOpenList = _openList.contains(newNode);
+		final boolean inOpenList = newNode.getHeapIndex() >= 0;
 		
 		// If not in open list or we found a better path.
 		if (!inOpenList || (newGCost < newNode.getGCost()))
@@ -318,19 +304,119 @@ public class NodeBuffer
 			
 			if (!inOpenList)
 			{
-				_openList.add(newNode);
+				addToOpenList(newNode);
 			}
 			else
 			{
-				// Update position in priority queue.
-				_openList.remove(newNode);
-				_openList.add(newNode);
+				// Update position in priority queue, the cost can only decrease.
+				siftUp(newNode.getHeapIndex());
 			}
 		}
 		
 		return newNode;
 	}
 	
+	private void addUsedNode(GeoNode node)
+	{
+		if (_usedNodesSize == _usedNodes.length)
+		{
+			_usedNodes = Arrays.copyOf(_usedNodes, _usedNodesSize * 2);
+		}
+		_usedNodes[_usedNodesSize++] = node;
+	}
+	
+	private void addToOpenList(GeoNode node)
+	{
+		if (_openListSize == _openList.length)
+		{
+			_openList = Arrays.copyOf(_openList, _openListSize * 2);
+		}
+		_openList[_openListSize] = node;
+		node.setHeapIndex(_openListSize);
+		siftUp(_openListSize++);
+	}
+	
+	private GeoNode pollOpenList()
+	{
+		final GeoNode result = _openList[0];
+		result.setHeapIndex(-1);
+		
+		final GeoNode last = _openList[--_openListSize];
+		_openList[_openListSize] = null;
+		if (_openListSize > 0)
+		{
+			_openList[0] = last;
+			last.setHeapIndex(0);
+			siftDown(0);
+		}
+		
+		return result;
+	}
+	
+	private void siftUp(int index)
+	{
+		final GeoNode node = _openList[index];
+		int position = index;
+		int parentPosition;
+		GeoNode parent;
+		while (position > 0)
+		{
+			parentPosition = (position - 1) >>> 1;
+			parent = _openList[parentPosition];
+			if (!isBefore(node, parent))
+			{
+				break;
+			}
+			
+			_openList[position] = parent;
+			parent.setHeapIndex(position);
+			position = parentPosition;
+		}
+		
+		_openList[position] = node;
+		node.setHeapIndex(position);
+	}
+	
+	private void siftDown(int index)
+	{
+		final GeoNode node = _openList[index];
+		final int half = _openListSize >>> 1;
+		int position = index;
+		int childPosition;
+		GeoNode child;
+		while (position < half)
+		{
+			childPosition = (position << 1) + 1;
+			child = _openList[childPosition];
+			if (((childPosition + 1) < _openListSize) && isBefore(_openList[childPosition + 1], child))
+			{
+				child = _openList[++childPosition];
+			}
+			
+			if (!isBefore(child, node))
+			{
+				break;
+			}
+			
+			_openList[position] = child;
+			child.setHeapIndex(position);
+			position = childPosition;
+		}
+		
+		_openList[position] = node;
+		node.setHeapIndex(position);
+	}
+	
+	private static boolean isBefore(GeoNode a, GeoNode b)
+	{
+		if (a.getFCost() != b.getFCost())
+		{
+			return a.getFCost() < b.getFCost();
+		}
+		
+		return a.getHCost() < b.getHCost();
+	}
+	
 	private boolean isHighWeight(int x, int y, int z)
 	{
 		final GeoNode result = getNode(x, y, z);
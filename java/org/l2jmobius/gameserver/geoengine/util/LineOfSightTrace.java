@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.geoengine.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.l2jmobius.commons.threads.ThreadPool;
+
+/**
+ * Records line of sight queries, one "x y z targetX targetY targetZ" line per query.<br>
+ * Recorded traces replay the real query mix of a server against its geodata.
+ * @author Mobius
+ */
+public class LineOfSightTrace
+{
+	private static final Logger LOGGER = Logger.getLogger(LineOfSightTrace.class.getName());
+	
+	private static final int VALUES_PER_QUERY = 6;
+	
+	private final int[] _queries;
+	private final AtomicInteger _index = new AtomicInteger();
+	private final AtomicInteger _recorded = new AtomicInteger();
+	private final Consumer<LineOfSightTrace> _onComplete;
+	
+	/**
+	 * @param queries the number of queries to record
+	 * @param onComplete called once, outside the recording thread, when all queries are recorded
+	 */
+	public LineOfSightTrace(int queries, Consumer<LineOfSightTrace> onComplete)
+	{
+		_queries = new int[Math.max(1, queries) * VALUES_PER_QUERY];
+		_onComplete = onComplete;
+	}
+	
+	public void add(int x, int y, int z, int targetX, int targetY, int targetZ)
+	{
+		final int offset = _index.getAndAdd(VALUES_PER_QUERY);
+		if (offset >= _queries.length)
+		{
+			return;
+		}
+		
+		_queries[offset] = x;
+		_queries[offset + 1] = y;
+		_queries[offset + 2] = z;
+		_queries[offset + 3] = targetX;
+		_queries[offset + 4] = targetY;
+		_queries[offset + 5] = targetZ;
+		
+		if (_recorded.addAndGet(VALUES_PER_QUERY) == _queries.length)
+		{
+			ThreadPool.execute(() -> _onComplete.accept(this));
+		}
+	}
+	
+	public void save(Path file)
+	{
+		try
+		{
+			if (file.getParent() != null)
+			{
+				Files.createDirectories(file.getParent());
+			}
+			
+			try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+			{
+				for (int offset = 0; offset < _queries.length; offset += VALUES_PER_QUERY)
+				{
+					writer.write(_queries[offset] + " " + _queries[offset + 1] + " " + _queries[offset + 2] + " " + _queries[offset + 3] + " " + _queries[offset + 4] + " " + _queries[offset + 5]);
+					writer.newLine();
+				}
+			}
+			
+			LOGGER.info(getClass().getSimpleName() + ": Saved " + (_queries.length / VALUES_PER_QUERY) + " queries to " + file + ".");
+		}
+		catch (IOException e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not save " + file + ".", e);
+		}
+	}
+	
+	/**
+	 * @param file a trace saved by {@link #save(Path)}
+	 * @return the recorded queries, six values per query
+	 * @throws IOException if the file cannot be read
+	 */
+	public static int[] load(Path file) throws IOException
+	{
+		final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		final int[] queries = new int[lines.size() * VALUES_PER_QUERY];
+		int offset = 0;
+		for (String line : lines)
+		{
+			final String[] values = line.trim().split(" ");
+			if (values.length != VALUES_PER_QUERY)
+			{
+				continue;
+			}
+			
+			for (String value : values)
+			{
+				queries[offset++] = Integer.parseInt(value);
+			}
+		}
+		
+		return offset == queries.length ? queries : Arrays.copyOf(queries, offset);
+	}
+}
@@ -214,6 +214,7 @@ public class CastleManager
 				}
 			}
 			// else offline-player circlet removal
+			ItemPersistenceManager.getInstance().flush(member.getObjectId());
 			try (Connection con = DatabaseFactory.getConnection();
 				PreparedStatement ps = con.prepareStatement("DELETE FROM items WHERE owner_id = ? and item_id = ?"))
 			{
@@ -29,6 +29,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.time.TimeUtil;
 import org.l2jmobius.gameserver.config.AttendanceRewardsConfig;
@@ -393,6 +394,7 @@ public class DailyResetManager
 		}
 		
 		// Update data for offline players.
+		DatabaseWriteQueue.getInstance().flush();
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement ps = con.prepareStatement("UPDATE character_variables SET val = ? WHERE var = ? AND charId IN (SELECT charId FROM characters WHERE online = 0)"))
 		{
@@ -504,6 +506,7 @@ public class DailyResetManager
 			}
 			
 			// Update data for offline players.
+			DatabaseWriteQueue.getInstance().flush();
 			try (Connection con = DatabaseFactory.getConnection();
 				PreparedStatement ps = con.prepareStatement("DELETE FROM character_variables WHERE var IN (?, ?, ?) AND charId IN (SELECT charId FROM characters WHERE online = 0)"))
 			{
@@ -539,6 +542,7 @@ public class DailyResetManager
 			}
 			
 			// Update data for offline players.
+			DatabaseWriteQueue.getInstance().flush();
 			try (Connection con = DatabaseFactory.getConnection();
 				PreparedStatement ps = con.prepareStatement("DELETE FROM character_variables WHERE var IN (?, ?, ?) AND charId IN (SELECT charId FROM characters WHERE online = 0)"))
 			{
@@ -593,6 +597,7 @@ public class DailyResetManager
 		else
 		{
 			// Update data for offline players.
+			DatabaseWriteQueue.getInstance().flush();
 			try (Connection con = DatabaseFactory.getConnection())
 			{
 				try (PreparedStatement ps = con.prepareStatement("DELETE FROM character_variables WHERE var = ? AND charId IN (SELECT charId FROM characters WHERE online = 0)"))
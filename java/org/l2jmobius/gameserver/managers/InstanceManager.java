@@ -31,11 +31,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,7 +49,9 @@ import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.IXmlReader;
+import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.config.RatesConfig;
 import org.l2jmobius.gameserver.data.holders.InstanceReenterTimeHolder;
 import org.l2jmobius.gameserver.data.holders.StringStringHolder;
@@ -86,12 +93,27 @@ public class InstanceManager implements IXmlReader
 	private int _currentInstanceId = 0;
 	private final Map<Integer, Instance> _instanceWorlds = new ConcurrentHashMap<>();
 	
+	// Instance worlds of players, by player object id
+	private final Map<Integer, Instance> _playerWorlds = new ConcurrentHashMap<>();
+	private final Map<Integer, Set<Instance>> _allowedWorlds = new ConcurrentHashMap<>();
+	
+	// Instance pool
+	private final Map<InstanceTemplate, Queue<Instance>> _pooledWorlds = new ConcurrentHashMap<>();
+	private final Map<InstanceTemplate, AtomicInteger> _poolDemand = new ConcurrentHashMap<>(); // Worlds created since the last pool update.
+	private final Map<InstanceTemplate, Double> _poolRates = new ConcurrentHashMap<>(); // Average worlds created per pool update.
+	
 	// Player reenter times
 	private final Map<Integer, Map<Integer, Long>> _playerTimes = new ConcurrentHashMap<>();
 	
 	protected InstanceManager()
 	{
 		load();
+		
+		if (GeneralConfig.INSTANCE_POOL_SIZE > 0)
+		{
+			final long delay = GeneralConfig.INSTANCE_POOL_UPDATE_TIME * 1000L;
+			ThreadPool.scheduleAtFixedRate(this::updatePool, delay, delay);
+		}
 	}
 	
 	// --------------------------------------------------------------------
@@ -463,7 +485,7 @@ public class InstanceManager implements IXmlReader
 	 */
 	public Instance createInstance(InstanceTemplate template, Player player)
 	{
-		return (template != null) ? new Instance(getNewInstanceId(), template, player) : null;
+		return (template != null) ? createWorld(template, player) : null;
 	}
 	
 	/**
@@ -480,7 +502,100 @@ public class InstanceManager implements IXmlReader
 			return null;
 		}
 		
-		return new Instance(getNewInstanceId(), _instanceTemplates.get(id), player);
+		return createWorld(_instanceTemplates.get(id), player);
+	}
+	
+	/**
+	 * Start a ready world from the instance pool, or create a new one when the pool has none.
+	 * @param template template used for instance creation
+	 * @param player player who create instance
+	 * @return the started instance world
+	 */
+	private Instance createWorld(InstanceTemplate template, Player player)
+	{
+		if (GeneralConfig.INSTANCE_POOL_SIZE > 0)
+		{
+			_poolDemand.computeIfAbsent(template, _ -> new AtomicInteger()).incrementAndGet();
+			
+			final Queue<Instance> pool = _pooledWorlds.get(template);
+			if (pool != null)
+			{
+				Instance world;
+				while ((world = pool.poll()) != null)
+				{
+					// Skip worlds destroyed while waiting, by an admin for example.
+					if (_instanceWorlds.get(world.getId()) == world)
+					{
+						world.start(player);
+						ThreadPool.execute(() -> fillPool(template));
+						return world;
+					}
+				}
+			}
+		}
+		
+		return new Instance(getNewInstanceId(), template, player);
+	}
+	
+	/**
+	 * Update the demand of each pooled instance template and resize their pools to match it.
+	 */
+	private void updatePool()
+	{
+		final Set<InstanceTemplate> templates = new HashSet<>();
+		templates.addAll(_poolDemand.keySet());
+		templates.addAll(_poolRates.keySet());
+		templates.addAll(_pooledWorlds.keySet());
+		for (InstanceTemplate template : templates)
+		{
+			final AtomicInteger demand = _poolDemand.get(template);
+			final double rate = (_poolRates.getOrDefault(template, 0d) + (demand != null ? demand.getAndSet(0) : 0)) / 2;
+			
+			// Templates replaced by a reload or no longer in demand are not pooled.
+			if ((rate < 0.1) || (_instanceTemplates.get(template.getId()) != template))
+			{
+				_poolDemand.remove(template);
+				_poolRates.remove(template);
+			}
+			else
+			{
+				_poolRates.put(template, rate);
+			}
+			
+			fillPool(template);
+		}
+	}
+	
+	/**
+	 * Build or destroy ready worlds until the pool of the given template matches its recent demand.
+	 * @param template the instance template
+	 */
+	private void fillPool(InstanceTemplate template)
+	{
+		final Double rate = _poolRates.get(template);
+		int target = rate != null ? (int) Math.min(GeneralConfig.INSTANCE_POOL_SIZE, Math.ceil(rate)) : 0;
+		if (template.getMaxWorlds() != -1)
+		{
+			target = Math.min(target, template.getMaxWorlds());
+		}
+		
+		final Queue<Instance> pool = _pooledWorlds.computeIfAbsent(template, _ -> new ConcurrentLinkedQueue<>());
+		synchronized (pool)
+		{
+			while (pool.size() > target)
+			{
+				final Instance world = pool.poll();
+				if (world != null)
+				{
+					world.destroy();
+				}
+			}
+			
+			while (pool.size() < target)
+			{
+				pool.add(new Instance(getNewInstanceId(), template));
+			}
+		}
 	}
 	
 	/**
@@ -494,12 +609,21 @@ public class InstanceManager implements IXmlReader
 	}
 	
 	/**
-	 * Get all active instances.
+	 * Get all active instances.<br>
+	 * Ready worlds waiting in the instance pool are not included.
 	 * @return Collection of all instances
 	 */
 	public Collection<Instance> getInstances()
 	{
-		return _instanceWorlds.values();
+		final List<Instance> instances = new ArrayList<>(_instanceWorlds.size());
+		for (Instance instance : _instanceWorlds.values())
+		{
+			if (instance.isStarted())
+			{
+				instances.add(instance);
+			}
+		}
+		return instances;
 	}
 	
 	/**
@@ -510,27 +634,67 @@ public class InstanceManager implements IXmlReader
 	 */
 	public Instance getPlayerInstance(Player player, boolean isInside)
 	{
-		for (Instance instance : _instanceWorlds.values())
+		if (isInside)
 		{
-			if (isInside)
-			{
-				if (instance.containsPlayer(player))
-				{
-					return instance;
-				}
-			}
-			else
+			return _playerWorlds.get(player.getObjectId());
+		}
+		
+		final Set<Instance> worlds = _allowedWorlds.get(player.getObjectId());
+		if (worlds != null)
+		{
+			for (Instance instance : worlds)
 			{
-				if (instance.isAllowed(player))
-				{
-					return instance;
-				}
+				return instance;
 			}
 		}
 		
 		return null;
 	}
 	
+	/**
+	 * Index instance world where player is located.
+	 * @param player player who entered instance world
+	 * @param instance instance world
+	 */
+	public void addPlayerWorld(Player player, Instance instance)
+	{
+		_playerWorlds.put(player.getObjectId(), instance);
+	}
+	
+	/**
+	 * Remove instance world where player was located from index.
+	 * @param player player who left instance world
+	 * @param instance instance world
+	 */
+	public void removePlayerWorld(Player player, Instance instance)
+	{
+		_playerWorlds.remove(player.getObjectId(), instance);
+	}
+	
+	/**
+	 * Index instance world which player can enter.
+	 * @param objectId object id of player
+	 * @param instance instance world
+	 */
+	public void addAllowedWorld(int objectId, Instance instance)
+	{
+		_allowedWorlds.computeIfAbsent(objectId, _ -> ConcurrentHashMap.newKeySet()).add(instance);
+	}
+	
+	/**
+	 * Remove instance world which player could enter from index.
+	 * @param objectId object id of player
+	 * @param instance instance world
+	 */
+	public void removeAllowedWorld(int objectId, Instance instance)
+	{
+		_allowedWorlds.computeIfPresent(objectId, (_, worlds) ->
+		{
+			worlds.remove(instance);
+			return worlds.isEmpty() ? null : worlds;
+		});
+	}
+	
 	/**
 	 * Get ID for newly created instance.
 	 * @return instance id
@@ -758,7 +922,8 @@ public class InstanceManager implements IXmlReader
 	}
 	
 	/**
-	 * Get count of created instance worlds with same template ID.
+	 * Get count of created instance worlds with same template ID.<br>
+	 * Worlds waiting in the instance pool are not counted.
 	 * @param templateId template id of instance
 	 * @return count of created instances
 	 */
@@ -767,7 +932,7 @@ public class InstanceManager implements IXmlReader
 		long count = 0;
 		for (Instance i : _instanceWorlds.values())
 		{
-			if (i.getTemplateId() == templateId)
+			if ((i.getTemplateId() == templateId) && i.isStarted())
 			{
 				count++;
 			}
@@ -174,7 +174,15 @@ public class ItemManager
 			item.setLastChange(Item.REMOVED);
 			
 			World.getInstance().removeObject(item);
-			IdManager.getInstance().releaseId(item.getObjectId());
+			if (GeneralConfig.ITEMS_WRITE_BEHIND_INTERVAL > 0)
+			{
+				// The id is released once the removal is written.
+				ItemPersistenceManager.getInstance().remove(item);
+			}
+			else
+			{
+				IdManager.getInstance().releaseId(item.getObjectId());
+			}
 			
 			if ((process != null) && (process != ItemProcessType.NONE))
 			{
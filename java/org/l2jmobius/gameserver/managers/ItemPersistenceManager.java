@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.config.GeneralConfig;
+import org.l2jmobius.gameserver.model.item.instance.Item;
+
+/**
+ * Write-behind store for item database updates.<br>
+ * Non forced {@link Item#updateDatabase(boolean)} calls only mark the item as dirty. Dirty items are kept by identity and written periodically with {@link Item#updateDatabase(java.util.Collection, boolean)}, which groups them in one batch per table.<br>
+ * Since every write stores the current state of the item under its database lock, several updates of the same item always end with its latest state in the database.<br>
+ * The object id of a destroyed item is only released once its removal has been written, so a new item can never share a database row with a pending one.
+ * @author Mobius
+ */
+public class ItemPersistenceManager implements Runnable
+{
+	private static final Logger LOGGER = Logger.getLogger(ItemPersistenceManager.class.getName());
+	
+	private static final int MAX_ITEMS_PER_BATCH = 1000;
+	
+	private final Set<Item> _pendingItems = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<Item> _writingItems = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<Item> _removedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final AtomicLong _flushedItems = new AtomicLong();
+	private volatile long _lastFlushTime = 0;
+	
+	protected ItemPersistenceManager()
+	{
+	}
+	
+	@Override
+	public void run()
+	{
+		flush();
+	}
+	
+	/**
+	 * Marks an item as dirty, to be written by the next flush.
+	 * @param item the item to store
+	 */
+	public void add(Item item)
+	{
+		synchronized (_pendingItems)
+		{
+			_pendingItems.add(item);
+		}
+	}
+	
+	/**
+	 * Marks a destroyed item as dirty and keeps its object id until its removal is written.
+	 * @param item the destroyed item
+	 */
+	public void remove(Item item)
+	{
+		synchronized (_pendingItems)
+		{
+			_removedItems.add(item);
+			_pendingItems.add(item);
+		}
+	}
+	
+	/**
+	 * Synchronously writes all pending items.<br>
+	 * Used periodically, on shutdown and before statements that affect the items of several owners.
+	 */
+	public void flush()
+	{
+		final long startTime = System.currentTimeMillis();
+		int flushed = 0;
+		while (true)
+		{
+			final List<Item> batch;
+			synchronized (_pendingItems)
+			{
+				batch = take(_ -> true);
+				if (batch.isEmpty())
+				{
+					if (_writingItems.isEmpty())
+					{
+						break;
+					}
+					
+					// Wait for the writes of other flushes.
+					try
+					{
+						_pendingItems.wait();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						break;
+					}
+					continue;
+				}
+			}
+			
+			write(batch);
+			flushed += batch.size();
+		}
+		
+		if (flushed > 0)
+		{
+			_lastFlushTime = System.currentTimeMillis() - startTime;
+			LOGGER.fine(getClass().getSimpleName() + ": Stored " + flushed + " items in " + _lastFlushTime + " ms.");
+		}
+	}
+	
+	/**
+	 * Synchronously writes the pending items of an owner, including items it owned when they were last written.<br>
+	 * Used before the items of an owner are read back from the database, before they are changed by other statements and on player logout.
+	 * @param ownerId the owner object id
+	 */
+	public void flush(int ownerId)
+	{
+		final Predicate<Item> filter = item -> (item.getOwnerId() == ownerId) || (item.getStoredOwnerId() == ownerId);
+		while (true)
+		{
+			final List<Item> batch;
+			synchronized (_pendingItems)
+			{
+				// Wait for items of the owner taken by another flush.
+				while (contains(_writingItems, filter))
+				{
+					try
+					{
+						_pendingItems.wait();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+				
+				batch = take(filter);
+			}
+			
+			if (batch.isEmpty())
+			{
+				return;
+			}
+			
+			write(batch);
+		}
+	}
+	
+	private static boolean contains(Set<Item> items, Predicate<Item> filter)
+	{
+		for (Item item : items)
+		{
+			if (filter.test(item))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Moves up to {@link #MAX_ITEMS_PER_BATCH} pending items matching a filter to the items being written.<br>
+	 * Items still being written by another flush are left pending, so an item is never written by two flushes at once.
+	 * @param filter the condition of the items to take
+	 * @return the taken items
+	 */
+	private List<Item> take(Predicate<Item> filter)
+	{
+		final List<Item> batch = new ArrayList<>();
+		synchronized (_pendingItems)
+		{
+			final Iterator<Item> iterator = _pendingItems.iterator();
+			while (iterator.hasNext() && (batch.size() < MAX_ITEMS_PER_BATCH))
+			{
+				final Item item = iterator.next();
+				if (!_writingItems.contains(item) && filter.test(item))
+				{
+					iterator.remove();
+					_writingItems.add(item);
+					batch.add(item);
+				}
+			}
+		}
+		return batch;
+	}
+	
+	private void write(List<Item> batch)
+	{
+		try
+		{
+			Item.updateDatabase(batch, false);
+		}
+		finally
+		{
+			synchronized (_pendingItems)
+			{
+				for (Item item : batch)
+				{
+					_writingItems.remove(item);
+					
+					// A destroyed item marked dirty again may still have a database row.
+					if (!_pendingItems.contains(item) && _removedItems.remove(item))
+					{
+						IdManager.getInstance().releaseId(item.getObjectId());
+					}
+				}
+				_pendingItems.notifyAll();
+			}
+			_flushedItems.addAndGet(batch.size());
+		}
+	}
+	
+	/**
+	 * @return the number of items waiting to be written.
+	 */
+	public int getQueueSize()
+	{
+		synchronized (_pendingItems)
+		{
+			return _pendingItems.size();
+		}
+	}
+	
+	/**
+	 * @return the total number of items written by flushes.
+	 */
+	public long getFlushedItems()
+	{
+		return _flushedItems.get();
+	}
+	
+	/**
+	 * @return the time in milliseconds needed by the last flush.
+	 */
+	public long getLastFlushTime()
+	{
+		return _lastFlushTime;
+	}
+	
+	public static ItemPersistenceManager getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final ItemPersistenceManager INSTANCE = new ItemPersistenceManager();
+		
+		static
+		{
+			if (GeneralConfig.ITEMS_WRITE_BEHIND_INTERVAL > 0)
+			{
+				ThreadPool.scheduleAtFixedRate(INSTANCE, GeneralConfig.ITEMS_WRITE_BEHIND_INTERVAL, GeneralConfig.ITEMS_WRITE_BEHIND_INTERVAL);
+			}
+		}
+	}
+}
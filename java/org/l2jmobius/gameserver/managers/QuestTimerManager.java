@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.managers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.l2jmobius.gameserver.model.actor.Npc;
+import org.l2jmobius.gameserver.model.actor.Player;
+import org.l2jmobius.gameserver.model.script.Quest;
+import org.l2jmobius.gameserver.model.script.QuestTimer;
+
+/**
+ * Central registry of the running quest timers.<br>
+ * Timers are keyed by quest, name, npc and player, so starting, finding and cancelling one timer are constant time map operations.<br>
+ * Each timer is also indexed by its quest and name, its npc, its player and the instance of its npc, which allows cancelling all timers of any of them at once.<br>
+ * Timers are scheduled on the {@link org.l2jmobius.commons.threads.ThreadPool}, which fires them from its timing wheel when UseTimingWheel is enabled.
+ * @author Mobius
+ */
+public class QuestTimerManager
+{
+	private final Map<TimerKey, QuestTimer> _timers = new ConcurrentHashMap<>();
+	private final Map<Integer, Set<QuestTimer>> _instanceTimers = new ConcurrentHashMap<>();
+	
+	protected QuestTimerManager()
+	{
+	}
+	
+	/**
+	 * Starts a timer, unless a timer with the same quest, name, npc and player is already running.
+	 * @param quest the quest notified when the timer fires
+	 * @param name the name of the timer
+	 * @param time the delay, and the period of repeating timers, in milliseconds
+	 * @param npc the npc of the timer (can be null)
+	 * @param player the player of the timer (can be null)
+	 * @param repeating if {@code true}, the timer fires every {@code time} milliseconds until cancelled
+	 * @return {@code true} if the timer was started
+	 */
+	public boolean startTimer(Quest quest, String name, long time, Npc npc, Player player, boolean repeating)
+	{
+		final QuestTimer timer = new QuestTimer(quest, name, time, npc, player, repeating);
+		
+		// Indexes are updated while the key is locked, so a concurrent cancel of the same timer waits for them.
+		if (_timers.compute(new TimerKey(quest, name, npc, player), (_, existing) ->
+		{
+			if (existing != null)
+			{
+				return existing;
+			}
+			
+			addIndexes(timer);
+			return timer;
+		}) != timer)
+		{
+			return false;
+		}
+		
+		timer.schedule();
+		return true;
+	}
+	
+	/**
+	 * @param quest the quest of the timer
+	 * @param name the name of the timer
+	 * @param npc the npc of the timer (can be null)
+	 * @param player the player of the timer (can be null)
+	 * @return the running timer, or {@code null} if there is none
+	 */
+	public QuestTimer getTimer(Quest quest, String name, Npc npc, Player player)
+	{
+		return _timers.get(new TimerKey(quest, name, npc, player));
+	}
+	
+	/**
+	 * Cancels the timer with the specified quest, name, npc and player.
+	 * @param quest the quest of the timer
+	 * @param name the name of the timer
+	 * @param npc the npc of the timer (can be null)
+	 * @param player the player of the timer (can be null)
+	 */
+	public void cancelTimer(Quest quest, String name, Npc npc, Player player)
+	{
+		final QuestTimer timer = _timers.get(new TimerKey(quest, name, npc, player));
+		if (timer != null)
+		{
+			timer.cancel();
+		}
+	}
+	
+	/**
+	 * Cancels all timers of a quest.
+	 * @param quest the quest
+	 */
+	public void cancelTimers(Quest quest)
+	{
+		for (Set<QuestTimer> timers : quest.getQuestTimers().values())
+		{
+			cancelTimers(timers);
+		}
+	}
+	
+	/**
+	 * Cancels all timers of a npc.
+	 * @param npc the npc
+	 */
+	public void cancelTimers(Npc npc)
+	{
+		cancelTimers(npc.getQuestTimers());
+	}
+	
+	/**
+	 * Cancels all timers of a player.
+	 * @param player the player
+	 */
+	public void cancelTimers(Player player)
+	{
+		cancelTimers(player.getQuestTimers());
+	}
+	
+	/**
+	 * Cancels all timers of the npcs of an instance.
+	 * @param instanceId the instance id
+	 */
+	public void cancelInstanceTimers(int instanceId)
+	{
+		final Set<QuestTimer> timers = _instanceTimers.remove(instanceId);
+		if (timers != null)
+		{
+			cancelTimers(timers);
+		}
+	}
+	
+	private void cancelTimers(Collection<QuestTimer> timers)
+	{
+		// Cancelled timers remove themselves from the collection.
+		for (QuestTimer timer : new ArrayList<>(timers))
+		{
+			timer.cancel();
+		}
+	}
+	
+	/**
+	 * Removes a cancelled or finished timer from the registry and its indexes.<br>
+	 * Called by {@link QuestTimer#cancel()}.
+	 * @param timer the timer
+	 */
+	public void removeTimer(QuestTimer timer)
+	{
+		_timers.computeIfPresent(new TimerKey(timer.getQuest(), timer.toString(), timer.getNpc(), timer.getPlayer()), (_, existing) ->
+		{
+			if (existing != timer)
+			{
+				return existing;
+			}
+			
+			removeIndexes(timer);
+			return null;
+		});
+	}
+	
+	private void addIndexes(QuestTimer timer)
+	{
+		timer.getQuest().addQuestTimer(timer);
+		
+		if (timer.getNpc() != null)
+		{
+			timer.getNpc().addQuestTimer(timer);
+		}
+		
+		if (timer.getPlayer() != null)
+		{
+			timer.getPlayer().addQuestTimer(timer);
+		}
+		
+		final int instanceId = timer.getInstanceId();
+		if (instanceId > 0)
+		{
+			_instanceTimers.compute(instanceId, (_, timers) ->
+			{
+				final Set<QuestTimer> result = timers != null ? timers : ConcurrentHashMap.newKeySet();
+				result.add(timer);
+				return result;
+			});
+		}
+	}
+	
+	private void removeIndexes(QuestTimer timer)
+	{
+		timer.getQuest().removeQuestTimer(timer);
+		
+		if (timer.getNpc() != null)
+		{
+			timer.getNpc().removeQuestTimer(timer);
+		}
+		
+		if (timer.getPlayer() != null)
+		{
+			timer.getPlayer().removeQuestTimer(timer);
+		}
+		
+		final int instanceId = timer.getInstanceId();
+		if (instanceId > 0)
+		{
+			_instanceTimers.computeIfPresent(instanceId, (_, timers) ->
+			{
+				timers.remove(timer);
+				return timers.isEmpty() ? null : timers;
+			});
+		}
+	}
+	
+	/**
+	 * @return the number of running timers
+	 */
+	public int getTimerCount()
+	{
+		return _timers.size();
+	}
+	
+	/**
+	 * @return the number of running timers of each script, the busiest script first
+	 */
+	public Map<String, Integer> getTimerCounts()
+	{
+		final Map<String, Integer> counts = new HashMap<>();
+		for (QuestTimer timer : _timers.values())
+		{
+			counts.merge(timer.getQuest().getName(), 1, Integer::sum);
+		}
+		
+		final List<Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+		entries.sort(Entry.<String, Integer> comparingByValue().reversed());
+		
+		final Map<String, Integer> result = new LinkedHashMap<>();
+		for (Entry<String, Integer> entry : entries)
+		{
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+	
+	/**
+	 * Timers are equal when they belong to the same quest, npc and player instances and have the same name.
+	 */
+	private static class TimerKey
+	{
+		private final Quest _quest;
+		private final String _name;
+		private final Npc _npc;
+		private final Player _player;
+		private final int _hashCode;
+		
+		public TimerKey(Quest quest, String name, Npc npc, Player player)
+		{
+			_quest = quest;
+			_name = name;
+			_npc = npc;
+			_player = player;
+			_hashCode = (((((System.identityHashCode(quest) * 31) + name.hashCode()) * 31) + System.identityHashCode(npc)) * 31) + System.identityHashCode(player);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return _hashCode;
+		}
+		
+		@Override
+		public boolean equals(Object object)
+		{
+			if (this == object)
+			{
+				return true;
+			}
+			
+			if (!(object instanceof TimerKey))
+			{
+				return false;
+			}
+			
+			final TimerKey key = (TimerKey) object;
+			return (_quest == key._quest) && (_npc == key._npc) && (_player == key._player) && _name.equals(key._name);
+		}
+	}
+	
+	public static QuestTimerManager getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final QuestTimerManager INSTANCE = new QuestTimerManager();
+	}
+}
@@ -32,6 +32,7 @@ import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.gameserver.data.xml.SkillData;
 import org.l2jmobius.gameserver.managers.CursedWeaponsManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.model.actor.Attackable;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.Player;
@@ -118,6 +119,7 @@ public class CursedWeapon
 			{
 				// Remove from Db
 				LOGGER.info(_name + " being removed offline.");
+				ItemPersistenceManager.getInstance().flush(_playerId);
 				
 				try (Connection con = DatabaseFactory.getConnection();
 					PreparedStatement del = con.prepareStatement("DELETE FROM items WHERE owner_id=? AND item_id=?");
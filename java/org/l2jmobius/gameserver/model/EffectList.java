@@ -20,12 +20,15 @@
  */
 package org.l2jmobius.gameserver.model;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -104,6 +107,10 @@ public class EffectList
 	/** Delay task **/
 	private ScheduledFuture<?> _updateEffectIconTask;
 	private final AtomicBoolean _updateAbnormalStatus = new AtomicBoolean();
+	/** Incremented on every change of the active and passive effects, invalidating the effect index. */
+	private final AtomicInteger _modCount = new AtomicInteger();
+	/** Lookup structures of the active and passive effects, rebuilt on first use after a change. */
+	private volatile EffectIndex _index;
 	
 	/**
 	 * Constructor for effect list.
@@ -143,56 +150,29 @@ public class EffectList
 	
 	/**
 	 * Gets all the active positive effects on this effect list.
-	 * @return all the buffs on this effect list
+	 * @return an unmodifiable list of all the buffs on this effect list, in the order they were added
 	 */
 	public List<BuffInfo> getBuffs()
 	{
-		final List<BuffInfo> result = new LinkedList<>();
-		for (BuffInfo info : _actives)
-		{
-			if (info.getSkill().getBuffType().isBuff())
-			{
-				result.add(info);
-			}
-		}
-		
-		return result;
+		return getIndex()._buffs;
 	}
 	
 	/**
 	 * Gets all the active positive effects on this effect list.
-	 * @return all the dances songs on this effect list
+	 * @return an unmodifiable list of all the dances and songs on this effect list, in the order they were added
 	 */
 	public List<BuffInfo> getDances()
 	{
-		final List<BuffInfo> result = new LinkedList<>();
-		for (BuffInfo info : _actives)
-		{
-			if (info.getSkill().getBuffType().isDance())
-			{
-				result.add(info);
-			}
-		}
-		
-		return result;
+		return getIndex()._dances;
 	}
 	
 	/**
 	 * Gets all the active negative effects on this effect list.
-	 * @return all the debuffs on this effect list
+	 * @return an unmodifiable list of all the debuffs on this effect list, in the order they were added
 	 */
 	public List<BuffInfo> getDebuffs()
 	{
-		final List<BuffInfo> result = new LinkedList<>();
-		for (BuffInfo info : _actives)
-		{
-			if (info.getSkill().getBuffType().isDebuff())
-			{
-				result.add(info);
-			}
-		}
-		
-		return result;
+		return getIndex()._debuffs;
 	}
 	
 	/**
@@ -202,23 +182,7 @@ public class EffectList
 	 */
 	public boolean isAffectedBySkill(int skillId)
 	{
-		for (BuffInfo info : _actives)
-		{
-			if (info.getSkill().getId() == skillId)
-			{
-				return true;
-			}
-		}
-		
-		for (BuffInfo info : _passives)
-		{
-			if (info.getSkill().getId() == skillId)
-			{
-				return true;
-			}
-		}
-		
-		return false;
+		return getIndex().getBySkillId(skillId) != null;
 	}
 	
 	/**
@@ -228,23 +192,7 @@ public class EffectList
 	 */
 	public BuffInfo getBuffInfoBySkillId(int skillId)
 	{
-		for (BuffInfo info : _actives)
-		{
-			if (info.getSkill().getId() == skillId)
-			{
-				return info;
-			}
-		}
-		
-		for (BuffInfo info : _passives)
-		{
-			if (info.getSkill().getId() == skillId)
-			{
-				return info;
-			}
-		}
-		
-		return null;
+		return getIndex().getBySkillId(skillId);
 	}
 	
 	/**
@@ -284,9 +232,9 @@ public class EffectList
 	{
 		if (hasAbnormalType(type))
 		{
-			for (BuffInfo info : _actives)
+			for (BuffInfo info : getIndex().getByAbnormalType(type))
 			{
-				if (info.isAbnormalType(type) && filter.test(info))
+				if (filter.test(info))
 				{
 					return true;
 				}
@@ -306,12 +254,10 @@ public class EffectList
 	{
 		if (hasAbnormalType(type))
 		{
-			for (BuffInfo info : _actives)
+			final BuffInfo[] infos = getIndex().getByAbnormalType(type);
+			if (infos.length > 0)
 			{
-				if (info.isAbnormalType(type))
-				{
-					return info;
-				}
+				return infos[0];
 			}
 		}
 		
@@ -853,6 +799,7 @@ public class EffectList
 		{
 			// Removes the buff from the given effect list.
 			_actives.remove(info);
+			_modCount.incrementAndGet();
 			
 			// Remove short buff.
 			if (info == _shortBuff)
@@ -874,6 +821,7 @@ public class EffectList
 		if (!_passives.isEmpty())
 		{
 			_passives.remove(info);
+			_modCount.incrementAndGet();
 			info.stopAllEffects(type);
 		}
 	}
@@ -1045,6 +993,7 @@ public class EffectList
 		// After removing old buff (same ID) or stacked buff (same abnormal type),
 		// Add the buff to the end of the effect list.
 		_actives.add(info);
+		_modCount.incrementAndGet();
 		
 		// Initialize effects.
 		info.initializeEffects();
@@ -1071,6 +1020,7 @@ public class EffectList
 		}
 		
 		_passives.add(info);
+		_modCount.incrementAndGet();
 		
 		// Initialize effects.
 		info.initializeEffects();
@@ -1354,4 +1304,140 @@ public class EffectList
 	{
 		return (_effectFlags & flag.getMask()) != 0;
 	}
+	
+	/**
+	 * Gets the lookup structures of the current active and passive effects, building them if the effects changed since they were last built.
+	 * @return the effect index
+	 */
+	private EffectIndex getIndex()
+	{
+		final int modCount = _modCount.get();
+		EffectIndex index = _index;
+		if ((index == null) || (index._modCount != modCount))
+		{
+			index = new EffectIndex(modCount, _actives, _passives);
+			_index = index;
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Immutable lookup structures of the effects, so readers need neither locks nor iterations.<br>
+	 * Skills and abnormal types are found in open addressing tables keyed by skill ID and {@code AbnormalType} ordinal.<br>
+	 * Lookups return the first matching effect in the order of the effect list, active effects before passives.
+	 */
+	private static class EffectIndex
+	{
+		private static final BuffInfo[] EMPTY = new BuffInfo[0];
+		
+		private final int _modCount;
+		private final List<BuffInfo> _buffs;
+		private final List<BuffInfo> _dances;
+		private final List<BuffInfo> _debuffs;
+		private final int[] _skillIds;
+		private final BuffInfo[] _skillInfos;
+		private final int[] _abnormalTypes;
+		private final BuffInfo[][] _abnormalInfos;
+		
+		public EffectIndex(int modCount, Collection<BuffInfo> actives, Collection<BuffInfo> passives)
+		{
+			_modCount = modCount;
+			
+			final List<BuffInfo> buffs = new ArrayList<>();
+			final List<BuffInfo> dances = new ArrayList<>();
+			final List<BuffInfo> debuffs = new ArrayList<>();
+			final Map<AbnormalType, List<BuffInfo>> abnormals = new HashMap<>();
+			final List<BuffInfo> skillInfos = new ArrayList<>(actives.size() + passives.size());
+			for (BuffInfo info : actives)
+			{
+				final Skill skill = info.getSkill();
+				final SkillBuffType buffType = skill.getBuffType();
+				if (buffType.isBuff())
+				{
+					buffs.add(info);
+				}
+				else if (buffType.isDance())
+				{
+					dances.add(info);
+				}
+				else if (buffType.isDebuff())
+				{
+					debuffs.add(info);
+				}
+				
+				abnormals.computeIfAbsent(skill.getAbnormalType(), _ -> new ArrayList<>(1)).add(info);
+				skillInfos.add(info);
+			}
+			
+			skillInfos.addAll(passives);
+			
+			_buffs = Collections.unmodifiableList(buffs);
+			_dances = Collections.unmodifiableList(dances);
+			_debuffs = Collections.unmodifiableList(debuffs);
+			
+			_skillIds = new int[tableSize(skillInfos.size())];
+			_skillInfos = new BuffInfo[_skillIds.length];
+			for (BuffInfo info : skillInfos)
+			{
+				final int slot = findSlot(_skillIds, _skillInfos, info.getSkill().getId());
+				if (_skillInfos[slot] == null)
+				{
+					_skillIds[slot] = info.getSkill().getId();
+					_skillInfos[slot] = info;
+				}
+			}
+			
+			_abnormalTypes = new int[tableSize(abnormals.size())];
+			_abnormalInfos = new BuffInfo[_abnormalTypes.length][];
+			for (Entry<AbnormalType, List<BuffInfo>> entry : abnormals.entrySet())
+			{
+				final int slot = findSlot(_abnormalTypes, _abnormalInfos, entry.getKey().ordinal());
+				_abnormalTypes[slot] = entry.getKey().ordinal();
+				_abnormalInfos[slot] = entry.getValue().toArray(EMPTY);
+			}
+		}
+		
+		/**
+		 * @param size the number of keys
+		 * @return a power of two table size keeping the table at most half full
+		 */
+		private static int tableSize(int size)
+		{
+			return Integer.highestOneBit(Math.max(1, size) * 2) << 1;
+		}
+		
+		/**
+		 * @param keys the keys of the table
+		 * @param values the values of the table, where {@code null} marks a free slot
+		 * @param key the key to find
+		 * @return the slot of the key, or the free slot where it should be added
+		 */
+		private static int findSlot(int[] keys, Object[] values, int key)
+		{
+			final int mask = keys.length - 1;
+			int slot = (key * 0x9E3779B9) >>> 16;
+			while (true)
+			{
+				slot &= mask;
+				if ((values[slot] == null) || (keys[slot] == key))
+				{
+					return slot;
+				}
+				
+				slot++;
+			}
+		}
+		
+		public BuffInfo getBySkillId(int skillId)
+		{
+			return _skillInfos[findSlot(_skillIds, _skillInfos, skillId)];
+		}
+		
+		public BuffInfo[] getByAbnormalType(AbnormalType type)
+		{
+			final BuffInfo[] infos = _abnormalInfos[findSlot(_abnormalTypes, _abnormalInfos, type.ordinal())];
+			return infos == null ? EMPTY : infos;
+		}
+	}
 }
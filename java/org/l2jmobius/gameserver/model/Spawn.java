@@ -28,6 +28,7 @@ import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.gameserver.config.custom.RandomSpawnsConfig;
 import org.l2jmobius.gameserver.data.xml.NpcData;
 import org.l2jmobius.gameserver.geoengine.GeoEngine;
+import org.l2jmobius.gameserver.managers.IdManager;
 import org.l2jmobius.gameserver.managers.WalkingManager;
 import org.l2jmobius.gameserver.managers.ZoneManager;
 import org.l2jmobius.gameserver.model.actor.Npc;
@@ -76,6 +77,8 @@ public class Spawn extends Location
 	private final Deque<Npc> _spawnedNpcs = new ConcurrentLinkedDeque<>();
 	private boolean _randomWalk = false; // Is no random walk
 	private NpcSpawnTemplate _spawnTemplate;
+	/** The world region this spawn is anchored to when its Npc only exists while players are nearby. */
+	private WorldRegion _dormantRegion;
 	
 	/**
 	 * Constructor of Spawn.<br>
@@ -253,12 +256,16 @@ public class Spawn extends Location
 			return;
 		}
 		
+		// Remove this NPC from list of spawned
+		if (!_spawnedNpcs.remove(oldNpc) && (_dormantRegion != null))
+		{
+			// Already released when the dormant spawn was reclaimed.
+			return;
+		}
+		
 		// Decrease the current number of Npc of this Spawn
 		_currentCount--;
 		
-		// Remove this NPC from list of spawned
-		_spawnedNpcs.remove(oldNpc);
-		
 		// Check if respawn is possible to prevent multiple respawning caused by lag
 		if (_doRespawn && ((_scheduledCount + _currentCount) < _maximumCount))
 		{
@@ -574,22 +581,102 @@ public class Spawn extends Location
 		return _spawnedNpcs;
 	}
 	
-	public void respawnNpc(Npc oldNpc)
+	public synchronized void respawnNpc(Npc oldNpc)
 	{
 		if (_doRespawn)
 		{
-			// oldNpc.refreshID();
-			initializeNpc(oldNpc);
+			// Dormant spawns far from players are materialized again when their region activates.
+			if ((_dormantRegion != null) && !_dormantRegion.areNeighborsActive())
+			{
+				releaseNpc(oldNpc);
+			}
+			else
+			{
+				// oldNpc.refreshID();
+				initializeNpc(oldNpc);
+				
+				// Register NPC back to instance world.
+				final Instance instance = oldNpc.getInstanceWorld();
+				if (instance != null)
+				{
+					instance.addNpc(oldNpc);
+				}
+			}
+		}
+		
+		_scheduledCount--;
+	}
+	
+	/**
+	 * Anchors this spawn to a world region, so that its Npc is only created while the region or one of its neighbors is active.
+	 * @param region the world region containing the spawn location
+	 */
+	public void setDormantRegion(WorldRegion region)
+	{
+		_dormantRegion = region;
+	}
+	
+	/**
+	 * @return the world region this dormant spawn is anchored to, or {@code null} if its Npc always exists
+	 */
+	public WorldRegion getDormantRegion()
+	{
+		return _dormantRegion;
+	}
+	
+	/**
+	 * Creates the Npc of this dormant spawn, unless it is already alive, waiting for its respawn or respawn has been stopped.
+	 */
+	public synchronized void materialize()
+	{
+		if (!_doRespawn || ((_currentCount + _scheduledCount) >= _maximumCount))
+		{
+			return;
+		}
+		
+		final Npc npc = doSpawn(false);
+		if ((npc != null) && (_spawnTemplate != null))
+		{
+			_spawnTemplate.getSpawnedNpcs().add(npc);
+		}
+	}
+	
+	/**
+	 * Deletes the idle Npcs of this dormant spawn, keeping only this spawn as a record of them.<br>
+	 * Dead Npcs keep their respawn task and Npcs that are fighting or standing in an active region are left untouched.
+	 */
+	public synchronized void dematerialize()
+	{
+		for (Npc npc : _spawnedNpcs)
+		{
+			if (npc.isDead() || npc.isInCombat())
+			{
+				continue;
+			}
 			
-			// Register NPC back to instance world.
-			final Instance instance = oldNpc.getInstanceWorld();
-			if (instance != null)
+			final WorldRegion region = npc.getWorldRegion();
+			if ((region != null) && region.areNeighborsActive())
 			{
-				instance.addNpc(oldNpc);
+				continue;
 			}
+			
+			_spawnedNpcs.remove(npc);
+			_currentCount--;
+			npc.deleteMe();
+			releaseNpc(npc);
 		}
 	}
 	
+	private void releaseNpc(Npc npc)
+	{
+		if (_spawnTemplate != null)
+		{
+			_spawnTemplate.getSpawnedNpcs().remove(npc);
+		}
+		
+		IdManager.getInstance().releaseId(npc.getObjectId());
+	}
+	
 	public NpcTemplate getTemplate()
 	{
 		return _template;
@@ -23,7 +23,6 @@ package org.l2jmobius.gameserver.model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -624,14 +623,14 @@ public class World
 	
 	public <T extends WorldObject> List<T> getVisibleObjects(WorldObject object, Class<T> clazz)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObject(object, clazz, result::add);
 		return result;
 	}
 	
 	public <T extends WorldObject> List<T> getVisibleObjects(WorldObject object, Class<T> clazz, Predicate<T> predicate)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObject(object, clazz, o ->
 		{
 			if (predicate.test(o))
@@ -659,7 +658,7 @@ public class World
 		final WorldRegion[] surroundingRegions = worldRegion.getSurroundingRegions();
 		for (int i = 0; i < surroundingRegions.length; i++)
 		{
-			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
+			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects(clazz);
 			if (visibleObjects.isEmpty())
 			{
 				continue;
@@ -684,14 +683,14 @@ public class World
 	
 	public <T extends WorldObject> List<T> getVisibleObjectsInRange(WorldObject object, Class<T> clazz, int range)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObjectInRange(object, clazz, range, result::add);
 		return result;
 	}
 	
 	public <T extends WorldObject> List<T> getVisibleObjectsInRange(WorldObject object, Class<T> clazz, int range, Predicate<T> predicate)
 	{
-		final List<T> result = new LinkedList<>();
+		final List<T> result = new ArrayList<>();
 		forEachVisibleObjectInRange(object, clazz, range, o ->
 		{
 			if (predicate.test(o))
@@ -705,7 +704,7 @@ public class World
 	
 	public <T extends WorldObject> void forEachVisibleObjectInRange(WorldObject object, Class<T> clazz, int range, Consumer<T> c)
 	{
-		if (object == null)
+		if ((object == null) || (range < 0))
 		{
 			return;
 		}
@@ -716,15 +715,28 @@ public class World
 			return;
 		}
 		
+		final int x = object.getX();
+		final int y = object.getY();
+		final int z = object.getZ();
+		final long rangeSq = (long) range * range;
 		final WorldRegion[] surroundingRegions = worldRegion.getSurroundingRegions();
 		for (int i = 0; i < surroundingRegions.length; i++)
 		{
-			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
+			final WorldRegion region = surroundingRegions[i];
+			if (!region.isInRange(x, y, range))
+			{
+				continue;
+			}
+			
+			final Collection<WorldObject> visibleObjects = region.getVisibleObjects(clazz);
 			if (visibleObjects.isEmpty())
 			{
 				continue;
 			}
 			
+			long dx;
+			long dy;
+			long dz;
 			for (WorldObject wo : visibleObjects)
 			{
 				if ((wo == object) || !clazz.isInstance(wo))
@@ -737,7 +749,10 @@ public class World
 					continue;
 				}
 				
-				if (wo.calculateDistance3D(object) <= range)
+				dx = wo.getX() - x;
+				dy = wo.getY() - y;
+				dz = wo.getZ() - z;
+				if (((dx * dx) + (dy * dy) + (dz * dz)) <= rangeSq)
 				{
 					c.accept(clazz.cast(wo));
 				}
@@ -31,6 +31,9 @@ import org.l2jmobius.gameserver.ai.Intention;
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.config.NpcConfig;
 import org.l2jmobius.gameserver.model.actor.Attackable;
+import org.l2jmobius.gameserver.model.actor.Npc;
+import org.l2jmobius.gameserver.model.actor.Playable;
+import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.actor.instance.Door;
 import org.l2jmobius.gameserver.model.actor.instance.Fence;
 import org.l2jmobius.gameserver.taskmanagers.RandomAnimationTaskManager;
@@ -39,6 +42,11 @@ public class WorldRegion
 {
 	/** Set containing visible objects in this world region. */
 	private final Set<WorldObject> _visibleObjects = ConcurrentHashMap.newKeySet();
+	/** Sets containing the visible objects of this world region grouped by type, used to narrow range queries. */
+	private final Set<WorldObject> _playables = ConcurrentHashMap.newKeySet();
+	private final Set<WorldObject> _players = ConcurrentHashMap.newKeySet();
+	private final Set<WorldObject> _npcs = ConcurrentHashMap.newKeySet();
+	private final Set<WorldObject> _attackables = ConcurrentHashMap.newKeySet();
 	/** Set containing doors in this world region. */
 	private final Set<Door> _doors = ConcurrentHashMap.newKeySet();
 	/** Set containing fences in this world region. */
@@ -51,6 +59,9 @@ public class WorldRegion
 	private boolean _active = GeneralConfig.GRIDS_ALWAYS_ON;
 	private ScheduledFuture<?> _neighborsTask = null;
 	private final AtomicInteger _activeNeighbors = new AtomicInteger();
+	/** Set containing the dormant spawns anchored in this world region, materialized only while this region or a neighbor is active. */
+	private final Set<Spawn> _dormantSpawns = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger _neighborsDeactivations = new AtomicInteger();
 	
 	public WorldRegion(int regionX, int regionY)
 	{
@@ -135,12 +146,19 @@ public class WorldRegion
 	
 	public void incrementActiveNeighbors()
 	{
-		_activeNeighbors.incrementAndGet();
+		if ((_activeNeighbors.incrementAndGet() == 1) && !_dormantSpawns.isEmpty())
+		{
+			ThreadPool.execute(this::materializeDormantSpawns);
+		}
 	}
 	
 	public void decrementActiveNeighbors()
 	{
-		_activeNeighbors.decrementAndGet();
+		if ((_activeNeighbors.decrementAndGet() == 0) && !_dormantSpawns.isEmpty())
+		{
+			final int deactivation = _neighborsDeactivations.incrementAndGet();
+			ThreadPool.schedule(() -> reclaimDormantSpawns(deactivation), 1000L * GeneralConfig.DORMANT_SPAWN_GRACE_TIME);
+		}
 	}
 	
 	public boolean areNeighborsActive()
@@ -278,6 +296,23 @@ public class WorldRegion
 		
 		_visibleObjects.add(object);
 		
+		if (object instanceof Playable)
+		{
+			_playables.add(object);
+			if (object instanceof Player)
+			{
+				_players.add(object);
+			}
+		}
+		else if (object instanceof Npc)
+		{
+			_npcs.add(object);
+			if (object instanceof Attackable)
+			{
+				_attackables.add(object);
+			}
+		}
+		
 		if (object.isDoor())
 		{
 			for (int i = 0; i < _surroundingRegions.length; i++)
@@ -318,6 +353,17 @@ public class WorldRegion
 		
 		_visibleObjects.remove(object);
 		
+		if (object instanceof Playable)
+		{
+			_playables.remove(object);
+			_players.remove(object);
+		}
+		else if (object instanceof Npc)
+		{
+			_npcs.remove(object);
+			_attackables.remove(object);
+		}
+		
 		if (object.isDoor())
 		{
 			for (int i = 0; i < _surroundingRegions.length; i++)
@@ -344,6 +390,100 @@ public class WorldRegion
 		return _visibleObjects;
 	}
 	
+	/**
+	 * Returns the smallest set of visible objects in this world region that contains every object of the given type.<br>
+	 * Objects of the returned set still need to be checked against the requested type.
+	 * @param clazz the requested object type
+	 * @return the visible objects that may be instances of the given type
+	 */
+	public Collection<WorldObject> getVisibleObjects(Class<?> clazz)
+	{
+		if (Playable.class.isAssignableFrom(clazz))
+		{
+			return Player.class.isAssignableFrom(clazz) ? _players : _playables;
+		}
+		
+		if (Npc.class.isAssignableFrom(clazz))
+		{
+			return Attackable.class.isAssignableFrom(clazz) ? _attackables : _npcs;
+		}
+		
+		return _visibleObjects;
+	}
+	
+	/**
+	 * Checks if any part of this world region is within the given 2D range of a location.
+	 * @param x the X coordinate of the location
+	 * @param y the Y coordinate of the location
+	 * @param range the range
+	 * @return {@code true} if the region area overlaps the given range, {@code false} otherwise
+	 */
+	public boolean isInRange(int x, int y, int range)
+	{
+		final long minX = (long) (_regionX - World.OFFSET_X) << World.SHIFT_BY;
+		final long minY = (long) (_regionY - World.OFFSET_Y) << World.SHIFT_BY;
+		final long dx = Math.max(0, Math.max(minX - x, x - (minX + (1 << World.SHIFT_BY) - 1)));
+		final long dy = Math.max(0, Math.max(minY - y, y - (minY + (1 << World.SHIFT_BY) - 1)));
+		return ((dx * dx) + (dy * dy)) <= ((long) range * range);
+	}
+	
+	/**
+	 * Adds a dormant spawn anchored in this world region, materializing it right away when this region or a neighbor is active.
+	 * @param spawn the spawn to add
+	 */
+	public void addDormantSpawn(Spawn spawn)
+	{
+		spawn.setDormantRegion(this);
+		_dormantSpawns.add(spawn);
+		
+		if (areNeighborsActive())
+		{
+			spawn.materialize();
+		}
+	}
+	
+	public void removeDormantSpawn(Spawn spawn)
+	{
+		_dormantSpawns.remove(spawn);
+	}
+	
+	public Collection<Spawn> getDormantSpawns()
+	{
+		return _dormantSpawns;
+	}
+	
+	private void materializeDormantSpawns()
+	{
+		synchronized (_dormantSpawns)
+		{
+			if (areNeighborsActive())
+			{
+				for (Spawn spawn : _dormantSpawns)
+				{
+					spawn.materialize();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Reclaims the idle Npcs of the dormant spawns, unless a neighbor turned on again during the grace time.
+	 * @param deactivation the number of the neighbors deactivation that scheduled this reclaim
+	 */
+	private void reclaimDormantSpawns(int deactivation)
+	{
+		synchronized (_dormantSpawns)
+		{
+			if (!areNeighborsActive() && (_neighborsDeactivations.get() == deactivation))
+			{
+				for (Spawn spawn : _dormantSpawns)
+				{
+					spawn.dematerialize();
+				}
+			}
+		}
+	}
+	
 	public void addDoor(Door door)
 	{
 		_doors.add(door);
@@ -48,6 +48,7 @@ import org.l2jmobius.gameserver.managers.CastleManager;
 import org.l2jmobius.gameserver.managers.DatabaseSpawnManager;
 import org.l2jmobius.gameserver.managers.FortManager;
 import org.l2jmobius.gameserver.managers.ItemManager;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.managers.WalkingManager;
 import org.l2jmobius.gameserver.managers.ZoneManager;
 import org.l2jmobius.gameserver.model.Location;
@@ -184,7 +185,7 @@ public class Npc extends Creature
 	/** Contains information about local tax payments. */
 	private TaxZone _taxZone = null;
 	
-	private final List<QuestTimer> _questTimers = new ArrayList<>();
+	private final Set<QuestTimer> _questTimers = ConcurrentHashMap.newKeySet();
 	private final List<TimerHolder<?>> _timerHolders = new ArrayList<>();
 	
 	/**
@@ -2008,31 +2009,22 @@ public class Npc extends Creature
 	
 	public void addQuestTimer(QuestTimer questTimer)
 	{
-		synchronized (_questTimers)
-		{
-			_questTimers.add(questTimer);
-		}
+		_questTimers.add(questTimer);
 	}
 	
 	public void removeQuestTimer(QuestTimer questTimer)
 	{
-		synchronized (_questTimers)
-		{
-			_questTimers.remove(questTimer);
-		}
+		_questTimers.remove(questTimer);
+	}
+	
+	public Set<QuestTimer> getQuestTimers()
+	{
+		return _questTimers;
 	}
 	
 	public void stopQuestTimers()
 	{
-		synchronized (_questTimers)
-		{
-			for (QuestTimer timer : _questTimers)
-			{
-				timer.cancelTask();
-			}
-			
-			_questTimers.clear();
-		}
+		QuestTimerManager.getInstance().cancelTimers(this);
 	}
 	
 	public void addTimerHolder(TimerHolder<?> timer)
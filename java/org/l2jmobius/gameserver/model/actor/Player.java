@@ -120,11 +120,13 @@ import org.l2jmobius.gameserver.managers.FortManager;
 import org.l2jmobius.gameserver.managers.FortSiegeManager;
 import org.l2jmobius.gameserver.managers.IdManager;
 import org.l2jmobius.gameserver.managers.ItemManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.managers.ItemsOnGroundManager;
 import org.l2jmobius.gameserver.managers.MapRegionManager;
 import org.l2jmobius.gameserver.managers.MatchingRoomManager;
 import org.l2jmobius.gameserver.managers.MentorManager;
 import org.l2jmobius.gameserver.managers.PunishmentManager;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.managers.RecipeManager;
 import org.l2jmobius.gameserver.managers.ScriptManager;
 import org.l2jmobius.gameserver.managers.SellBuffsManager;
@@ -961,7 +963,7 @@ public class Player extends Playable
 	private Clan _clanOg;
 	private int _clanIdOg;
 	
-	private final List<QuestTimer> _questTimers = new ArrayList<>();
+	private final Set<QuestTimer> _questTimers = ConcurrentHashMap.newKeySet();
 	private final List<TimerHolder<?>> _timerHolders = new ArrayList<>();
 	
 	// Selling buffs system
@@ -7602,9 +7604,23 @@ public class Player extends Playable
 	 * Update Player stats in the characters table of the database.
 	 * @param storeActiveEffects
 	 */
-	public synchronized void store(boolean storeActiveEffects)
+	public void store(boolean storeActiveEffects)
 	{
-		storeCharBase();
+		store(storeActiveEffects, true);
+	}
+	
+	/**
+	 * Update Player stats in the characters table of the database.
+	 * @param storeActiveEffects
+	 * @param storeBase if {@code false} the characters table row is expected to be stored by the caller (see {@link #storeCharBase(Collection)}).
+	 */
+	private synchronized void store(boolean storeActiveEffects, boolean storeBase)
+	{
+		if (storeBase)
+		{
+			storeCharBase();
+		}
+		
 		storeCharSub();
 		storeEffect(storeActiveEffects);
 		storeItemReuseDelay();
@@ -7656,81 +7672,10 @@ public class Player extends Playable
 	
 	private void storeCharBase()
 	{
-		// Get the exp, level, and sp of base class to store in base table
-		final long exp = getStat().getBaseExp();
-		final int level = getStat().getBaseLevel();
-		final long sp = getStat().getBaseSp();
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement statement = con.prepareStatement(UPDATE_CHARACTER))
 		{
-			statement.setInt(1, level);
-			statement.setInt(2, getMaxHp());
-			statement.setDouble(3, getCurrentHp());
-			statement.setInt(4, getMaxCp());
-			statement.setDouble(5, getCurrentCp());
-			statement.setInt(6, getMaxMp());
-			statement.setDouble(7, getCurrentMp());
-			statement.setInt(8, _appearance.getFace());
-			statement.setInt(9, _appearance.getHairStyle());
-			statement.setInt(10, _appearance.getHairColor());
-			statement.setInt(11, _appearance.isFemale() ? 1 : 0);
-			statement.setInt(12, getHeading());
-			statement.setInt(13, _lastLoc != null ? _lastLoc.getX() : getX());
-			statement.setInt(14, _lastLoc != null ? _lastLoc.getY() : getY());
-			statement.setInt(15, _lastLoc != null ? _lastLoc.getZ() : getZ());
-			statement.setLong(16, exp);
-			statement.setLong(17, _expBeforeDeath);
-			statement.setLong(18, sp);
-			statement.setInt(19, getReputation());
-			statement.setInt(20, _fame);
-			statement.setInt(21, _raidbossPoints);
-			statement.setInt(22, _pvpKills);
-			statement.setInt(23, _pkKills);
-			statement.setInt(24, getOgClanId());
-			statement.setInt(25, getRace().ordinal());
-			statement.setInt(26, getPlayerClass().getId());
-			statement.setLong(27, _deleteTimer);
-			statement.setString(28, getTitle());
-			statement.setInt(29, _appearance.getTitleColor());
-			statement.setInt(30, isOnlineInt());
-			statement.setInt(31, _clanPrivileges.getMask());
-			statement.setInt(32, _wantsPeace);
-			statement.setInt(33, _baseClass);
-			long totalOnlineTime = _onlineTime;
-			if (_onlineBeginTime > 0)
-			{
-				totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
-			}
-			
-			statement.setLong(34, _offlineShopStart > 0 ? _onlineTime : totalOnlineTime);
-			statement.setInt(35, isNoble() ? 1 : 0);
-			statement.setInt(36, _powerGrade);
-			statement.setInt(37, _pledgeType);
-			statement.setInt(38, _lvlJoinedAcademy);
-			statement.setLong(39, _apprentice);
-			statement.setLong(40, _sponsor);
-			statement.setLong(41, _clanJoinExpiryTime);
-			statement.setLong(42, _clanCreateExpiryTime);
-			statement.setString(43, getName());
-			statement.setInt(44, _bookmarkslot);
-			statement.setInt(45, getStat().getBaseVitalityPoints());
-			statement.setString(46, _lang);
-			int factionId = 0;
-			if (_isGood)
-			{
-				factionId = 1;
-			}
-			
-			if (_isEvil)
-			{
-				factionId = 2;
-			}
-			
-			statement.setInt(47, factionId);
-			statement.setInt(48, _pcCafePoints);
-			statement.setInt(49, getTotalKills());
-			statement.setInt(50, getTotalDeaths());
-			statement.setInt(51, getObjectId());
+			setCharBaseParameters(statement);
 			statement.execute();
 		}
 		catch (Exception e)
@@ -7739,6 +7684,139 @@ public class Player extends Playable
 		}
 	}
 	
+	/**
+	 * Stores the characters table row of several players with a single batched statement inside one transaction.<br>
+	 * Each row is read while holding its player lock, but the lock is released before the batch is written, so rows of different players are not a single point in time snapshot.<br>
+	 * If the batch fails, the rows are stored one by one, so a single failing row does not discard the others.
+	 * @param players the players to store
+	 */
+	public static void storeCharBase(Collection<Player> players)
+	{
+		if (players.isEmpty())
+		{
+			return;
+		}
+		
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			final boolean autoCommit = con.getAutoCommit();
+			con.setAutoCommit(false);
+			try (PreparedStatement statement = con.prepareStatement(UPDATE_CHARACTER))
+			{
+				for (Player player : players)
+				{
+					synchronized (player)
+					{
+						player.setCharBaseParameters(statement);
+					}
+					
+					statement.addBatch();
+				}
+				
+				statement.executeBatch();
+				con.commit();
+				return;
+			}
+			catch (SQLException e)
+			{
+				con.rollback();
+				throw e;
+			}
+			finally
+			{
+				con.setAutoCommit(autoCommit);
+			}
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Could not store char base data of " + players.size() + " players, storing them one by one: " + e.getMessage(), e);
+		}
+		
+		for (Player player : players)
+		{
+			synchronized (player)
+			{
+				player.storeCharBase();
+			}
+		}
+	}
+	
+	private void setCharBaseParameters(PreparedStatement statement) throws SQLException
+	{
+		// Get the exp, level, and sp of base class to store in base table
+		final long exp = getStat().getBaseExp();
+		final int level = getStat().getBaseLevel();
+		final long sp = getStat().getBaseSp();
+		statement.setInt(1, level);
+		statement.setInt(2, getMaxHp());
+		statement.setDouble(3, getCurrentHp());
+		statement.setInt(4, getMaxCp());
+		statement.setDouble(5, getCurrentCp());
+		statement.setInt(6, getMaxMp());
+		statement.setDouble(7, getCurrentMp());
+		statement.setInt(8, _appearance.getFace());
+		statement.setInt(9, _appearance.getHairStyle());
+		statement.setInt(10, _appearance.getHairColor());
+		statement.setInt(11, _appearance.isFemale() ? 1 : 0);
+		statement.setInt(12, getHeading());
+		statement.setInt(13, _lastLoc != null ? _lastLoc.getX() : getX());
+		statement.setInt(14, _lastLoc != null ? _lastLoc.getY() : getY());
+		statement.setInt(15, _lastLoc != null ? _lastLoc.getZ() : getZ());
+		statement.setLong(16, exp);
+		statement.setLong(17, _expBeforeDeath);
+		statement.setLong(18, sp);
+		statement.setInt(19, getReputation());
+		statement.setInt(20, _fame);
+		statement.setInt(21, _raidbossPoints);
+		statement.setInt(22, _pvpKills);
+		statement.setInt(23, _pkKills);
+		statement.setInt(24, getOgClanId());
+		statement.setInt(25, getRace().ordinal());
+		statement.setInt(26, getPlayerClass().getId());
+		statement.setLong(27, _deleteTimer);
+		statement.setString(28, getTitle());
+		statement.setInt(29, _appearance.getTitleColor());
+		statement.setInt(30, isOnlineInt());
+		statement.setInt(31, _clanPrivileges.getMask());
+		statement.setInt(32, _wantsPeace);
+		statement.setInt(33, _baseClass);
+		long totalOnlineTime = _onlineTime;
+		if (_onlineBeginTime > 0)
+		{
+			totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
+		}
+		
+		statement.setLong(34, _offlineShopStart > 0 ? _onlineTime : totalOnlineTime);
+		statement.setInt(35, isNoble() ? 1 : 0);
+		statement.setInt(36, _powerGrade);
+		statement.setInt(37, _pledgeType);
+		statement.setInt(38, _lvlJoinedAcademy);
+		statement.setLong(39, _apprentice);
+		statement.setLong(40, _sponsor);
+		statement.setLong(41, _clanJoinExpiryTime);
+		statement.setLong(42, _clanCreateExpiryTime);
+		statement.setString(43, getName());
+		statement.setInt(44, _bookmarkslot);
+		statement.setInt(45, getStat().getBaseVitalityPoints());
+		statement.setString(46, _lang);
+		int factionId = 0;
+		if (_isGood)
+		{
+			factionId = 1;
+		}
+		
+		if (_isEvil)
+		{
+			factionId = 2;
+		}
+		
+		statement.setInt(47, factionId);
+		statement.setInt(48, _pcCafePoints);
+		statement.setInt(49, getTotalKills());
+		statement.setInt(50, getTotalDeaths());
+		statement.setInt(51, getObjectId());
+	}
+	
 	private void storeCharSub()
 	{
 		if (getTotalSubClasses() <= 0)
@@ -8717,7 +8795,15 @@ public class Player extends Playable
 	
 	public void autoSave()
 	{
-		storeMe();
+		autoSave(true);
+	}
+	
+	/**
+	 * @param storeBase if {@code false} the characters table row is expected to be stored by the caller (see {@link #storeCharBase(Collection)}).
+	 */
+	public void autoSave(boolean storeBase)
+	{
+		store(true, storeBase);
 		storeRecommendations();
 		
 		if (GeneralConfig.UPDATE_ITEMS_ON_CHAR_STORE)
@@ -12045,6 +12131,16 @@ public class Player extends Playable
 			LOGGER.log(Level.SEVERE, "deleteMe()", e);
 		}
 		
+		// Write the pending item updates of the player
+		try
+		{
+			ItemPersistenceManager.getInstance().flush(getObjectId());
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.SEVERE, "deleteMe()", e);
+		}
+		
 		if (isCursedWeaponEquipped())
 		{
 			try
@@ -15061,15 +15157,7 @@ public class Player extends Playable
 			_hennaRemoveSchedules.remove(entry.getKey());
 		}
 		
-		synchronized (_questTimers)
-		{
-			for (QuestTimer timer : _questTimers)
-			{
-				timer.cancelTask();
-			}
-			
-			_questTimers.clear();
-		}
+		QuestTimerManager.getInstance().cancelTimers(this);
 		
 		synchronized (_timerHolders)
 		{
@@ -15084,18 +15172,17 @@ public class Player extends Playable
 	
 	public void addQuestTimer(QuestTimer questTimer)
 	{
-		synchronized (_questTimers)
-		{
-			_questTimers.add(questTimer);
-		}
+		_questTimers.add(questTimer);
 	}
 	
 	public void removeQuestTimer(QuestTimer questTimer)
 	{
-		synchronized (_questTimers)
-		{
-			_questTimers.remove(questTimer);
-		}
+		_questTimers.remove(questTimer);
+	}
+	
+	public Set<QuestTimer> getQuestTimers()
+	{
+		return _questTimers;
 	}
 	
 	public void addTimerHolder(TimerHolder<?> timer)
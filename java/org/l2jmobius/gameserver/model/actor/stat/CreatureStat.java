@@ -20,8 +20,7 @@
  */
 package org.l2jmobius.gameserver.model.actor.stat;
 
-import java.util.Collections;
-import java.util.EnumMap;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,8 +64,21 @@ public class CreatureStat
 	private double _vampiricSum = 0;
 	private double _mpVampiricSum = 0;
 	
-	private final Map<Stat, Double> _statsAdd = new EnumMap<>(Stat.class);
-	private final Map<Stat, Double> _statsMul = new EnumMap<>(Stat.class);
+	/** Reset values of all stats indexed by ordinal, {@link Double#NaN} for stats without a value. */
+	private static final double[] RESET_ADD_VALUES = new double[Stat.NUM_STATS];
+	private static final double[] RESET_MUL_VALUES = new double[Stat.NUM_STATS];
+	static
+	{
+		for (Stat stat : Stat.values())
+		{
+			RESET_ADD_VALUES[stat.ordinal()] = stat.getResetAddValue() != 0 ? stat.getResetAddValue() : Double.NaN;
+			RESET_MUL_VALUES[stat.ordinal()] = stat.getResetMulValue() != 0 ? stat.getResetMulValue() : Double.NaN;
+		}
+	}
+	
+	/** Stat values indexed by ordinal, {@link Double#NaN} for stats without a value. */
+	private final double[] _statsAdd = RESET_ADD_VALUES.clone();
+	private final double[] _statsMul = RESET_MUL_VALUES.clone();
 	private final Map<Stat, Map<MoveType, Double>> _moveTypeStats = new ConcurrentHashMap<>();
 	private final Map<Integer, Double> _reuseStat = new ConcurrentHashMap<>();
 	private final Map<Integer, Double> _mpConsumeStat = new ConcurrentHashMap<>();
@@ -790,9 +802,11 @@ public class CreatureStat
 	 * @param stat
 	 * @param value
 	 */
-	public void mergeAdd(Stat stat, Double value)
+	public void mergeAdd(Stat stat, double value)
 	{
-		_statsAdd.merge(stat, value, stat::functionAdd);
+		final int index = stat.ordinal();
+		final double oldValue = _statsAdd[index];
+		_statsAdd[index] = Double.isNaN(oldValue) ? value : stat.functionAdd(oldValue, value);
 	}
 	
 	/**
@@ -800,9 +814,11 @@ public class CreatureStat
 	 * @param stat
 	 * @param value
 	 */
-	public void mergeMul(Stat stat, Double value)
+	public void mergeMul(Stat stat, double value)
 	{
-		_statsMul.merge(stat, value, stat::functionMul);
+		final int index = stat.ordinal();
+		final double oldValue = _statsMul[index];
+		_statsMul[index] = Double.isNaN(oldValue) ? value : stat.functionMul(oldValue, value);
 	}
 	
 	/**
@@ -824,8 +840,8 @@ public class CreatureStat
 		_lock.readLock().lock();
 		try
 		{
-			final Double val = _statsAdd.get(stat);
-			return val != null ? val.doubleValue() : defaultValue;
+			final double val = _statsAdd[stat.ordinal()];
+			return Double.isNaN(val) ? defaultValue : val;
 		}
 		finally
 		{
@@ -853,8 +869,8 @@ public class CreatureStat
 	 */
 	public double getAddValue(Stat stat, double defaultValue)
 	{
-		final Double val = _statsAdd.get(stat);
-		return val != null ? val.doubleValue() : defaultValue;
+		final double val = _statsAdd[stat.ordinal()];
+		return Double.isNaN(val) ? defaultValue : val;
 	}
 	
 	/**
@@ -876,8 +892,8 @@ public class CreatureStat
 		_lock.readLock().lock();
 		try
 		{
-			final Double val = _statsMul.get(stat);
-			return val != null ? val.doubleValue() : defaultValue;
+			final double val = _statsMul[stat.ordinal()];
+			return Double.isNaN(val) ? defaultValue : val;
 		}
 		finally
 		{
@@ -905,8 +921,8 @@ public class CreatureStat
 	 */
 	public double getMulValue(Stat stat, double defaultValue)
 	{
-		final Double val = _statsMul.get(stat);
-		return val != null ? val.doubleValue() : defaultValue;
+		final double val = _statsMul[stat.ordinal()];
+		return Double.isNaN(val) ? defaultValue : val;
 	}
 	
 	/**
@@ -932,24 +948,10 @@ public class CreatureStat
 	
 	protected void resetStats()
 	{
-		_statsAdd.clear();
-		_statsMul.clear();
+		System.arraycopy(RESET_ADD_VALUES, 0, _statsAdd, 0, Stat.NUM_STATS);
+		System.arraycopy(RESET_MUL_VALUES, 0, _statsMul, 0, Stat.NUM_STATS);
 		_vampiricSum = 0;
 		_mpVampiricSum = 0;
-		
-		// Initialize default values
-		for (Stat stat : Stat.values())
-		{
-			if (stat.getResetAddValue() != 0)
-			{
-				_statsAdd.put(stat, stat.getResetAddValue());
-			}
-			
-			if (stat.getResetMulValue() != 0)
-			{
-				_statsMul.put(stat, stat.getResetMulValue());
-			}
-		}
 	}
 	
 	/**
@@ -983,8 +985,8 @@ public class CreatureStat
 					_lock.writeLock().lock();
 					
 					// Copy old data before wiping it out.
-					final Map<Stat, Double> adds = !broadcastChanges ? Collections.emptyMap() : new EnumMap<>(_statsAdd);
-					final Map<Stat, Double> muls = !broadcastChanges ? Collections.emptyMap() : new EnumMap<>(_statsMul);
+					final double[] adds = !broadcastChanges ? null : _statsAdd.clone();
+					final double[] muls = !broadcastChanges ? null : _statsMul.clone();
 					
 					try
 					{
@@ -992,7 +994,7 @@ public class CreatureStat
 						resetStats();
 						
 						// Delayed pump effects.
-						final List<DelayedPumpHolder> delayedPumps = new LinkedList<>();
+						final List<DelayedPumpHolder> delayedPumps = new ArrayList<>();
 						
 						// Call pump to each effect.
 						for (BuffInfo info : _creature.getEffectList().getPassives())
@@ -1104,21 +1106,23 @@ public class CreatureStat
 					{
 						// Calculate the difference between old and new stats.
 						final Set<Stat> changed = EnumSet.noneOf(Stat.class);
-						Double statAddResetValue;
-						Double statMulResetValue;
-						Double statAddValue;
-						Double statMulValue;
-						Double addsValue;
-						Double mulsValue;
+						double statAddResetValue;
+						double statMulResetValue;
+						double statAddValue;
+						double statMulValue;
+						double addsValue;
+						double mulsValue;
+						int index;
 						for (Stat stat : Stat.values())
 						{
+							index = stat.ordinal();
 							statAddResetValue = stat.getResetAddValue();
 							statMulResetValue = stat.getResetMulValue();
-							addsValue = adds.getOrDefault(stat, statAddResetValue);
-							mulsValue = muls.getOrDefault(stat, statMulResetValue);
-							statAddValue = _statsAdd.getOrDefault(stat, statAddResetValue);
-							statMulValue = _statsMul.getOrDefault(stat, statMulResetValue);
-							if (addsValue.equals(statAddResetValue) || mulsValue.equals(statMulResetValue) || !addsValue.equals(statAddValue) || !mulsValue.equals(statMulValue))
+							addsValue = valueOrDefault(adds[index], statAddResetValue);
+							mulsValue = valueOrDefault(muls[index], statMulResetValue);
+							statAddValue = valueOrDefault(_statsAdd[index], statAddResetValue);
+							statMulValue = valueOrDefault(_statsMul[index], statMulResetValue);
+							if ((Double.compare(addsValue, statAddResetValue) == 0) || (Double.compare(mulsValue, statMulResetValue) == 0) || (Double.compare(addsValue, statAddValue) != 0) || (Double.compare(mulsValue, statMulValue) != 0))
 							{
 								changed.add(stat);
 							}
@@ -1133,6 +1137,11 @@ public class CreatureStat
 		}
 	}
 	
+	private static double valueOrDefault(double value, double defaultValue)
+	{
+		return Double.isNaN(value) ? defaultValue : value;
+	}
+	
 	protected void onRecalculateStats(boolean broadcast)
 	{
 		// Check if Max HP/MP/CP is lower than current due to new stats.
@@ -39,6 +39,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.commons.util.StringUtil;
 import org.l2jmobius.gameserver.communitybbs.BB.Forum;
@@ -1666,6 +1667,7 @@ public class Clan
 	
 	public void broadcastToOnlineAllyMembers(ServerPacket packet)
 	{
+		packet.sendInBroadcast();
 		for (Clan clan : ClanTable.getInstance().getClanAllies(getAllyId()))
 		{
 			clan.broadcastToOnlineMembers(packet);
@@ -1674,6 +1676,7 @@ public class Clan
 	
 	public void broadcastToOnlineMembers(ServerPacket packet)
 	{
+		packet.sendInBroadcast();
 		for (ClanMember member : _members.values())
 		{
 			if ((member != null) && member.isOnline())
@@ -1685,6 +1688,7 @@ public class Clan
 	
 	public void broadcastCSToOnlineMembers(CreatureSay packet, Player broadcaster)
 	{
+		packet.sendInBroadcast();
 		for (ClanMember member : _members.values())
 		{
 			if ((member != null) && member.isOnline() && !BlockList.isBlocked(member.getPlayer(), broadcaster))
@@ -1696,6 +1700,7 @@ public class Clan
 	
 	public void broadcastToOtherOnlineMembers(ServerPacket packet, Player player)
 	{
+		packet.sendInBroadcast();
 		for (ClanMember member : _members.values())
 		{
 			if ((member != null) && member.isOnline() && (member.getPlayer() != player))
@@ -3311,6 +3316,7 @@ public class Clan
 			}
 			else
 			{
+				DatabaseWriteQueue.getInstance().flush();
 				try (Connection con = DatabaseFactory.getConnection())
 				{
 					try (PreparedStatement ps = con.prepareStatement("DELETE FROM character_variables WHERE var=?"))
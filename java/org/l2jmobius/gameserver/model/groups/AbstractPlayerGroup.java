@@ -136,6 +136,7 @@ public abstract class AbstractPlayerGroup
 	 */
 	public void broadcastPacket(ServerPacket packet)
 	{
+		packet.sendInBroadcast();
 		forEachMember(m ->
 		{
 			if (m != null)
@@ -167,6 +168,7 @@ public abstract class AbstractPlayerGroup
 	
 	public void broadcastCreatureSay(CreatureSay msg, Player broadcaster)
 	{
+		msg.sendInBroadcast();
 		forEachMember(m ->
 		{
 			if ((m != null) && !BlockList.isBlocked(m, broadcaster))
@@ -277,6 +277,7 @@ public class Party extends AbstractPlayerGroup
 	 */
 	public void broadcastToPartyMembers(Player player, ServerPacket packet)
 	{
+		packet.sendInBroadcast();
 		for (Player member : _members)
 		{
 			if ((member != null) && (member.getObjectId() != player.getObjectId()))
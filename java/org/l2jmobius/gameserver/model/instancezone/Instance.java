@@ -39,6 +39,7 @@ import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.data.xml.DoorData;
 import org.l2jmobius.gameserver.managers.InstanceManager;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.model.Location;
 import org.l2jmobius.gameserver.model.StatSet;
 import org.l2jmobius.gameserver.model.World;
@@ -78,8 +79,9 @@ public class Instance
 	// Basic instance parameters
 	private final int _id;
 	private final InstanceTemplate _template;
-	private final long _startTime;
+	private long _startTime;
 	private long _endTime;
+	private volatile boolean _started;
 	
 	// Advanced instance parameters
 	private final Set<Integer> _allowed = ConcurrentHashMap.newKeySet(); // Player ids which can enter to instance
@@ -101,14 +103,26 @@ public class Instance
 	 * @param player player who create instance world.
 	 */
 	public Instance(int id, InstanceTemplate template, Player player)
+	{
+		this(id, template);
+		start(player);
+	}
+	
+	/**
+	 * Create instance world with its doors and default spawns, without starting it.<br>
+	 * Used by the instance pool to prepare worlds before players ask for them.
+	 * @param id ID of instance world
+	 * @param template template of instance world
+	 */
+	public Instance(int id, InstanceTemplate template)
 	{
 		// Set basic instance info
 		_id = id;
 		_template = template;
 		_startTime = System.currentTimeMillis();
-		_spawns = new ArrayList<>(template.getSpawns().size());
 		
 		// Clone and add the spawn templates
+		_spawns = new ArrayList<>(template.getSpawns().size());
 		for (SpawnTemplate spawn : template.getSpawns())
 		{
 			_spawns.add(spawn.clone());
@@ -117,8 +131,7 @@ public class Instance
 		// Register world to instance manager.
 		InstanceManager.getInstance().register(this);
 		
-		// Set duration, spawns, status, etc..
-		setDuration(_template.getDuration());
+		// Set status, spawns, etc..
 		setStatus(0);
 		spawnDoors();
 		
@@ -130,6 +143,17 @@ public class Instance
 				spawnTemplate.spawnAll(this);
 			}
 		}
+	}
+	
+	/**
+	 * Start instance world timers and notify scripts about its creation.
+	 * @param player player who create instance world
+	 */
+	public void start(Player player)
+	{
+		_startTime = System.currentTimeMillis();
+		_started = true;
+		setDuration(_template.getDuration());
 		
 		// Notify DP scripts
 		if (!isDynamic() && EventDispatcher.getInstance().hasListener(EventType.ON_INSTANCE_CREATED, _template))
@@ -138,6 +162,15 @@ public class Instance
 		}
 	}
 	
+	/**
+	 * Check if instance world has been started, or is still waiting in the instance pool.
+	 * @return {@code true} when instance is started, otherwise {@code false}
+	 */
+	public boolean isStarted()
+	{
+		return _started;
+	}
+	
 	public int getId()
 	{
 		return _id;
@@ -243,9 +276,9 @@ public class Instance
 	 */
 	public void addAllowed(Player player)
 	{
-		if (!_allowed.contains(player.getObjectId()))
+		if (_allowed.add(player.getObjectId()))
 		{
-			_allowed.add(player.getObjectId());
+			InstanceManager.getInstance().addAllowedWorld(player.getObjectId(), this);
 		}
 	}
 	
@@ -285,6 +318,7 @@ public class Instance
 	public void addPlayer(Player player)
 	{
 		_players.add(player);
+		InstanceManager.getInstance().addPlayerWorld(player, this);
 		if (_emptyDestroyTask != null)
 		{
 			_emptyDestroyTask.cancel(false);
@@ -299,6 +333,7 @@ public class Instance
 	public void removePlayer(Player player)
 	{
 		_players.remove(player);
+		InstanceManager.getInstance().removePlayerWorld(player, this);
 		if (_players.isEmpty())
 		{
 			final long emptyTime = _template.getEmptyDestroyTime();
@@ -797,7 +832,11 @@ public class Instance
 	 */
 	private void removePlayers()
 	{
-		_players.forEach(this::ejectPlayer);
+		_players.forEach(player ->
+		{
+			ejectPlayer(player);
+			InstanceManager.getInstance().removePlayerWorld(player, this);
+		});
 		_players.clear();
 	}
 	
@@ -896,7 +935,7 @@ public class Instance
 		_ejectDeadTasks.clear();
 		
 		// Notify DP scripts
-		if (!isDynamic() && EventDispatcher.getInstance().hasListener(EventType.ON_INSTANCE_DESTROY, _template))
+		if (_started && !isDynamic() && EventDispatcher.getInstance().hasListener(EventType.ON_INSTANCE_DESTROY, _template))
 		{
 			EventDispatcher.getInstance().notifyEvent(new OnInstanceDestroy(this), _template);
 		}
@@ -909,8 +948,17 @@ public class Instance
 		
 		removePlayers();
 		removeDoors();
+		
+		// Cancel the quest timers of all instance npcs at once.
+		QuestTimerManager.getInstance().cancelInstanceTimers(getId());
 		removeNpcs();
 		
+		// Remove from the allowed players index.
+		for (int playerId : _allowed)
+		{
+			InstanceManager.getInstance().removeAllowedWorld(playerId, this);
+		}
+		
 		InstanceManager.getInstance().unregister(getId());
 	}
 	
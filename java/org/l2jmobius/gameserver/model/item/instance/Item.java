@@ -29,6 +29,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,7 @@ import org.l2jmobius.gameserver.data.xml.OptionData;
 import org.l2jmobius.gameserver.geoengine.GeoEngine;
 import org.l2jmobius.gameserver.managers.CastleManager;
 import org.l2jmobius.gameserver.managers.IdManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.managers.ItemsOnGroundManager;
 import org.l2jmobius.gameserver.managers.SiegeGuardManager;
 import org.l2jmobius.gameserver.model.ArmorSet;
@@ -178,6 +180,17 @@ public class Item extends WorldObject
 	public static final int REMOVED = 3;
 	public static final int MODIFIED = 2;
 	
+	private static final String INSERT_ITEM = "INSERT INTO items (owner_id,item_id,count,loc,loc_data,enchant_level,object_id,custom_type1,custom_type2,mana_left,time) VALUES (?,?,?,?,?,?,?,?,?,?,?)";
+	private static final String UPDATE_ITEM = "UPDATE items SET owner_id=?,count=?,loc=?,loc_data=?,enchant_level=?,custom_type1=?,custom_type2=?,mana_left=?,time=? WHERE object_id = ?";
+	private static final String[] DELETE_ITEM =
+	{
+		"DELETE FROM items WHERE object_id = ?",
+		"DELETE FROM item_variations WHERE itemId = ?",
+		"DELETE FROM item_elementals WHERE itemId = ?",
+		"DELETE FROM item_special_abilities WHERE objectId = ?",
+		"DELETE FROM item_variables WHERE id = ?"
+	};
+	
 	// @formatter:off
 	public static final int[] DEFAULT_ENCHANT_OPTIONS = { 0, 0, 0 };
 	// @formatter:on
@@ -185,6 +198,7 @@ public class Item extends WorldObject
 	private int _lastChange = 2; // 1 ??, 2 modified, 3 removed
 	private boolean _existsInDb; // if a record exists in DB.
 	private boolean _storedInDb; // if DB data is up-to-date.
+	private int _storedOwnerId; // owner of the DB record.
 	
 	private final ReentrantLock _dbLock = new ReentrantLock();
 	
@@ -259,6 +273,7 @@ public class Item extends WorldObject
 		this(rs.getInt("object_id"), ItemData.getInstance().getTemplate(rs.getInt("item_id")));
 		_count = rs.getLong("count");
 		_ownerId = rs.getInt("owner_id");
+		_storedOwnerId = _ownerId;
 		_loc = ItemLocation.valueOf(rs.getString("loc"));
 		_locData = rs.getInt("loc_data");
 		_enchantLevel = rs.getInt("enchant_level");
@@ -417,6 +432,14 @@ public class Item extends WorldObject
 		return _ownerId;
 	}
 	
+	/**
+	 * @return the owner id of the database record of the item, as of its last write.
+	 */
+	public int getStoredOwnerId()
+	{
+		return _storedOwnerId;
+	}
+	
 	/**
 	 * Sets the location of the item
 	 * @param loc : ItemLocation (enumeration)
@@ -1593,13 +1616,19 @@ public class Item extends WorldObject
 	 */
 	public void updateDatabase(boolean force)
 	{
+		if (!force && (GeneralConfig.ITEMS_WRITE_BEHIND_INTERVAL > 0))
+		{
+			ItemPersistenceManager.getInstance().add(this);
+			return;
+		}
+		
 		_dbLock.lock();
 		
 		try
 		{
 			if (_existsInDb)
 			{
-				if ((_ownerId == 0) || (_loc == ItemLocation.VOID) || (_loc == ItemLocation.REFUND) || ((_count == 0) && (_loc != ItemLocation.LEASE)))
+				if (isRemovedFromDb())
 				{
 					removeFromDb();
 				}
@@ -1610,7 +1639,7 @@ public class Item extends WorldObject
 			}
 			else
 			{
-				if ((_ownerId == 0) || (_loc == ItemLocation.VOID) || (_loc == ItemLocation.REFUND) || ((_count == 0) && (_loc != ItemLocation.LEASE)))
+				if (isRemovedFromDb())
 				{
 					return;
 				}
@@ -1702,33 +1731,15 @@ public class Item extends WorldObject
 		}
 		
 		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE items SET owner_id=?,count=?,loc=?,loc_data=?,enchant_level=?,custom_type1=?,custom_type2=?,mana_left=?,time=? WHERE object_id = ?"))
-		{
-			ps.setInt(1, _ownerId);
-			ps.setLong(2, _count);
-			ps.setString(3, _loc.name());
-			ps.setInt(4, _locData);
-			ps.setInt(5, _enchantLevel);
-			ps.setInt(6, _type1);
-			ps.setInt(7, _type2);
-			ps.setInt(8, _mana);
-			ps.setLong(9, _time);
-			ps.setInt(10, getObjectId());
+			PreparedStatement ps = con.prepareStatement(UPDATE_ITEM))
+		{
+			setUpdateParameters(ps);
 			ps.executeUpdate();
 			_existsInDb = true;
 			_storedInDb = true;
+			_storedOwnerId = _ownerId;
 			
-			if (_augmentation != null)
-			{
-				updateItemOptions(con);
-			}
-			
-			if (_elementals != null)
-			{
-				updateItemElements(con);
-			}
-			
-			updateSpecialAbilities(con);
+			updateItemDetails(con);
 		}
 		catch (Exception e)
 		{
@@ -1747,35 +1758,15 @@ public class Item extends WorldObject
 		}
 		
 		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("INSERT INTO items (owner_id,item_id,count,loc,loc_data,enchant_level,object_id,custom_type1,custom_type2,mana_left,time) VALUES (?,?,?,?,?,?,?,?,?,?,?)"))
-		{
-			ps.setInt(1, _ownerId);
-			ps.setInt(2, _itemId);
-			ps.setLong(3, _count);
-			ps.setString(4, _loc.name());
-			ps.setInt(5, _locData);
-			ps.setInt(6, _enchantLevel);
-			ps.setInt(7, getObjectId());
-			ps.setInt(8, _type1);
-			ps.setInt(9, _type2);
-			ps.setInt(10, _mana);
-			ps.setLong(11, _time);
-			
+			PreparedStatement ps = con.prepareStatement(INSERT_ITEM))
+		{
+			setInsertParameters(ps);
 			ps.executeUpdate();
 			_existsInDb = true;
 			_storedInDb = true;
+			_storedOwnerId = _ownerId;
 			
-			if (_augmentation != null)
-			{
-				updateItemOptions(con);
-			}
-			
-			if (_elementals != null)
-			{
-				updateItemElements(con);
-			}
-			
-			updateSpecialAbilities(con);
+			updateItemDetails(con);
 		}
 		catch (Exception e)
 		{
@@ -1795,44 +1786,245 @@ public class Item extends WorldObject
 		
 		try (Connection con = DatabaseFactory.getConnection())
 		{
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM items WHERE object_id = ?"))
+			for (String query : DELETE_ITEM)
 			{
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
+				try (PreparedStatement ps = con.prepareStatement(query))
+				{
+					ps.setInt(1, getObjectId());
+					ps.executeUpdate();
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.SEVERE, "Item could not delete " + this + " in DB ", e);
+		}
+		finally
+		{
+			_existsInDb = false;
+			_storedInDb = false;
+		}
+	}
+	
+	/**
+	 * Stores options, elementals and special abilities along with the item row.
+	 * @param con the connection used to store the item row
+	 */
+	private void updateItemDetails(Connection con)
+	{
+		if (_augmentation != null)
+		{
+			updateItemOptions(con);
+		}
+		
+		if (_elementals != null)
+		{
+			updateItemElements(con);
+		}
+		
+		updateSpecialAbilities(con);
+	}
+	
+	private void setUpdateParameters(PreparedStatement ps) throws SQLException
+	{
+		ps.setInt(1, _ownerId);
+		ps.setLong(2, _count);
+		ps.setString(3, _loc.name());
+		ps.setInt(4, _locData);
+		ps.setInt(5, _enchantLevel);
+		ps.setInt(6, _type1);
+		ps.setInt(7, _type2);
+		ps.setInt(8, _mana);
+		ps.setLong(9, _time);
+		ps.setInt(10, getObjectId());
+	}
+	
+	private void setInsertParameters(PreparedStatement ps) throws SQLException
+	{
+		ps.setInt(1, _ownerId);
+		ps.setInt(2, _itemId);
+		ps.setLong(3, _count);
+		ps.setString(4, _loc.name());
+		ps.setInt(5, _locData);
+		ps.setInt(6, _enchantLevel);
+		ps.setInt(7, getObjectId());
+		ps.setInt(8, _type1);
+		ps.setInt(9, _type2);
+		ps.setInt(10, _mana);
+		ps.setLong(11, _time);
+	}
+	
+	/**
+	 * @return {@code true} if this item should not have a database record.
+	 */
+	private boolean isRemovedFromDb()
+	{
+		return (_ownerId == 0) || (_loc == ItemLocation.VOID) || (_loc == ItemLocation.REFUND) || ((_count == 0) && (_loc != ItemLocation.LEASE));
+	}
+	
+	/**
+	 * Updates the database for several items at once.<br>
+	 * Inserts, updates and deletes are grouped in one batch per table and written inside a single transaction, instead of one connection and query per item.<br>
+	 * Items are locked in object id order while they are written, so concurrent batches cannot deadlock and a single item update always waits for a running batch.
+	 * @param items the items to store
+	 * @param force if the updates should necessarily be done, see {@link #updateDatabase(boolean)}.
+	 */
+	public static void updateDatabase(Collection<Item> items, boolean force)
+	{
+		if (items.isEmpty())
+		{
+			return;
+		}
+		
+		final List<Item> sorted = new ArrayList<>(items);
+		sorted.sort(Comparator.comparingInt(Item::getObjectId));
+		for (Item item : sorted)
+		{
+			item._dbLock.lock();
+		}
+		
+		try
+		{
+			final List<Item> inserts = new ArrayList<>();
+			final List<Item> updates = new ArrayList<>();
+			final List<Item> deletes = new ArrayList<>();
+			for (Item item : sorted)
+			{
+				if (item._wear)
+				{
+					continue;
+				}
+				
+				if (item._existsInDb)
+				{
+					if (item.isRemovedFromDb())
+					{
+						deletes.add(item);
+					}
+					else if ((!GeneralConfig.LAZY_ITEMS_UPDATE || force) && !item._storedInDb)
+					{
+						updates.add(item);
+					}
+				}
+				else if (!item.isRemovedFromDb() && (item.getObjectId() != 0))
+				{
+					inserts.add(item);
+				}
 			}
 			
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_variations WHERE itemId = ?"))
+			if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty())
 			{
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
+				return;
 			}
 			
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_elementals WHERE itemId = ?"))
+			try (Connection con = DatabaseFactory.getConnection())
 			{
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
+				con.setAutoCommit(false);
+				try
+				{
+					if (!deletes.isEmpty())
+					{
+						for (String query : DELETE_ITEM)
+						{
+							try (PreparedStatement ps = con.prepareStatement(query))
+							{
+								for (Item item : deletes)
+								{
+									ps.setInt(1, item.getObjectId());
+									ps.addBatch();
+								}
+								
+								ps.executeBatch();
+							}
+						}
+					}
+					
+					if (!inserts.isEmpty())
+					{
+						try (PreparedStatement ps = con.prepareStatement(INSERT_ITEM))
+						{
+							for (Item item : inserts)
+							{
+								item.setInsertParameters(ps);
+								ps.addBatch();
+							}
+							
+							ps.executeBatch();
+						}
+					}
+					
+					if (!updates.isEmpty())
+					{
+						try (PreparedStatement ps = con.prepareStatement(UPDATE_ITEM))
+						{
+							for (Item item : updates)
+							{
+								item.setUpdateParameters(ps);
+								ps.addBatch();
+							}
+							
+							ps.executeBatch();
+						}
+					}
+					
+					for (Item item : inserts)
+					{
+						item.updateItemDetails(con);
+					}
+					
+					for (Item item : updates)
+					{
+						item.updateItemDetails(con);
+					}
+					
+					con.commit();
+				}
+				catch (SQLException e)
+				{
+					con.rollback();
+					throw e;
+				}
+				finally
+				{
+					con.setAutoCommit(true);
+				}
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.SEVERE, "Items could not be stored in DB, storing them one by one: Reason: " + e.getMessage(), e);
+				for (Item item : sorted)
+				{
+					item.updateDatabase(true);
+				}
+				return;
 			}
 			
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_special_abilities WHERE objectId = ?"))
+			for (Item item : inserts)
 			{
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
+				item._existsInDb = true;
+				item._storedInDb = true;
+				item._storedOwnerId = item._ownerId;
 			}
 			
-			try (PreparedStatement ps = con.prepareStatement("DELETE FROM item_variables WHERE id = ?"))
+			for (Item item : updates)
 			{
-				ps.setInt(1, getObjectId());
-				ps.executeUpdate();
+				item._existsInDb = true;
+				item._storedInDb = true;
+				item._storedOwnerId = item._ownerId;
+			}
+			
+			for (Item item : deletes)
+			{
+				item._existsInDb = false;
+				item._storedInDb = false;
 			}
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.SEVERE, "Item could not delete " + this + " in DB ", e);
 		}
 		finally
 		{
-			_existsInDb = false;
-			_storedInDb = false;
+			for (Item item : sorted)
+			{
+				item._dbLock.unlock();
+			}
 		}
 	}
 	
@@ -31,6 +31,7 @@ import org.l2jmobius.commons.database.DatabaseFactory;
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.data.xml.ItemData;
 import org.l2jmobius.gameserver.managers.ItemManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.Player;
@@ -647,10 +648,7 @@ public abstract class ItemContainer
 	{
 		if (getOwner() != null)
 		{
-			for (Item item : _items)
-			{
-				item.updateDatabase(true);
-			}
+			Item.updateDatabase(_items, true);
 		}
 	}
 	
@@ -659,6 +657,8 @@ public abstract class ItemContainer
 	 */
 	public void restore()
 	{
+		ItemPersistenceManager.getInstance().flush(getOwnerId());
+		
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement ps = con.prepareStatement("SELECT * FROM items WHERE owner_id=? AND (loc=?)"))
 		{
@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.util.logging.Level;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.model.item.enums.ItemLocation;
@@ -105,15 +106,14 @@ public class Mail extends ItemContainer
 	@Override
 	public void updateDatabase()
 	{
-		for (Item item : _items)
-		{
-			item.updateDatabase(true);
-		}
+		Item.updateDatabase(_items, true);
 	}
 	
 	@Override
 	public void restore()
 	{
+		ItemPersistenceManager.getInstance().flush(_ownerId);
+		
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement statement = con.prepareStatement("SELECT * FROM items WHERE owner_id=? AND loc=? AND loc_data=?"))
 		{
@@ -41,6 +41,7 @@ import org.l2jmobius.gameserver.data.sql.ClanTable;
 import org.l2jmobius.gameserver.data.xml.ClassListData;
 import org.l2jmobius.gameserver.data.xml.NpcData;
 import org.l2jmobius.gameserver.managers.CastleManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.model.StatSet;
 import org.l2jmobius.gameserver.model.World;
 import org.l2jmobius.gameserver.model.actor.Player;
@@ -889,6 +890,8 @@ public class Hero
 	
 	private void deleteItemsInDb()
 	{
+		ItemPersistenceManager.getInstance().flush();
+		
 		try (Connection con = DatabaseFactory.getConnection();
 			Statement s = con.createStatement())
 		{
@@ -35,6 +35,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.config.OlympiadConfig;
 import org.l2jmobius.gameserver.data.enums.CategoryType;
@@ -364,6 +365,8 @@ public class Olympiad extends ListenersContainer
 				}
 				else
 				{
+					DatabaseWriteQueue.getInstance().flush(noblesId);
+					
 					// Remove previous record.
 					try (Connection con = DatabaseFactory.getConnection();
 						PreparedStatement statement = con.prepareStatement(REMOVE_UNCLAIMED_POINTS))
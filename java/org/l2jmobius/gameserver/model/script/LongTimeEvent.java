@@ -45,6 +45,7 @@ import org.l2jmobius.commons.util.IXmlReader;
 import org.l2jmobius.gameserver.data.sql.AnnouncementsTable;
 import org.l2jmobius.gameserver.data.xml.ItemData;
 import org.l2jmobius.gameserver.data.xml.NpcData;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.managers.events.EventDropManager;
 import org.l2jmobius.gameserver.managers.events.EventShrineManager;
 import org.l2jmobius.gameserver.model.Location;
@@ -574,6 +575,7 @@ public class LongTimeEvent extends Script
 				}
 				
 				// Update database.
+				ItemPersistenceManager.getInstance().flush();
 				try (Connection con = DatabaseFactory.getConnection();
 					PreparedStatement statement = con.prepareStatement("DELETE FROM items WHERE item_id=?"))
 				{
@@ -37,7 +37,6 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -46,6 +45,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.commons.util.TraceUtil;
 import org.l2jmobius.gameserver.ai.Intention;
@@ -66,6 +66,7 @@ import org.l2jmobius.gameserver.managers.InstanceManager;
 import org.l2jmobius.gameserver.managers.ItemCommissionManager;
 import org.l2jmobius.gameserver.managers.MailManager;
 import org.l2jmobius.gameserver.managers.PcCafePointsManager;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.managers.ScriptManager;
 import org.l2jmobius.gameserver.managers.ZoneManager;
 import org.l2jmobius.gameserver.model.KeyValuePair;
@@ -209,6 +210,9 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	public static final Logger LOGGER = Logger.getLogger(Quest.class.getName());
 	
 	private static final String DEFAULT_NO_QUEST_MSG = "<html><body>You are either not on a quest that involves this NPC, or you don't meet this NPC's minimum quest requirements.</body></html>";
+	private static final String QUEST_INSERT_VAR_QUERY = "INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?";
+	private static final String QUEST_UPDATE_VAR_QUERY = "UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?";
+	private static final String QUEST_DELETE_VAR_QUERY = "DELETE FROM character_quests WHERE charId=? AND name=? AND var=?";
 	private static final String QUEST_DELETE_FROM_CHAR_QUERY = "DELETE FROM character_quests WHERE charId=? AND name=?";
 	private static final String QUEST_DELETE_FROM_CHAR_QUERY_NON_REPEATABLE_QUERY = "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?";
 	private static final int STEEL_DOOR_COIN = 37045; // Steel Door Guild Coin
@@ -217,7 +221,7 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	private final Map<ListenerRegisterType, Set<Integer>> _registeredIds = new ConcurrentHashMap<>();
 	private final Queue<AbstractEventListener> _listeners = new PriorityBlockingQueue<>();
 	private final Set<QuestCondition> _startCondition = ConcurrentHashMap.newKeySet(1);
-	private final Map<String, List<QuestTimer>> _questTimers = new HashMap<>();
+	private final Map<String, Set<QuestTimer>> _questTimers = new ConcurrentHashMap<>();
 	private TimerExecutor<String> _timerExecutor;
 	
 	private final int _questId;
@@ -390,16 +394,7 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 		
 		// Cancel all pending timers before reloading.
 		// If timers ought to be restarted, the quest can take care of it with its code (example: save global data indicating what timer must be restarted).
-		for (List<QuestTimer> timers : _questTimers.values())
-		{
-			for (QuestTimer timer : timers)
-			{
-				timer.cancel();
-			}
-			
-			timers.clear();
-		}
-		
+		cancelQuestTimers();
 		_questTimers.clear();
 		
 		if (removeFromList)
@@ -479,13 +474,26 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	
 	/**
 	 * Gets the quest timers.
-	 * @return the quest timers
+	 * @return the quest timers, by name
 	 */
-	public Map<String, List<QuestTimer>> getQuestTimers()
+	public Map<String, Set<QuestTimer>> getQuestTimers()
 	{
 		return _questTimers;
 	}
 	
+	/**
+	 * @return the number of running quest timers
+	 */
+	public int getQuestTimerCount()
+	{
+		int count = 0;
+		for (Set<QuestTimer> timers : _questTimers.values())
+		{
+			count += timers.size();
+		}
+		return count;
+	}
+	
 	/**
 	 * Add a timer to the quest (if it doesn't exist already) and start it.
 	 * @param name the name of the timer (also passed back as "event" in {@link #onEvent(String, Npc, Player)})
@@ -502,19 +510,8 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 			return;
 		}
 		
-		synchronized (_questTimers)
-		{
-			if (!_questTimers.containsKey(name))
-			{
-				_questTimers.put(name, new CopyOnWriteArrayList<>());
-			}
-			
-			// If there exists a timer with this name, allow the timer only if the [npc, player] set is unique nulls act as wildcards.
-			if (getQuestTimer(name, npc, player) == null)
-			{
-				_questTimers.get(name).add(new QuestTimer(this, name, time, npc, player, repeating));
-			}
-		}
+		// If there exists a timer with this name, allow the timer only if the [npc, player] set is unique.
+		QuestTimerManager.getInstance().startTimer(this, name, time, npc, player, repeating);
 	}
 	
 	/**
@@ -531,21 +528,15 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 			return null;
 		}
 		
-		final List<QuestTimer> timers = _questTimers.get(name);
-		if ((timers == null) || timers.isEmpty())
-		{
-			return null;
-		}
-		
-		for (QuestTimer timer : timers)
-		{
-			if ((timer != null) && timer.equals(this, name, npc, player))
-			{
-				return timer;
-			}
-		}
-		
-		return null;
+		return QuestTimerManager.getInstance().getTimer(this, name, npc, player);
+	}
+	
+	/**
+	 * Cancel all quest timers of this quest.
+	 */
+	public void cancelQuestTimers()
+	{
+		QuestTimerManager.getInstance().cancelTimers(this);
 	}
 	
 	/**
@@ -559,21 +550,16 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 			return;
 		}
 		
-		final List<QuestTimer> timers = _questTimers.get(name);
+		final Set<QuestTimer> timers = _questTimers.get(name);
 		if ((timers == null) || timers.isEmpty())
 		{
 			return;
 		}
 		
-		for (QuestTimer timer : timers)
+		for (QuestTimer timer : new ArrayList<>(timers))
 		{
-			if (timer != null)
-			{
-				timer.cancel();
-			}
+			timer.cancel();
 		}
-		
-		timers.clear();
 	}
 	
 	/**
@@ -589,25 +575,23 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 			return;
 		}
 		
-		final List<QuestTimer> timers = _questTimers.get(name);
-		if ((timers == null) || timers.isEmpty())
-		{
-			return;
-		}
-		
-		for (QuestTimer timer : timers)
-		{
-			if ((timer != null) && timer.equals(this, name, npc, player))
-			{
-				timer.cancel();
-			}
-		}
+		QuestTimerManager.getInstance().cancelTimer(this, name, npc, player);
+	}
+	
+	/**
+	 * Add a started quest timer to the timers of this quest.<br>
+	 * Note: does not start the timer itself!
+	 * @param timer the {@link QuestTimer} object to add
+	 */
+	public void addQuestTimer(QuestTimer timer)
+	{
+		_questTimers.computeIfAbsent(timer.toString(), _ -> ConcurrentHashMap.newKeySet()).add(timer);
 	}
 	
 	/**
 	 * Remove a quest timer from the list of all timers.<br>
 	 * Note: does not stop the timer itself!
-	 * @param timer the {@link QuestState} object to remove
+	 * @param timer the {@link QuestTimer} object to remove
 	 */
 	public void removeQuestTimer(QuestTimer timer)
 	{
@@ -616,7 +600,7 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 			return;
 		}
 		
-		final List<QuestTimer> timers = _questTimers.get(timer.toString());
+		final Set<QuestTimer> timers = _questTimers.get(timer.toString());
 		if (timers != null)
 		{
 			timers.remove(timer);
@@ -1325,6 +1309,9 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	 */
 	public static void playerEnter(Player player)
 	{
+		// Quest variables of a previous session may still be queued.
+		DatabaseWriteQueue.getInstance().flush(player.getObjectId());
+		
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement invalidQuestData = con.prepareStatement("DELETE FROM character_quests WHERE charId = ? AND name = ?");
 			PreparedStatement invalidQuestDataVar = con.prepareStatement("DELETE FROM character_quests WHERE charId = ? AND name = ? AND var = ?");
@@ -1413,20 +1400,16 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	 */
 	public static void createQuestVarInDb(QuestState qs, String var, String value)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement("INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=?"))
+		final int charId = qs.getPlayer().getObjectId();
+		final String questName = qs.getQuestName();
+		DatabaseWriteQueue.getInstance().add(charId, questName + ':' + var, QUEST_INSERT_VAR_QUERY, statement ->
 		{
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuestName());
+			statement.setInt(1, charId);
+			statement.setString(2, questName);
 			statement.setString(3, var);
 			statement.setString(4, value);
 			statement.setString(5, value);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "could not insert char quest:", e);
-		}
+		});
 	}
 	
 	/**
@@ -1437,19 +1420,15 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	 */
 	public static void updateQuestVarInDb(QuestState qs, String var, String value)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement("UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var = ?"))
+		final int charId = qs.getPlayer().getObjectId();
+		final String questName = qs.getQuestName();
+		DatabaseWriteQueue.getInstance().add(charId, questName + ':' + var, QUEST_UPDATE_VAR_QUERY, statement ->
 		{
 			statement.setString(1, value);
-			statement.setInt(2, qs.getPlayer().getObjectId());
-			statement.setString(3, qs.getQuestName());
+			statement.setInt(2, charId);
+			statement.setString(3, questName);
 			statement.setString(4, var);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "could not update char quest:", e);
-		}
+		});
 	}
 	
 	/**
@@ -1459,18 +1438,14 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	 */
 	public static void deleteQuestVarInDb(QuestState qs, String var)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement("DELETE FROM character_quests WHERE charId=? AND name=? AND var=?"))
+		final int charId = qs.getPlayer().getObjectId();
+		final String questName = qs.getQuestName();
+		DatabaseWriteQueue.getInstance().add(charId, questName + ':' + var, QUEST_DELETE_VAR_QUERY, statement ->
 		{
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuestName());
+			statement.setInt(1, charId);
+			statement.setString(2, questName);
 			statement.setString(3, var);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "Unable to delete char quest!", e);
-		}
+		});
 	}
 	
 	/**
@@ -1480,22 +1455,17 @@ public class Quest implements IEventTimerEvent<String>, IEventTimerCancel<String
 	 */
 	public static void deleteQuestInDb(QuestState qs, boolean repeatable)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(repeatable ? QUEST_DELETE_FROM_CHAR_QUERY : QUEST_DELETE_FROM_CHAR_QUERY_NON_REPEATABLE_QUERY))
+		final int charId = qs.getPlayer().getObjectId();
+		final String questName = qs.getQuestName();
+		DatabaseWriteQueue.getInstance().add(charId, repeatable ? QUEST_DELETE_FROM_CHAR_QUERY : QUEST_DELETE_FROM_CHAR_QUERY_NON_REPEATABLE_QUERY, ps ->
 		{
-			ps.setInt(1, qs.getPlayer().getObjectId());
-			ps.setString(2, qs.getQuestName());
+			ps.setInt(1, charId);
+			ps.setString(2, questName);
 			if (!repeatable)
 			{
 				ps.setString(3, "<state>");
 			}
-			
-			ps.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "could not delete char quest:", e);
-		}
+		});
 	}
 	
 	/**
@@ -23,6 +23,7 @@ package org.l2jmobius.gameserver.model.script;
 import java.util.concurrent.ScheduledFuture;
 
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.managers.QuestTimerManager;
 import org.l2jmobius.gameserver.model.actor.Npc;
 import org.l2jmobius.gameserver.model.actor.Player;
 
@@ -32,61 +33,70 @@ public class QuestTimer
 	protected final Quest _quest;
 	protected final Npc _npc;
 	protected final Player _player;
+	protected final long _time;
 	protected final boolean _isRepeating;
-	protected ScheduledFuture<?> _scheduler;
+	protected final int _instanceId;
+	protected volatile ScheduledFuture<?> _scheduler;
+	protected volatile boolean _cancelled;
 	
+	/**
+	 * Timers are started with {@link QuestTimerManager#startTimer(Quest, String, long, Npc, Player, boolean)}.
+	 * @param quest the quest notified when the timer fires
+	 * @param name the name of the timer
+	 * @param time the delay, and the period of repeating timers, in milliseconds
+	 * @param npc the npc of the timer (can be null)
+	 * @param player the player of the timer (can be null)
+	 * @param repeating if {@code true}, the timer fires every {@code time} milliseconds until cancelled
+	 */
 	public QuestTimer(Quest quest, String name, long time, Npc npc, Player player, boolean repeating)
 	{
 		_quest = quest;
 		_name = name;
 		_npc = npc;
 		_player = player;
+		_time = time;
 		_isRepeating = repeating;
-		
-		if (repeating)
+		_instanceId = npc != null ? npc.getInstanceId() : 0;
+	}
+	
+	public void schedule()
+	{
+		if (_cancelled)
 		{
-			_scheduler = ThreadPool.scheduleAtFixedRate(new ScheduleTimerTask(), time, time); // Prepare auto end task
+			return;
 		}
-		else
+		
+		final ScheduledFuture<?> scheduler;
+		if (_isRepeating)
 		{
-			_scheduler = ThreadPool.schedule(new ScheduleTimerTask(), time); // Prepare auto end task
+			scheduler = ThreadPool.scheduleAtFixedRate(new ScheduleTimerTask(), _time, _time); // Prepare auto end task
 		}
-		
-		if (npc != null)
+		else
 		{
-			npc.addQuestTimer(this);
+			scheduler = ThreadPool.schedule(new ScheduleTimerTask(), _time); // Prepare auto end task
 		}
+		_scheduler = scheduler;
 		
-		if (player != null)
+		// A concurrent cancel may have missed the new task.
+		if (_cancelled)
 		{
-			player.addQuestTimer(this);
+			scheduler.cancel(false);
+			_scheduler = null;
 		}
 	}
 	
 	public void cancel()
 	{
-		cancelTask();
+		_cancelled = true;
 		
-		if (_npc != null)
+		final ScheduledFuture<?> scheduler = _scheduler;
+		if ((scheduler != null) && !scheduler.isDone() && !scheduler.isCancelled())
 		{
-			_npc.removeQuestTimer(this);
+			scheduler.cancel(false);
 		}
+		_scheduler = null;
 		
-		if (_player != null)
-		{
-			_player.removeQuestTimer(this);
-		}
-	}
-	
-	public void cancelTask()
-	{
-		if ((_scheduler != null) && !_scheduler.isDone() && !_scheduler.isCancelled())
-		{
-			_scheduler.cancel(false);
-			_scheduler = null;
-		}
-		
-		_quest.removeQuestTimer(this);
+		QuestTimerManager.getInstance().removeTimer(this);
 	}
 	
 	/**
@@ -114,7 +124,8 @@ public class QuestTimer
 	
 	public boolean isActive()
 	{
-		return (_scheduler != null) && !_scheduler.isCancelled() && !_scheduler.isDone();
+		final ScheduledFuture<?> scheduler = _scheduler;
+		return !_cancelled && (scheduler != null) && !scheduler.isCancelled() && !scheduler.isDone();
 	}
 	
 	public boolean isRepeating()
@@ -137,6 +148,14 @@ public class QuestTimer
 		return _player;
 	}
 	
+	/**
+	 * @return the id of the instance of the npc when the timer was started, 0 for timers without npc
+	 */
+	public int getInstanceId()
+	{
+		return _instanceId;
+	}
+	
 	@Override
 	public String toString()
 	{
@@ -148,7 +167,7 @@ public class QuestTimer
 		@Override
 		public void run()
 		{
-			if (_scheduler == null)
+			if (_cancelled)
 			{
 				return;
 			}
@@ -20,80 +20,72 @@
  */
 package org.l2jmobius.gameserver.model.skill;
 
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.HashSet;
+import java.util.Set;
 
-import org.l2jmobius.commons.threads.ThreadPool;
-import org.l2jmobius.gameserver.model.actor.Creature;
-import org.l2jmobius.gameserver.model.skill.enums.SkillFinishType;
+import org.l2jmobius.gameserver.taskmanagers.EffectExpiryTaskManager;
 
 /**
+ * Keeps the timed buffs of a creature registered with the {@link EffectExpiryTaskManager}.<br>
+ * While stopped, the time left for each buff is kept and the buffs are scheduled again when started.
  * @author Mobius
  */
 public class BuffFinishTask
 {
-	private final Map<BuffInfo, AtomicInteger> _buffInfos = new ConcurrentHashMap<>();
-	private ScheduledFuture<?> _task = null;
+	private final Set<BuffInfo> _buffInfos = new HashSet<>();
 	private boolean _stopped = false;
 	
-	private class BuffFinishRunnable implements Runnable
-	{
-		@Override
-		public void run()
-		{
-			for (Entry<BuffInfo, AtomicInteger> entry : _buffInfos.entrySet())
-			{
-				final BuffInfo info = entry.getKey();
-				final Creature effected = info.getEffected();
-				if ((effected != null) && (entry.getValue().incrementAndGet() > info.getAbnormalTime()))
-				{
-					ThreadPool.execute(() -> effected.getEffectList().stopSkillEffects(SkillFinishType.NORMAL, info.getSkill().getId()));
-				}
-			}
-		}
-	}
-	
 	public synchronized void removeBuffInfo(BuffInfo info)
 	{
-		_buffInfos.remove(info);
-		
-		if (_buffInfos.isEmpty() && (_task != null))
+		if (_buffInfos.remove(info) && !_stopped)
 		{
-			_task.cancel(true);
-			_task = null;
+			EffectExpiryTaskManager.getInstance().cancel(info);
 		}
 	}
 	
 	public synchronized void addBuffInfo(BuffInfo info)
 	{
-		_buffInfos.put(info, new AtomicInteger());
+		_buffInfos.add(info);
 		
-		if ((_task == null) && !_stopped)
+		final long abnormalTime = info.getAbnormalTime() * 1000L;
+		if (_stopped)
+		{
+			info.setRemainingTime(abnormalTime);
+		}
+		else
 		{
-			_task = ThreadPool.scheduleAtFixedRate(new BuffFinishRunnable(), 0, 1000);
+			EffectExpiryTaskManager.getInstance().schedule(info, System.currentTimeMillis() + abnormalTime);
 		}
 	}
 	
 	public synchronized void start()
 	{
+		if (!_stopped)
+		{
+			return;
+		}
+		
 		_stopped = false;
 		
-		if (!_buffInfos.isEmpty() && (_task == null))
+		final long currentTime = System.currentTimeMillis();
+		for (BuffInfo info : _buffInfos)
 		{
-			_task = ThreadPool.scheduleAtFixedRate(new BuffFinishRunnable(), 0, 1000);
+			EffectExpiryTaskManager.getInstance().schedule(info, currentTime + info.getRemainingTime());
 		}
 	}
 	
 	public synchronized void stop()
 	{
+		if (_stopped)
+		{
+			return;
+		}
+		
 		_stopped = true;
 		
-		if (_task != null)
+		for (BuffInfo info : _buffInfos)
 		{
-			_task.cancel(true);
+			info.setRemainingTime(EffectExpiryTaskManager.getInstance().cancel(info));
 		}
 	}
 }
@@ -67,6 +67,10 @@ public class BuffInfo
 	private int _abnormalTime;
 	/** The game ticks at the start of this effect. */
 	private int _periodStartTicks;
+	/** The time this effect expires, or 0 while it is not scheduled to expire. */
+	private long _expireTime;
+	/** The time left before this effect expires while the expiration is paused. */
+	private long _remainingTime;
 	
 	// Misc
 	/** If {@code true} then this effect has been cancelled. */
@@ -176,6 +180,42 @@ public class BuffInfo
 		_abnormalTime = abnormalTime;
 	}
 	
+	/**
+	 * Gets the time this effect expires, as registered in the {@link org.l2jmobius.gameserver.taskmanagers.EffectExpiryTaskManager}.
+	 * @return the expiration time in milliseconds, or 0 if the expiration is not scheduled
+	 */
+	public long getExpireTime()
+	{
+		return _expireTime;
+	}
+	
+	/**
+	 * Sets the expiration time. Only called by the {@link org.l2jmobius.gameserver.taskmanagers.EffectExpiryTaskManager}.
+	 * @param expireTime the expiration time in milliseconds, or 0 to cancel it
+	 */
+	public void setExpireTime(long expireTime)
+	{
+		_expireTime = expireTime;
+	}
+	
+	/**
+	 * Gets the time left before this effect expires while its expiration is paused.
+	 * @return the remaining time in milliseconds
+	 */
+	public long getRemainingTime()
+	{
+		return _remainingTime;
+	}
+	
+	/**
+	 * Sets the time left before this effect expires while its expiration is paused.
+	 * @param remainingTime the remaining time in milliseconds
+	 */
+	public void setRemainingTime(long remainingTime)
+	{
+		_remainingTime = remainingTime;
+	}
+	
 	/**
 	 * Gets the period start ticks.
 	 * @return the period start
@@ -26,6 +26,7 @@ import java.util.logging.Logger;
 
 import org.l2jmobius.commons.time.SchedulingPattern;
 import org.l2jmobius.commons.util.Rnd;
+import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.data.SpawnTable;
 import org.l2jmobius.gameserver.data.xml.NpcData;
 import org.l2jmobius.gameserver.geoengine.GeoEngine;
@@ -34,6 +35,8 @@ import org.l2jmobius.gameserver.managers.ZoneManager;
 import org.l2jmobius.gameserver.model.Location;
 import org.l2jmobius.gameserver.model.Spawn;
 import org.l2jmobius.gameserver.model.StatSet;
+import org.l2jmobius.gameserver.model.World;
+import org.l2jmobius.gameserver.model.WorldRegion;
 import org.l2jmobius.gameserver.model.actor.Creature;
 import org.l2jmobius.gameserver.model.actor.Npc;
 import org.l2jmobius.gameserver.model.actor.holders.npc.ChanceLocation;
@@ -67,6 +70,7 @@ public class NpcSpawnTemplate implements Cloneable, IParameterized<StatSet>
 	private final SpawnTemplate _spawnTemplate;
 	private final SpawnGroup _group;
 	private final Set<Npc> _spawnedNpcs = ConcurrentHashMap.newKeySet();
+	private final Set<Spawn> _dormantSpawns = ConcurrentHashMap.newKeySet();
 	
 	private NpcSpawnTemplate(NpcSpawnTemplate template)
 	{
@@ -626,6 +630,17 @@ public class NpcSpawnTemplate implements Cloneable, IParameterized<StatSet>
 				_spawnedNpcs.add(spawnedNpc);
 			}
 		}
+		else if (canSpawnDormant(npcTemplate, instance))
+		{
+			// The Npc is only created while players are around its world region.
+			final WorldRegion region = World.getInstance().getRegion(loc.getX(), loc.getY());
+			if (region != null)
+			{
+				_dormantSpawns.add(spawn);
+				SpawnTable.getInstance().addSpawn(spawn);
+				region.addDormantSpawn(spawn);
+			}
+		}
 		else
 		{
 			final Npc npc = spawn.doSpawn(_spawnAnimation);
@@ -640,8 +655,38 @@ public class NpcSpawnTemplate implements Cloneable, IParameterized<StatSet>
 		}
 	}
 	
+	/**
+	 * Checks if a spawn of this template can be kept dormant while no player is around.<br>
+	 * Only plain monsters with a fixed respawn delay qualify, since scripts, minions and instances expect their Npcs to exist.
+	 * @param npcTemplate the Npc template
+	 * @param instance the instance to spawn in, {@code null} for the main world
+	 * @return {@code true} if the spawn can be dormant
+	 */
+	private boolean canSpawnDormant(NpcTemplate npcTemplate, Instance instance)
+	{
+		if (!GeneralConfig.DORMANT_SPAWNS || GeneralConfig.GRIDS_ALWAYS_ON || (instance != null))
+		{
+			return false;
+		}
+		
+		if (_spawnAnimation || (_minions != null) || (_respawnPattern != null) || (_respawnTime == null) || (_respawnTime.getSeconds() <= 0))
+		{
+			return false;
+		}
+		
+		return npcTemplate.isType("Monster") && (_spawnTemplate.getAI() == null) && !NpcData.getMasterMonsterIDs().contains(_id);
+	}
+	
 	public void despawn()
 	{
+		_dormantSpawns.forEach(spawn ->
+		{
+			spawn.stopRespawn();
+			spawn.getDormantRegion().removeDormantSpawn(spawn);
+			SpawnTable.getInstance().removeSpawn(spawn);
+		});
+		_dormantSpawns.clear();
+		
 		_spawnedNpcs.forEach(npc ->
 		{
 			npc.getSpawn().stopRespawn();
@@ -29,6 +29,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
 
 /**
@@ -104,6 +105,9 @@ public class PlayerVariables extends AbstractVariables
 	{
 		clearChangeTracking();
 		
+		// Execute the queued writes of this player before reading.
+		DatabaseWriteQueue.getInstance().flush(_objectId);
+		
 		// Restore previous variables.
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement st = con.prepareStatement(SELECT_QUERY))
@@ -176,79 +180,58 @@ public class PlayerVariables extends AbstractVariables
 	}
 	
 	/**
-	 * Synchronous implementation of variable saving with optimized database operations.
+	 * Queues the changed variables on the database write queue, ordered with the other writes of this player.
 	 * @return true if successful, false otherwise.
 	 */
 	private boolean saveNowSync()
 	{
 		_saveLock.lock();
-		
-		try (Connection con = DatabaseFactory.getConnection())
+		try
 		{
+			final DatabaseWriteQueue queue = DatabaseWriteQueue.getInstance();
+			
 			// Process deletions.
-			if (!_deleted.isEmpty())
+			for (String name : _deleted)
 			{
-				try (PreparedStatement st = con.prepareStatement(DELETE_QUERY))
+				queue.add(_objectId, DELETE_QUERY, st ->
 				{
-					for (String name : _deleted)
-					{
-						st.setInt(1, _objectId);
-						st.setString(2, name);
-						st.addBatch();
-					}
-					
-					st.executeBatch();
-				}
+					st.setInt(1, _objectId);
+					st.setString(2, name);
+				});
 			}
 			
 			// Process additions.
-			if (!_added.isEmpty())
+			for (String name : _added)
 			{
-				try (PreparedStatement st = con.prepareStatement(INSERT_QUERY))
+				final Object value = getSet().get(name);
+				if (value != null)
 				{
-					for (String name : _added)
+					final String val = String.valueOf(value);
+					queue.add(_objectId, INSERT_QUERY, st ->
 					{
-						final Object value = getSet().get(name);
-						if (value != null)
-						{
-							st.setInt(1, _objectId);
-							st.setString(2, name);
-							st.setString(3, String.valueOf(value));
-							st.addBatch();
-						}
-					}
-					
-					st.executeBatch();
+						st.setInt(1, _objectId);
+						st.setString(2, name);
+						st.setString(3, val);
+					});
 				}
 			}
 			
 			// Process modifications.
-			if (!_modified.isEmpty())
+			for (String name : _modified)
 			{
-				try (PreparedStatement st = con.prepareStatement(UPDATE_QUERY))
+				final Object value = getSet().get(name);
+				if (value != null)
 				{
-					for (String name : _modified)
+					final String val = String.valueOf(value);
+					queue.add(_objectId, UPDATE_QUERY, st ->
 					{
-						final Object value = getSet().get(name);
-						if (value != null)
-						{
-							st.setString(1, String.valueOf(value));
-							st.setInt(2, _objectId);
-							st.setString(3, name);
-							st.addBatch();
-						}
-					}
-					
-					st.executeBatch();
+						st.setString(1, val);
+						st.setInt(2, _objectId);
+						st.setString(3, name);
+					});
 				}
 			}
 		}
-		catch (SQLException e)
-		{
-			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Could not update variables for: " + _objectId, e);
-			_saveLock.unlock();
-			return false;
-		}
 		finally
 		{
 			clearChangeTracking();
@@ -263,6 +246,9 @@ public class PlayerVariables extends AbstractVariables
 	{
 		_saveLock.lock();
 		
+		// Queued writes would recreate the deleted rows.
+		DatabaseWriteQueue.getInstance().flush(_objectId);
+		
 		try (Connection con = DatabaseFactory.getConnection();
 			PreparedStatement st = con.prepareStatement(DELETE_ALL_QUERY))
 		{
@@ -21,6 +21,7 @@
 package org.l2jmobius.gameserver.model.zone.form;
 
 import java.awt.Polygon;
+import java.awt.Rectangle;
 
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.gameserver.geoengine.GeoEngine;
@@ -34,10 +35,25 @@ import org.l2jmobius.gameserver.model.zone.ZoneForm;
  */
 public class ZoneNPoly extends ZoneForm
 {
+	// Rasterized cell states of the polygon bounds, only boundary cells need a polygon test.
+	private static final byte CELL_OUTSIDE = 0;
+	private static final byte CELL_INSIDE = 1;
+	private static final byte CELL_BOUNDARY = 2;
+	private static final int GRID_SIZE = 32;
+	private static final int MIN_CELL_SIZE = 32;
+	
 	private final Polygon _p;
 	private final int _z1;
 	private final int _z2;
 	private final Location _centerPoint;
+	private final int _minX;
+	private final int _minY;
+	private final int _maxX;
+	private final int _maxY;
+	private final int _cellSize;
+	private final int _gridWidth;
+	private final int _gridHeight;
+	private volatile byte[] _cells;
 	
 	/**
 	 * @param x
@@ -85,12 +101,65 @@ public class ZoneNPoly extends ZoneForm
 		}
 		
 		_centerPoint = new Location((int) cx, (int) cy, (_z1 + _z2) / 2);
+		
+		final Rectangle bounds = _p.getBounds();
+		_minX = bounds.x;
+		_minY = bounds.y;
+		_maxX = bounds.x + bounds.width;
+		_maxY = bounds.y + bounds.height;
+		_cellSize = Math.max(MIN_CELL_SIZE, (Math.max(bounds.width, bounds.height) + GRID_SIZE - 1) / GRID_SIZE);
+		_gridWidth = (bounds.width + _cellSize - 1) / _cellSize;
+		_gridHeight = (bounds.height + _cellSize - 1) / _cellSize;
 	}
 	
 	@Override
 	public boolean isInsideZone(int x, int y, int z)
 	{
-		return _p.contains(x, y) && (z >= _z1) && (z <= _z2);
+		if ((z < _z1) || (z > _z2) || (x < _minX) || (x >= _maxX) || (y < _minY) || (y >= _maxY))
+		{
+			return false;
+		}
+		
+		byte[] cells = _cells;
+		if (cells == null)
+		{
+			cells = buildCells();
+			_cells = cells;
+		}
+		
+		final byte cell = cells[(((x - _minX) / _cellSize) * _gridHeight) + ((y - _minY) / _cellSize)];
+		return (cell == CELL_INSIDE) || ((cell == CELL_BOUNDARY) && _p.contains(x, y));
+	}
+	
+	/**
+	 * Classifies each grid cell of the polygon bounds as inside, outside or crossing the polygon boundary.<br>
+	 * Cells are tested expanded by one unit, so points lying on the polygon edges always fall in boundary cells.
+	 * @return the cell states
+	 */
+	private byte[] buildCells()
+	{
+		final byte[] cells = new byte[_gridWidth * _gridHeight];
+		for (int gx = 0; gx < _gridWidth; gx++)
+		{
+			final int cellX = _minX + (gx * _cellSize);
+			for (int gy = 0; gy < _gridHeight; gy++)
+			{
+				final int cellY = _minY + (gy * _cellSize);
+				if (_p.contains(cellX - 1, cellY - 1, _cellSize + 1, _cellSize + 1))
+				{
+					cells[(gx * _gridHeight) + gy] = CELL_INSIDE;
+				}
+				else if (_p.intersects(cellX - 1, cellY - 1, _cellSize + 1, _cellSize + 1))
+				{
+					cells[(gx * _gridHeight) + gy] = CELL_BOUNDARY;
+				}
+				else
+				{
+					cells[(gx * _gridHeight) + gy] = CELL_OUTSIDE;
+				}
+			}
+		}
+		return cells;
 	}
 	
 	@Override
@@ -25,6 +25,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.network.Buffer;
 import org.l2jmobius.commons.network.Client;
 import org.l2jmobius.commons.threads.ThreadPool;
@@ -38,6 +39,7 @@ import org.l2jmobius.gameserver.data.sql.CharInfoTable;
 import org.l2jmobius.gameserver.data.sql.ClanTable;
 import org.l2jmobius.gameserver.data.xml.SecondaryAuthData;
 import org.l2jmobius.gameserver.managers.ItemCommissionManager;
+import org.l2jmobius.gameserver.managers.ItemPersistenceManager;
 import org.l2jmobius.gameserver.managers.MailManager;
 import org.l2jmobius.gameserver.managers.MentorManager;
 import org.l2jmobius.gameserver.model.World;
@@ -363,6 +365,8 @@ public class GameClient extends Client<org.l2jmobius.commons.network.Connection<
 		}
 		
 		CharInfoTable.getInstance().removeName(objectId);
+		ItemPersistenceManager.getInstance().flush(objectId);
+		DatabaseWriteQueue.getInstance().flush(objectId);
 		
 		try (Connection con = DatabaseFactory.getConnection())
 		{
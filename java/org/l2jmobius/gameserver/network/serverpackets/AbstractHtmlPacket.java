@@ -17,6 +17,7 @@
 package org.l2jmobius.gameserver.network.serverpackets;
 
 import org.l2jmobius.gameserver.cache.HtmCache;
+import org.l2jmobius.gameserver.cache.HtmlTemplate;
 import org.l2jmobius.gameserver.model.actor.Player;
 import org.l2jmobius.gameserver.network.PacketLogger;
 import org.l2jmobius.gameserver.network.enums.HtmlActionScope;
@@ -29,8 +30,12 @@ public abstract class AbstractHtmlPacket extends ServerPacket
 {
 	public static final char VAR_PARAM_START_CHAR = '$';
 	
+	private static final int MAX_HTML_LENGTH = 17200;
+	
 	private final int _npcObjId;
 	private String _html = null;
+	private HtmlTemplate _template = null;
+	private String[] _templateValues = null;
 	private boolean _disabledValidation = false;
 	
 	protected AbstractHtmlPacket()
@@ -72,10 +77,12 @@ public abstract class AbstractHtmlPacket extends ServerPacket
 	
 	public void setHtml(String html)
 	{
-		if (html.length() > 17200)
+		_template = null;
+		_templateValues = null;
+		if (html.length() > MAX_HTML_LENGTH)
 		{
 			PacketLogger.warning(getClass().getSimpleName() + ": Html is too long! this will crash the client!");
-			_html = html.substring(0, 17200);
+			_html = html.substring(0, MAX_HTML_LENGTH);
 		}
 		else
 		{
@@ -92,21 +99,58 @@ public abstract class AbstractHtmlPacket extends ServerPacket
 	
 	public boolean setFile(Player player, String path)
 	{
-		final String content = HtmCache.getInstance().getHtm(player, path);
-		if (content == null)
+		final HtmlTemplate template = HtmCache.getInstance().getTemplate(player, path);
+		if (template == null)
 		{
 			setHtml("<html><body>My Text is missing:<br>" + path + "</body></html>");
 			PacketLogger.warning(getClass().getSimpleName() + ": Missing html page " + path);
 			return false;
 		}
 		
-		setHtml(content);
+		setHtml(template.getSource());
+		
+		// Pages used as is can be filled in from the template.
+		if ((_html == template.getSource()) && (template.getSlotCount() > 0))
+		{
+			_template = template;
+			_templateValues = new String[template.getSlotCount()];
+		}
+		
 		return true;
 	}
 	
+	/**
+	 * Replaces all occurrences of a literal pattern.<br>
+	 * Placeholders of a page loaded with {@link #setFile(Player, String)} are only filled in when the html is built. Other patterns, and values that may contain placeholders themselves, build the html first and are replaced in it.
+	 * @param pattern the literal text to replace
+	 * @param value the replacement
+	 */
 	public void replace(String pattern, String value)
 	{
-		_html = _html.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+		if (_template != null)
+		{
+			final int slot = _template.getSlot(pattern);
+			if ((slot >= 0) && (value.indexOf('%') < 0))
+			{
+				// A placeholder that was already replaced is no longer part of the html.
+				if (_templateValues[slot] == null)
+				{
+					_templateValues[slot] = value;
+				}
+				return;
+			}
+			
+			buildTemplate();
+		}
+		
+		_html = _html.replace(pattern, value);
+	}
+	
+	private void buildTemplate()
+	{
+		_html = _template.build(_templateValues);
+		_template = null;
+		_templateValues = null;
 	}
 	
 	public void replace(String pattern, CharSequence value)
@@ -149,7 +193,7 @@ public abstract class AbstractHtmlPacket extends ServerPacket
 		
 		if (player != null)
 		{
-			HtmlUtil.buildHtmlActionCache(player, getScope(), _npcObjId, _html);
+			HtmlUtil.buildHtmlActionCache(player, getScope(), _npcObjId, getHtml());
 		}
 	}
 	
@@ -160,6 +204,11 @@ public abstract class AbstractHtmlPacket extends ServerPacket
 	
 	public String getHtml()
 	{
+		if (_template != null)
+		{
+			buildTemplate();
+		}
+		
 		return _html;
 	}
 	
@@ -47,6 +47,12 @@ public class ExEnchantSkillInfo extends ServerPacket
 		_routes = EnchantSkillGroupsData.getInstance().getRouteForSkill(_skillId, _skillLevel);
 	}
 	
+	@Override
+	protected boolean canBroadcast()
+	{
+		return false;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
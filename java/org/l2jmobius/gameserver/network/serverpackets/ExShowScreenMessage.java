@@ -258,6 +258,13 @@ public class ExShowScreenMessage extends ServerPacket
 		}
 	}
 	
+	@Override
+	protected boolean canBroadcast()
+	{
+		// Localised data is written for each client.
+		return !MultilingualSupportConfig.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
@@ -267,6 +267,13 @@ public class NpcInfo extends AbstractMaskPacket<NpcInfoType>
 		}
 	}
 	
+	@Override
+	protected boolean canBroadcast()
+	{
+		// Localised data is written for each client.
+		return !MultilingualSupportConfig.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
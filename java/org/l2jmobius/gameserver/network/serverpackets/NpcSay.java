@@ -122,6 +122,13 @@ public class NpcSay extends ServerPacket
 		return this;
 	}
 	
+	@Override
+	protected boolean canBroadcast()
+	{
+		// Localised data is written for each client.
+		return !MultilingualSupportConfig.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
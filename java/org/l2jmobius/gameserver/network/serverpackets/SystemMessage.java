@@ -399,6 +399,13 @@ public class SystemMessage extends ServerPacket
 		return _params;
 	}
 	
+	@Override
+	protected boolean canBroadcast()
+	{
+		// Localised data is written for each client.
+		return !MultilingualSupportConfig.MULTILANG_ENABLE;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
@@ -31,6 +31,12 @@ import org.l2jmobius.gameserver.network.serverpackets.ServerPacket;
  */
 public class ExCostumeCollectionSkillActive extends ServerPacket
 {
+	@Override
+	protected boolean canBroadcast()
+	{
+		return false;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
@@ -40,6 +40,12 @@ import org.l2jmobius.gameserver.network.serverpackets.ServerPacket;
  */
 public class ExSendCostumeListFull extends ServerPacket
 {
+	@Override
+	protected boolean canBroadcast()
+	{
+		return false;
+	}
+	
 	@Override
 	public void writeImpl(GameClient client, WritableBuffer buffer)
 	{
@@ -58,6 +58,7 @@ public class ScriptEngine implements IXmlReader
 	public static final Path SKILL_CONDITION_HANDLER_FILE = Paths.get(SCRIPT_FOLDER.toString(), "handlers", "SkillConditionMasterHandler.java");
 	public static final Path CONDITION_HANDLER_FILE = Paths.get(SCRIPT_FOLDER.toString(), "handlers", "ConditionMasterHandler.java");
 	public static final Path ONE_DAY_REWARD_MASTER_HANDLER = Paths.get(SCRIPT_FOLDER.toString(), "handlers", "DailyMissionMasterHandler.java");
+	public static final Path SCRIPT_CACHE_FILE = SCRIPT_FOLDER.resolveSibling("scripts.cache");
 	
 	private static final ScriptExecutor SCRIPT_EXECUTOR = new ScriptExecutor();
 	private static final Set<String> EXCLUSIONS = new HashSet<>();
@@ -199,7 +200,7 @@ public class ScriptEngine implements IXmlReader
 		final List<Path> files = new ArrayList<>();
 		processDirectory(SCRIPT_FOLDER.toFile(), files);
 		
-		final Map<Path, Throwable> invokationErrors = SCRIPT_EXECUTOR.executeScripts(files);
+		final Map<Path, Throwable> invokationErrors = ServerConfig.SCRIPT_CACHE ? SCRIPT_EXECUTOR.executeScripts(files, SCRIPT_FOLDER, SCRIPT_CACHE_FILE) : SCRIPT_EXECUTOR.executeScripts(files);
 		for (Entry<Path, Throwable> entry : invokationErrors.entrySet())
 		{
 			LOGGER.warning(getClass().getSimpleName() + ": " + entry.getKey() + " failed execution! " + entry.getValue().getMessage());
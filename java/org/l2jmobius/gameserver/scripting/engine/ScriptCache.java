@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.scripting.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of compiled script classes.<br>
+ * The cache is keyed by a fingerprint of every script source, the executed script list, the compiler options, the content of the server class path and the Java version.<br>
+ * Any change to one of them invalidates the whole cache, since constants inlined by the compiler leave no trace of which scripts depend on each other.
+ * @author Mobius
+ */
+public class ScriptCache
+{
+	private static final Logger LOGGER = Logger.getLogger(ScriptCache.class.getName());
+	
+	private static final int VERSION = 1;
+	
+	private final Path _cacheFile;
+	private final String _fingerprint;
+	
+	/**
+	 * @param cacheFile the cache file
+	 * @param scriptFolder the script root folder
+	 * @param sourcePaths the scripts that will be executed
+	 * @param options the compiler options
+	 * @throws IOException if the script sources cannot be read
+	 */
+	public ScriptCache(Path cacheFile, Path scriptFolder, Iterable<Path> sourcePaths, List<String> options) throws IOException
+	{
+		_cacheFile = cacheFile;
+		_fingerprint = calculateFingerprint(scriptFolder, sourcePaths, options);
+	}
+	
+	private static String calculateFingerprint(Path scriptFolder, Iterable<Path> sourcePaths, List<String> options) throws IOException
+	{
+		final MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IOException(e);
+		}
+		
+		update(digest, Runtime.version().toString());
+		for (String option : options)
+		{
+			update(digest, option);
+		}
+		
+		final Set<Path> classPath = new HashSet<>();
+		for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator))
+		{
+			if (!entry.isEmpty())
+			{
+				updateClassPath(digest, Paths.get(entry).toAbsolutePath().normalize(), classPath);
+			}
+		}
+		
+		for (Path sourcePath : sourcePaths)
+		{
+			update(digest, sourcePath.toAbsolutePath().toString());
+		}
+		
+		final List<Path> sources;
+		try (Stream<Path> stream = Files.walk(scriptFolder))
+		{
+			sources = stream.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path)).sorted().toList();
+		}
+		
+		for (Path source : sources)
+		{
+			update(digest, source.toAbsolutePath().toString());
+			digest.update(Files.readAllBytes(source));
+		}
+		
+		final StringBuilder sb = new StringBuilder();
+		for (byte b : digest.digest())
+		{
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Hashes the content of a class path entry, every file of a directory entry and the entries listed by the manifest of a jar.<br>
+	 * File sizes and modification times are not used, since they do not change for directories and are not reliable for rebuilt jars.
+	 * @param digest the digest to update
+	 * @param path the class path entry
+	 * @param visited the entries already hashed
+	 * @throws IOException if the entry cannot be read
+	 */
+	private static void updateClassPath(MessageDigest digest, Path path, Set<Path> visited) throws IOException
+	{
+		if (!visited.add(path))
+		{
+			return;
+		}
+		
+		update(digest, path.toString());
+		if (Files.isDirectory(path))
+		{
+			final List<Path> files;
+			try (Stream<Path> stream = Files.walk(path))
+			{
+				files = stream.filter(Files::isRegularFile).sorted().toList();
+			}
+			
+			for (Path file : files)
+			{
+				update(digest, path.relativize(file).toString());
+				updateContent(digest, file);
+			}
+		}
+		else if (Files.isRegularFile(path))
+		{
+			updateContent(digest, path);
+			if (path.toString().endsWith(".jar"))
+			{
+				final String manifestClassPath;
+				try (JarFile jar = new JarFile(path.toFile()))
+				{
+					final Manifest manifest = jar.getManifest();
+					manifestClassPath = manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+				}
+				
+				if (manifestClassPath != null)
+				{
+					for (String entry : manifestClassPath.trim().split("\\s+"))
+					{
+						if (!entry.isEmpty())
+						{
+							updateClassPath(digest, path.resolveSibling(entry).normalize(), visited);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private static void updateContent(MessageDigest digest, Path file) throws IOException
+	{
+		try (InputStream in = Files.newInputStream(file))
+		{
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) > 0)
+			{
+				digest.update(buffer, 0, read);
+			}
+		}
+	}
+	
+	private static void update(MessageDigest digest, String value)
+	{
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+	
+	/**
+	 * Loads the cached classes if the cache matches the current fingerprint.
+	 * @return the cached classes, or {@code null} if the cache is missing or outdated
+	 */
+	public List<ScriptClassData> load()
+	{
+		if (!Files.isRegularFile(_cacheFile))
+		{
+			return null;
+		}
+		
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(_cacheFile))))
+		{
+			if ((in.readInt() != VERSION) || !in.readUTF().equals(_fingerprint))
+			{
+				return null;
+			}
+			
+			final int count = in.readInt();
+			final List<ScriptClassData> classes = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				final String sourcePath = in.readUTF();
+				final String javaName = in.readUTF();
+				final byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				classes.add(new ScriptClassData(sourcePath.isEmpty() ? null : Paths.get(sourcePath), javaName, javaName.substring(javaName.lastIndexOf('.') + 1), data));
+			}
+			return classes;
+		}
+		catch (Exception e)
+		{
+			LOGGER.warning(getClass().getSimpleName() + ": Could not read " + _cacheFile + ", scripts will be compiled. " + e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Stores the compiled classes under the current fingerprint.
+	 * @param classes the compiled classes
+	 */
+	public void store(Iterable<ScriptClassData> classes)
+	{
+		final List<ScriptClassData> list = new ArrayList<>();
+		classes.forEach(list::add);
+		
+		final Path tempFile = _cacheFile.resolveSibling(_cacheFile.getFileName() + ".tmp");
+		try
+		{
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile))))
+			{
+				out.writeInt(VERSION);
+				out.writeUTF(_fingerprint);
+				out.writeInt(list.size());
+				for (ScriptClassData compiledClass : list)
+				{
+					final byte[] data = compiledClass.getJavaData();
+					out.writeUTF(compiledClass.getSourcePath() == null ? "" : compiledClass.getSourcePath().toString());
+					out.writeUTF(compiledClass.getJavaName());
+					out.writeInt(data.length);
+					out.write(data);
+				}
+			}
+			Files.move(tempFile, _cacheFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException e)
+		{
+			LOGGER.warning(getClass().getSimpleName() + ": Could not write " + _cacheFile + ". " + e.getMessage());
+		}
+	}
+}
@@ -50,6 +50,12 @@ public class ScriptClassData implements JavaFileObject
 		_out = new ByteArrayOutputStream();
 	}
 	
+	public ScriptClassData(Path sourcePath, String javaName, String javaSimpleName, byte[] javaData)
+	{
+		this(sourcePath, javaName, javaSimpleName);
+		_out.writeBytes(javaData);
+	}
+	
 	public Path getSourcePath()
 	{
 		return _sourcePath;
@@ -87,6 +87,39 @@ public class ScriptExecutor
 	}
 	
 	public Map<Path, Throwable> executeScripts(Iterable<Path> sourcePaths) throws Exception
+	{
+		return executeCompiledClasses(sourcePaths, compileScripts(sourcePaths));
+	}
+	
+	/**
+	 * Executes the given scripts, loading their classes from the cache file when it is still valid.<br>
+	 * The cache file is rewritten after compiling when it is missing or outdated.
+	 * @param sourcePaths the scripts to execute
+	 * @param scriptFolder the script root folder
+	 * @param cacheFile the compiled script cache file
+	 * @return the scripts that failed execution
+	 * @throws Exception if compilation fails
+	 */
+	public Map<Path, Throwable> executeScripts(Iterable<Path> sourcePaths, Path scriptFolder, Path cacheFile) throws Exception
+	{
+		final long start = System.currentTimeMillis();
+		final ScriptCache cache = new ScriptCache(cacheFile, scriptFolder, sourcePaths, OPTIONS);
+		Iterable<ScriptClassData> compiledClasses = cache.load();
+		if (compiledClasses != null)
+		{
+			LOGGER.info("ScriptEngine: Loaded compiled scripts from cache in " + (System.currentTimeMillis() - start) + " ms.");
+		}
+		else
+		{
+			compiledClasses = compileScripts(sourcePaths);
+			cache.store(compiledClasses);
+			LOGGER.info("ScriptEngine: Compiled scripts and updated the cache in " + (System.currentTimeMillis() - start) + " ms.");
+		}
+		
+		return executeCompiledClasses(sourcePaths, compiledClasses);
+	}
+	
+	private Iterable<ScriptClassData> compileScripts(Iterable<Path> sourcePaths) throws Exception
 	{
 		final DiagnosticCollector<JavaFileObject> fileManagerDiagnostics = new DiagnosticCollector<>();
 		final DiagnosticCollector<JavaFileObject> compilationDiagnostics = new DiagnosticCollector<>();
@@ -109,55 +142,59 @@ public class ScriptExecutor
 				throw new RuntimeException(strOut.toString());
 			}
 			
-			final Map<Path, Throwable> executionFailures = new HashMap<>();
-			final Iterable<ScriptClassData> compiledClasses = fileManager.getCompiledClasses();
-			
-			// Add all newly compiled classes to the script class loader.
-			SCRIPT_CLASS_LOADER.addCompiledClasses(compiledClasses);
-			
-			for (Path sourcePath : sourcePaths)
+			return fileManager.getCompiledClasses();
+		}
+	}
+	
+	private Map<Path, Throwable> executeCompiledClasses(Iterable<Path> sourcePaths, Iterable<ScriptClassData> compiledClasses)
+	{
+		final Map<Path, Throwable> executionFailures = new HashMap<>();
+		
+		// Add all newly compiled classes to the script class loader.
+		SCRIPT_CLASS_LOADER.addCompiledClasses(compiledClasses);
+		
+		for (Path sourcePath : sourcePaths)
+		{
+			boolean found = false;
+			for (ScriptClassData compiledClass : compiledClasses)
 			{
-				boolean found = false;
-				for (ScriptClassData compiledClass : compiledClasses)
+				final Path compiledSourcePath = compiledClass.getSourcePath();
+				
+				// sourcePath can be relative, so we have to use endsWith
+				if ((compiledSourcePath != null) && (compiledSourcePath.equals(sourcePath) || compiledSourcePath.endsWith(sourcePath)))
 				{
-					final Path compiledSourcePath = compiledClass.getSourcePath();
+					final String javaName = compiledClass.getJavaName();
+					if (javaName.indexOf('$') != -1)
+					{
+						continue;
+					}
 					
-					// sourcePath can be relative, so we have to use endsWith
-					if ((compiledSourcePath != null) && (compiledSourcePath.equals(sourcePath) || compiledSourcePath.endsWith(sourcePath)))
+					found = true;
+					_currentExecutingScript = compiledSourcePath;
+					try
 					{
-						final String javaName = compiledClass.getJavaName();
-						if (javaName.indexOf('$') != -1)
-						{
-							continue;
-						}
-						
-						found = true;
-						_currentExecutingScript = compiledSourcePath;
-						try
-						{
-							final Class<?> javaClass = SCRIPT_CLASS_LOADER.loadClass(javaName);
-							executeMainMethod(javaClass, compiledSourcePath);
-						}
-						catch (Exception e)
-						{
-							executionFailures.put(compiledSourcePath, e);
-						}
-						finally
-						{
-							_currentExecutingScript = null;
-						}
-						break;
+						final Class<?> javaClass = SCRIPT_CLASS_LOADER.loadClass(javaName);
+						executeMainMethod(javaClass, compiledSourcePath);
 					}
-				}
-				
-				if (!found)
-				{
-					LOGGER.severe("Compilation successful, but class corresponding to " + sourcePath.toString() + " not found!");
+					catch (Exception e)
+					{
+						executionFailures.put(compiledSourcePath, e);
+					}
+					finally
+					{
+						_currentExecutingScript = null;
+					}
+					break;
 				}
 			}
 			
-			return executionFailures;
+			if (!found)
+			{
+				LOGGER.severe("Compilation successful, but class corresponding to " + sourcePath.toString() + " not found!");
+			}
 		}
+		
+		return executionFailures;
 	}
 	
 	private void logDiagnostics(PrintWriter out, DiagnosticCollector<JavaFileObject> fileManagerDiagnostics, DiagnosticCollector<JavaFileObject> compilationDiagnostics)
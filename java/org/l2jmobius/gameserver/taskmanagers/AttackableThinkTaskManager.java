@@ -20,11 +20,6 @@
  */
 package org.l2jmobius.gameserver.taskmanagers;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.ai.CreatureAI;
 import org.l2jmobius.gameserver.model.actor.Attackable;
 
@@ -33,91 +28,47 @@ import org.l2jmobius.gameserver.model.actor.Attackable;
  */
 public class AttackableThinkTaskManager
 {
-	private static final Set<Set<Attackable>> POOLS = ConcurrentHashMap.newKeySet();
-	private static final int POOL_SIZE = 1000;
 	private static final int TASK_DELAY = 1000;
 	
+	private final TickTaskManager<Attackable> _attackables = new TickTaskManager<>("AttackableThinkTaskManager", TASK_DELAY, true, AttackableThinkTaskManager::think);
+	
 	protected AttackableThinkTaskManager()
 	{
 	}
 	
-	private class AttackableThink implements Runnable
+	private static boolean think(Attackable attackable)
 	{
-		private final Set<Attackable> _attackables;
-		
-		public AttackableThink(Set<Attackable> attackables)
+		if (!attackable.hasAI())
 		{
-			_attackables = attackables;
+			return true;
 		}
 		
-		@Override
-		public void run()
+		final CreatureAI ai = attackable.getAI();
+		if (ai == null)
 		{
-			if (_attackables.isEmpty())
-			{
-				return;
-			}
-			
-			CreatureAI ai;
-			Attackable attackable;
-			final Iterator<Attackable> iterator = _attackables.iterator();
-			while (iterator.hasNext())
-			{
-				attackable = iterator.next();
-				if (attackable.hasAI())
-				{
-					ai = attackable.getAI();
-					if (ai != null)
-					{
-						ai.onActionThink();
-					}
-					else
-					{
-						iterator.remove();
-					}
-				}
-				else
-				{
-					iterator.remove();
-				}
-			}
+			return true;
 		}
+		
+		ai.onActionThink();
+		return false;
 	}
 	
-	public synchronized void add(Attackable attackable)
+	public void add(Attackable attackable)
 	{
-		for (Set<Attackable> pool : POOLS)
-		{
-			if (pool.contains(attackable))
-			{
-				return;
-			}
-		}
-		
-		for (Set<Attackable> pool : POOLS)
-		{
-			if (pool.size() < POOL_SIZE)
-			{
-				pool.add(attackable);
-				return;
-			}
-		}
-		
-		final Set<Attackable> pool = ConcurrentHashMap.newKeySet(POOL_SIZE);
-		pool.add(attackable);
-		ThreadPool.schedulePriorityTaskAtFixedRate(new AttackableThink(pool), TASK_DELAY, TASK_DELAY);
-		POOLS.add(pool);
+		_attackables.add(attackable);
 	}
 	
 	public void remove(Attackable attackable)
 	{
-		for (Set<Attackable> pool : POOLS)
-		{
-			if (pool.remove(attackable))
-			{
-				return;
-			}
-		}
+		_attackables.remove(attackable);
+	}
+	
+	/**
+	 * @return the tick scheduler of thinking attackables
+	 */
+	public TickTaskManager<Attackable> getTicks()
+	{
+		return _attackables;
 	}
 	
 	public static AttackableThinkTaskManager getInstance()
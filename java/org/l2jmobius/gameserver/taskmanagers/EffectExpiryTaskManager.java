@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.taskmanagers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.l2jmobius.commons.config.ThreadConfig;
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.gameserver.model.actor.Creature;
+import org.l2jmobius.gameserver.model.skill.BuffInfo;
+import org.l2jmobius.gameserver.model.skill.enums.SkillFinishType;
+
+/**
+ * Expires the timed effects of all creatures.<br>
+ * Effects are indexed by their absolute expiration time in shards selected by the object id of the effected creature, so all effects of a creature that expire together are stopped with a single task.<br>
+ * Each shard checks for expired effects every {@value #TICK_DELAY} milliseconds and shards are started at evenly spaced offsets of that period.<br>
+ * Cancelled and rescheduled effects are removed from their previous slot, so the index never keeps stopped effects or their creatures reachable.
+ * @author Mobius
+ */
+public class EffectExpiryTaskManager
+{
+	private static final int TICK_DELAY = 250;
+	
+	private final ExpiryShard[] _shards;
+	
+	protected EffectExpiryTaskManager()
+	{
+		_shards = new ExpiryShard[ThreadConfig.TICK_SHARD_COUNT];
+		for (int i = 0; i < _shards.length; i++)
+		{
+			_shards[i] = new ExpiryShard();
+			ThreadPool.scheduleAtFixedRate(_shards[i], TICK_DELAY + ((TICK_DELAY * i) / _shards.length), TICK_DELAY);
+		}
+	}
+	
+	private static class ExpiryShard implements Runnable
+	{
+		private final TreeMap<Long, List<BuffInfo>> _expirations = new TreeMap<>();
+		private int _size;
+		
+		public synchronized void schedule(BuffInfo info, long expireTime)
+		{
+			unschedule(info);
+			info.setExpireTime(expireTime);
+			_expirations.computeIfAbsent(expireTime / TICK_DELAY, _ -> new ArrayList<>()).add(info);
+			_size++;
+		}
+		
+		public synchronized long cancel(BuffInfo info)
+		{
+			final long expireTime = unschedule(info);
+			return expireTime == 0 ? 0 : Math.max(0, expireTime - System.currentTimeMillis());
+		}
+		
+		/**
+		 * Removes an effect from the slot of its expiration time.
+		 * @param info the effect
+		 * @return the previous expiration time of the effect, 0 if it was not scheduled
+		 */
+		private long unschedule(BuffInfo info)
+		{
+			final long expireTime = info.getExpireTime();
+			if (expireTime == 0)
+			{
+				return 0;
+			}
+			
+			info.setExpireTime(0);
+			
+			final long slot = expireTime / TICK_DELAY;
+			final List<BuffInfo> infos = _expirations.get(slot);
+			if (infos != null)
+			{
+				for (int i = 0; i < infos.size(); i++)
+				{
+					if (infos.get(i) == info)
+					{
+						infos.remove(i);
+						_size--;
+						if (infos.isEmpty())
+						{
+							_expirations.remove(slot);
+						}
+						break;
+					}
+				}
+			}
+			
+			return expireTime;
+		}
+		
+		@Override
+		public void run()
+		{
+			final long currentTime = System.currentTimeMillis();
+			Map<Creature, List<BuffInfo>> expired = null;
+			synchronized (this)
+			{
+				final long currentSlot = currentTime / TICK_DELAY;
+				List<BuffInfo> pending = null;
+				Entry<Long, List<BuffInfo>> entry;
+				while (((entry = _expirations.firstEntry()) != null) && (entry.getKey() <= currentSlot))
+				{
+					_expirations.pollFirstEntry();
+					_size -= entry.getValue().size();
+					for (BuffInfo info : entry.getValue())
+					{
+						final long expireTime = info.getExpireTime();
+						
+						// Keep effects of the current slot that expire later in this tick period.
+						if (expireTime > currentTime)
+						{
+							if (pending == null)
+							{
+								pending = new ArrayList<>();
+							}
+							
+							pending.add(info);
+							continue;
+						}
+						
+						info.setExpireTime(0);
+						
+						final Creature effected = info.getEffected();
+						if (effected != null)
+						{
+							if (expired == null)
+							{
+								expired = new HashMap<>();
+							}
+							
+							expired.computeIfAbsent(effected, _ -> new ArrayList<>()).add(info);
+						}
+					}
+				}
+				
+				if (pending != null)
+				{
+					_expirations.put(currentSlot, pending);
+					_size += pending.size();
+				}
+			}
+			
+			if (expired != null)
+			{
+				for (Entry<Creature, List<BuffInfo>> entry : expired.entrySet())
+				{
+					final Creature effected = entry.getKey();
+					final List<BuffInfo> infos = entry.getValue();
+					ThreadPool.execute(() ->
+					{
+						for (BuffInfo info : infos)
+						{
+							effected.getEffectList().stopSkillEffects(SkillFinishType.NORMAL, info.getSkill().getId());
+						}
+					});
+				}
+			}
+		}
+	}
+	
+	private ExpiryShard getShard(BuffInfo info)
+	{
+		return _shards[(info.getEffected().getObjectId() & Integer.MAX_VALUE) % _shards.length];
+	}
+	
+	/**
+	 * Schedules an effect to expire at the given time, replacing any previous expiration time of the effect.
+	 * @param info the effect
+	 * @param expireTime the expiration time in milliseconds
+	 */
+	public void schedule(BuffInfo info, long expireTime)
+	{
+		getShard(info).schedule(info, expireTime);
+	}
+	
+	/**
+	 * Cancels the expiration of an effect.
+	 * @param info the effect
+	 * @return the time that was left before the effect expired, in milliseconds
+	 */
+	public long cancel(BuffInfo info)
+	{
+		return getShard(info).cancel(info);
+	}
+	
+	/**
+	 * @return the number of effects in the expiration index of all shards
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (ExpiryShard shard : _shards)
+		{
+			synchronized (shard)
+			{
+				size += shard._size;
+			}
+		}
+		
+		return size;
+	}
+	
+	public static EffectExpiryTaskManager getInstance()
+	{
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final EffectExpiryTaskManager INSTANCE = new EffectExpiryTaskManager();
+	}
+}
@@ -20,13 +20,6 @@
  */
 package org.l2jmobius.gameserver.taskmanagers;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Logger;
-
-import org.l2jmobius.commons.threads.ThreadPool;
-import org.l2jmobius.commons.util.TraceUtil;
 import org.l2jmobius.gameserver.ai.Action;
 import org.l2jmobius.gameserver.model.actor.Creature;
 
@@ -36,113 +29,74 @@ import org.l2jmobius.gameserver.model.actor.Creature;
  */
 public class MovementTaskManager
 {
-	protected static final Logger LOGGER = Logger.getLogger(MovementTaskManager.class.getName());
-	
-	private static final Set<Set<Creature>> POOLS_CREATURE = ConcurrentHashMap.newKeySet();
-	private static final Set<Set<Creature>> POOLS_PLAYER = ConcurrentHashMap.newKeySet();
-	private static final int POOL_SIZE_CREATURE = 1000;
-	private static final int POOL_SIZE_PLAYER = 500;
 	private static final int TASK_DELAY_CREATURE = 100;
 	private static final int TASK_DELAY_PLAYER = 50;
 	
+	private final TickTaskManager<Creature> _creatures = new TickTaskManager<>("MovementTaskManager", TASK_DELAY_CREATURE, false, MovementTaskManager::updatePosition);
+	private final TickTaskManager<Creature> _players = new TickTaskManager<>("MovementTaskManager", TASK_DELAY_PLAYER, true, MovementTaskManager::updatePosition);
+	
 	protected MovementTaskManager()
 	{
 	}
 	
-	private class Movement implements Runnable
+	private static boolean updatePosition(Creature creature)
 	{
-		private final Set<Creature> _creatures;
-		
-		public Movement(Set<Creature> creatures)
+		if (creature.updatePosition())
 		{
-			_creatures = creatures;
+			// Removed before notifying, since ARRIVED may register the next move of a route.
+			getInstance().unregisterMovingObject(creature);
+			creature.getAI().notifyAction(Action.ARRIVED);
 		}
 		
-		@Override
-		public void run()
-		{
-			if (_creatures.isEmpty())
-			{
-				return;
-			}
-			
-			Creature creature;
-			final Iterator<Creature> iterator = _creatures.iterator();
-			while (iterator.hasNext())
-			{
-				creature = iterator.next();
-				try
-				{
-					if (creature.updatePosition())
-					{
-						iterator.remove();
-						creature.getAI().notifyAction(Action.ARRIVED);
-					}
-				}
-				catch (Exception e)
-				{
-					iterator.remove();
-					LOGGER.warning("MovementTaskManager: Problem updating position of " + creature);
-					LOGGER.warning(TraceUtil.getStackTrace(e));
-				}
-			}
-		}
+		return false;
 	}
 	
 	/**
 	 * Add a Creature to moving objects of MovementTaskManager.
 	 * @param creature The Creature to add to moving objects of MovementTaskManager.
 	 */
-	public synchronized void registerMovingObject(Creature creature)
+	public void registerMovingObject(Creature creature)
 	{
 		if (creature.isPlayer())
 		{
-			for (Set<Creature> pool : POOLS_PLAYER)
-			{
-				if (pool.contains(creature))
-				{
-					return;
-				}
-			}
-			
-			for (Set<Creature> pool : POOLS_PLAYER)
-			{
-				if (pool.size() < POOL_SIZE_PLAYER)
-				{
-					pool.add(creature);
-					return;
-				}
-			}
-			
-			final Set<Creature> pool = ConcurrentHashMap.newKeySet(POOL_SIZE_PLAYER);
-			pool.add(creature);
-			ThreadPool.schedulePriorityTaskAtFixedRate(new Movement(pool), TASK_DELAY_PLAYER, TASK_DELAY_PLAYER);
-			POOLS_PLAYER.add(pool);
+			_players.add(creature);
 		}
 		else
 		{
-			for (Set<Creature> pool : POOLS_CREATURE)
-			{
-				if (pool.contains(creature))
-				{
-					return;
-				}
-			}
-			
-			for (Set<Creature> pool : POOLS_CREATURE)
-			{
-				if (pool.size() < POOL_SIZE_CREATURE)
-				{
-					pool.add(creature);
-					return;
-				}
-			}
-			
-			final Set<Creature> pool = ConcurrentHashMap.newKeySet(POOL_SIZE_CREATURE);
-			pool.add(creature);
-			ThreadPool.scheduleAtFixedRate(new Movement(pool), TASK_DELAY_CREATURE, TASK_DELAY_CREATURE);
-			POOLS_CREATURE.add(pool);
+			_creatures.add(creature);
+		}
+	}
+	
+	/**
+	 * Remove a Creature from moving objects of MovementTaskManager.
+	 * @param creature The Creature to remove from moving objects of MovementTaskManager.
+	 */
+	private void unregisterMovingObject(Creature creature)
+	{
+		if (creature.isPlayer())
+		{
+			_players.remove(creature);
 		}
+		else
+		{
+			_creatures.remove(creature);
+		}
+	}
+	
+	/**
+	 * @return the tick scheduler of moving players
+	 */
+	public TickTaskManager<Creature> getPlayerTicks()
+	{
+		return _players;
+	}
+	
+	/**
+	 * @return the tick scheduler of moving creatures other than players
+	 */
+	public TickTaskManager<Creature> getCreatureTicks()
+	{
+		return _creatures;
 	}
 	
 	public static final MovementTaskManager getInstance()
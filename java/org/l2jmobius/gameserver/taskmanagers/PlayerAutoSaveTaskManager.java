@@ -20,23 +20,37 @@
  */
 package org.l2jmobius.gameserver.taskmanagers;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.gameserver.config.GeneralConfig;
 import org.l2jmobius.gameserver.model.actor.Player;
 
 /**
+ * Periodically stores online players.<br>
+ * Every due player is saved on each check. Players are grouped in batches that share one database transaction for their characters table rows, and at most {@link GeneralConfig#CHAR_DATA_STORE_THREADS} batches run at the same time. Players that do not fit wait for the next check.
  * @author Mobius
  */
 public class PlayerAutoSaveTaskManager implements Runnable
 {
+	private static final Logger LOGGER = Logger.getLogger(PlayerAutoSaveTaskManager.class.getName());
+	
 	private static final Map<Player, Long> PLAYER_TIMES = new ConcurrentHashMap<>();
+	private static final AtomicInteger RUNNING_BATCHES = new AtomicInteger();
 	private static boolean _working = false;
 	
+	// Statistics of the last completed cycle.
+	private static volatile int _lastCycleSaved = 0;
+	private static volatile long _lastCycleTime = 0;
+	private static volatile int _backlog = 0;
+	
 	protected PlayerAutoSaveTaskManager()
 	{
 		ThreadPool.scheduleAtFixedRate(this, 1000, 1000);
@@ -54,6 +68,11 @@ public class PlayerAutoSaveTaskManager implements Runnable
 		
 		if (!PLAYER_TIMES.isEmpty())
 		{
+			final int freeBatches = GeneralConfig.CHAR_DATA_STORE_THREADS - RUNNING_BATCHES.get();
+			final int capacity = Math.max(0, freeBatches) * GeneralConfig.CHAR_DATA_STORE_BATCH_SIZE;
+			final List<Player> due = new ArrayList<>();
+			int backlog = 0;
+			
 			final long currentTime = System.currentTimeMillis();
 			final Iterator<Entry<Player, Long>> iterator = PLAYER_TIMES.entrySet().iterator();
 			Entry<Player, Long> entry;
@@ -70,14 +89,40 @@ public class PlayerAutoSaveTaskManager implements Runnable
 				{
 					if ((player != null) && player.isOnline())
 					{
-						player.autoSave();
-						PLAYER_TIMES.put(player, currentTime + GeneralConfig.CHAR_DATA_STORE_INTERVAL);
-						break; // Prevent SQL flood.
+						if (due.size() < capacity)
+						{
+							due.add(player);
+							entry.setValue(currentTime + GeneralConfig.CHAR_DATA_STORE_INTERVAL);
+						}
+						else
+						{
+							backlog++; // Saved on a following check.
+						}
+						continue;
 					}
 					
 					iterator.remove();
 				}
 			}
+			
+			_backlog = backlog;
+			
+			if (!due.isEmpty())
+			{
+				final AutoSaveCycle cycle = new AutoSaveCycle(due.size(), backlog);
+				final List<List<Player>> batches = new ArrayList<>();
+				for (int i = 0; i < due.size(); i += GeneralConfig.CHAR_DATA_STORE_BATCH_SIZE)
+				{
+					batches.add(due.subList(i, Math.min(i + GeneralConfig.CHAR_DATA_STORE_BATCH_SIZE, due.size())));
+				}
+				
+				cycle.setBatches(batches.size());
+				for (List<Player> batch : batches)
+				{
+					RUNNING_BATCHES.incrementAndGet();
+					ThreadPool.execute(new AutoSaveBatch(batch, cycle));
+				}
+			}
 		}
 		
 		_working = false;
@@ -93,6 +138,112 @@ public class PlayerAutoSaveTaskManager implements Runnable
 		PLAYER_TIMES.remove(player);
 	}
 	
+	/**
+	 * @return the number of players saved by the last completed cycle.
+	 */
+	public int getLastCycleSaved()
+	{
+		return _lastCycleSaved;
+	}
+	
+	/**
+	 * @return the time in milliseconds the last completed cycle needed to save all of its players.
+	 */
+	public long getLastCycleTime()
+	{
+		return _lastCycleTime;
+	}
+	
+	/**
+	 * @return the number of due players that had to wait for a following check.
+	 */
+	public int getBacklog()
+	{
+		return _backlog;
+	}
+	
+	/**
+	 * Keeps track of the batches dispatched by a single check.
+	 */
+	private static class AutoSaveCycle
+	{
+		private final long _startTime = System.currentTimeMillis();
+		private final AtomicInteger _pendingBatches = new AtomicInteger();
+		private final int _players;
+		private final int _backlog;
+		
+		public AutoSaveCycle(int players, int backlog)
+		{
+			_players = players;
+			_backlog = backlog;
+		}
+		
+		public void setBatches(int batches)
+		{
+			_pendingBatches.set(batches);
+		}
+		
+		public void onBatchComplete()
+		{
+			if (_pendingBatches.decrementAndGet() > 0)
+			{
+				return;
+			}
+			
+			final long time = System.currentTimeMillis() - _startTime;
+			_lastCycleSaved = _players;
+			_lastCycleTime = time;
+			if (_backlog > 0)
+			{
+				LOGGER.warning("PlayerAutoSaveTaskManager: Saved " + _players + " players in " + time + " ms, " + _backlog + " players are waiting.");
+			}
+			else
+			{
+				LOGGER.fine("PlayerAutoSaveTaskManager: Saved " + _players + " players in " + time + " ms.");
+			}
+		}
+	}
+	
+	/**
+	 * Stores a group of players, writing their characters table rows in a single batch.
+	 */
+	private static class AutoSaveBatch implements Runnable
+	{
+		private final List<Player> _players;
+		private final AutoSaveCycle _cycle;
+		
+		public AutoSaveBatch(List<Player> players, AutoSaveCycle cycle)
+		{
+			_players = players;
+			_cycle = cycle;
+		}
+		
+		@Override
+		public void run()
+		{
+			try
+			{
+				Player.storeCharBase(_players);
+				for (Player player : _players)
+				{
+					try
+					{
+						player.autoSave(false);
+					}
+					catch (Exception e)
+					{
+						LOGGER.warning("PlayerAutoSaveTaskManager: Could not store " + player + ": " + e.getMessage());
+					}
+				}
+			}
+			finally
+			{
+				RUNNING_BATCHES.decrementAndGet();
+				_cycle.onBatchComplete();
+			}
+		}
+	}
+	
 	public static PlayerAutoSaveTaskManager getInstance()
 	{
 		return SingletonHolder.INSTANCE;
@@ -70,7 +70,6 @@ public class RespawnTaskManager implements Runnable
 					if (spawn != null)
 					{
 						spawn.respawnNpc(npc);
-						spawn._scheduledCount--;
 					}
 				}
 			}
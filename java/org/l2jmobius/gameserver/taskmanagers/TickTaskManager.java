@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.gameserver.taskmanagers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import org.l2jmobius.commons.config.ThreadConfig;
+import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.util.TraceUtil;
+import org.l2jmobius.gameserver.model.WorldObject;
+
+/**
+ * Sharded tick scheduler for world objects that need to be processed periodically.<br>
+ * Objects are assigned to a fixed number of shards by object id, making add and remove constant time.<br>
+ * Each shard runs as its own fixed rate task and shards are started at evenly spaced offsets of the tick period.
+ * @param <T> the type of the processed objects
+ * @author Mobius
+ */
+public class TickTaskManager<T extends WorldObject>
+{
+	private static final Logger LOGGER = Logger.getLogger(TickTaskManager.class.getName());
+	
+	private static final long OVERRUN_WARNING_INTERVAL = 60000;
+	
+	private final String _name;
+	private final int _tickDelay;
+	private final Predicate<T> _action;
+	private final List<TickShard> _shards;
+	
+	/**
+	 * @param name the name used when reporting problems
+	 * @param tickDelay the tick period in milliseconds
+	 * @param highPriority if {@code true} the shards run on the high priority scheduled pool
+	 * @param action the action applied to each object on every tick, returning {@code true} when the object should be removed
+	 */
+	public TickTaskManager(String name, int tickDelay, boolean highPriority, Predicate<T> action)
+	{
+		_name = name;
+		_tickDelay = tickDelay;
+		_action = action;
+		_shards = new ArrayList<>(ThreadConfig.TICK_SHARD_COUNT);
+		for (int i = 0; i < ThreadConfig.TICK_SHARD_COUNT; i++)
+		{
+			final TickShard shard = new TickShard();
+			_shards.add(shard);
+			
+			final long initialDelay = tickDelay + (((long) tickDelay * i) / ThreadConfig.TICK_SHARD_COUNT);
+			if (highPriority)
+			{
+				ThreadPool.schedulePriorityTaskAtFixedRate(shard, initialDelay, tickDelay);
+			}
+			else
+			{
+				ThreadPool.scheduleAtFixedRate(shard, initialDelay, tickDelay);
+			}
+		}
+	}
+	
+	private class TickShard implements Runnable
+	{
+		private final Set<T> _objects = ConcurrentHashMap.newKeySet();
+		private long _expectedStart;
+		private long _lastOverrunWarning;
+		private volatile long _lastTickTime;
+		private volatile long _maxTickTime;
+		private volatile long _lag;
+		private volatile long _overruns;
+		
+		@Override
+		public void run()
+		{
+			final long start = System.currentTimeMillis();
+			_lag = _expectedStart == 0 ? 0 : Math.max(0, start - _expectedStart);
+			_expectedStart = (_expectedStart == 0 ? start : _expectedStart) + _tickDelay;
+			if (_objects.isEmpty())
+			{
+				_lastTickTime = 0;
+				return;
+			}
+			
+			T object;
+			final Iterator<T> iterator = _objects.iterator();
+			while (iterator.hasNext())
+			{
+				object = iterator.next();
+				try
+				{
+					if (_action.test(object))
+					{
+						iterator.remove();
+					}
+				}
+				catch (Exception e)
+				{
+					iterator.remove();
+					LOGGER.warning(_name + ": Problem processing " + object);
+					LOGGER.warning(TraceUtil.getStackTrace(e));
+				}
+			}
+			
+			final long tickTime = System.currentTimeMillis() - start;
+			_lastTickTime = tickTime;
+			if (tickTime > _maxTickTime)
+			{
+				_maxTickTime = tickTime;
+			}
+			
+			if (tickTime > _tickDelay)
+			{
+				_overruns++;
+				if ((start - _lastOverrunWarning) > OVERRUN_WARNING_INTERVAL)
+				{
+					_lastOverrunWarning = start;
+					LOGGER.warning(_name + ": Tick of " + _objects.size() + " objects took " + tickTime + "ms, exceeding the " + _tickDelay + "ms period.");
+				}
+			}
+		}
+	}
+	
+	private TickShard getShard(T object)
+	{
+		return _shards.get((object.getObjectId() & Integer.MAX_VALUE) % _shards.size());
+	}
+	
+	/**
+	 * Adds an object to be processed on every tick. Adding an object that is already present has no effect.
+	 * @param object the object to add
+	 */
+	public void add(T object)
+	{
+		getShard(object)._objects.add(object);
+	}
+	
+	/**
+	 * Removes an object from processing.
+	 * @param object the object to remove
+	 */
+	public void remove(T object)
+	{
+		getShard(object)._objects.remove(object);
+	}
+	
+	public boolean contains(T object)
+	{
+		return getShard(object)._objects.contains(object);
+	}
+	
+	/**
+	 * @return the total number of objects processed by all shards
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (TickShard shard : _shards)
+		{
+			size += shard._objects.size();
+		}
+		return size;
+	}
+	
+	public int getShardCount()
+	{
+		return _shards.size();
+	}
+	
+	public int getShardSize(int shard)
+	{
+		return _shards.get(shard)._objects.size();
+	}
+	
+	/**
+	 * @param shard the shard index
+	 * @return the duration of the last tick of the shard in milliseconds
+	 */
+	public long getShardLastTickTime(int shard)
+	{
+		return _shards.get(shard)._lastTickTime;
+	}
+	
+	/**
+	 * @param shard the shard index
+	 * @return the longest tick duration of the shard in milliseconds
+	 */
+	public long getShardMaxTickTime(int shard)
+	{
+		return _shards.get(shard)._maxTickTime;
+	}
+	
+	/**
+	 * @param shard the shard index
+	 * @return how late the last tick of the shard started compared to its schedule, in milliseconds
+	 */
+	public long getShardLag(int shard)
+	{
+		return _shards.get(shard)._lag;
+	}
+	
+	/**
+	 * @param shard the shard index
+	 * @return the number of ticks of the shard that took longer than the tick period
+	 */
+	public long getShardOverruns(int shard)
+	{
+		return _shards.get(shard)._overruns;
+	}
+}
@@ -20,6 +20,7 @@
  */
 package org.l2jmobius.gameserver.util;
 
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -195,14 +196,7 @@ public class Broadcast
 	 */
 	public static void toAllOnlinePlayers(ServerPacket packet)
 	{
-		packet.sendInBroadcast();
-		for (Player player : World.getInstance().getPlayers())
-		{
-			if (player.isOnline())
-			{
-				player.sendPacket(packet);
-			}
-		}
+		toPlayers(World.getInstance().getPlayers(), Player::isOnline, packet);
 	}
 	
 	public static void toAllOnlinePlayers(String text)
@@ -220,6 +214,43 @@ public class Broadcast
 		toAllOnlinePlayers(new ExShowScreenMessage(text, 10000));
 	}
 	
+	/**
+	 * Send a packet to the given players.<br>
+	 * The packet data is written once into a shared buffer, then only copied and encrypted for each player.
+	 * @param players : The players to send the packet.
+	 * @param packet : The packet to send.
+	 */
+	public static void toPlayers(Iterable<Player> players, ServerPacket packet)
+	{
+		packet.sendInBroadcast();
+		for (Player player : players)
+		{
+			if (player != null)
+			{
+				player.sendPacket(packet);
+			}
+		}
+	}
+	
+	/**
+	 * Send a packet to the given players that match a filter.<br>
+	 * The packet data is written once into a shared buffer, then only copied and encrypted for each player.
+	 * @param players : The candidate players.
+	 * @param filter : The condition a player must meet to receive the packet.
+	 * @param packet : The packet to send.
+	 */
+	public static void toPlayers(Iterable<Player> players, Predicate<Player> filter, ServerPacket packet)
+	{
+		packet.sendInBroadcast();
+		for (Player player : players)
+		{
+			if ((player != null) && filter.test(player))
+			{
+				player.sendPacket(packet);
+			}
+		}
+	}
+	
 	/**
 	 * Send a packet to all players in a specific zone type.
 	 * @param <T> ZoneType.
@@ -24,6 +24,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.KeyPairGenerator;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.spec.RSAKeyGenParameterSpec;
 import java.sql.Connection;
@@ -32,19 +33,25 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.crypto.Cipher;
 
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.threads.ThreadPool;
+import org.l2jmobius.commons.threads.ThreadProvider;
 import org.l2jmobius.commons.util.Rnd;
 import org.l2jmobius.loginserver.GameServerTable.GameServerInfo;
 import org.l2jmobius.loginserver.config.LoginConfig;
@@ -71,43 +78,107 @@ public class LoginController
 	public static final int LOGIN_TIMEOUT = 5 * 60 * 1000; // 5 minutes.
 	
 	private static final int BLOWFISH_KEYS = 20;
+	private static final int RSA_KEY_PAIRS = 10;
 	protected byte[][] _blowfishKeys;
-	protected ScrambledKeyPair[] _keyPairs;
+	protected final AtomicReferenceArray<ScrambledKeyPair> _keyPairs = new AtomicReferenceArray<>(RSA_KEY_PAIRS);
 	
 	/** Authed Clients on LoginServer */
 	protected Map<String, LoginClient> _loginServerClients = new ConcurrentHashMap<>();
 	
-	private final Map<String, Integer> _failedLoginAttemps = new HashMap<>();
+	private final Map<String, Integer> _failedLoginAttemps = new ConcurrentHashMap<>();
 	private final Map<String, Long> _bannedIps = new ConcurrentHashMap<>();
 	
+	/** Runs the CPU bound RSA decryption and password hashing of logins, so they do not wait behind database work. */
+	private final ThreadPoolExecutor _cryptoPool;
+	private final KeyPairGenerator _keyPairGenerator;
+	private int _nextKeyPairRotation;
+	
 	private static LoginController INSTANCE;
 	
 	private LoginController() throws GeneralSecurityException
 	{
 		LOGGER.info("Loading LoginController...");
-		_keyPairs = new ScrambledKeyPair[10];
-		
-		final KeyPairGenerator keygen = KeyPairGenerator.getInstance("RSA");
+		_keyPairGenerator = KeyPairGenerator.getInstance("RSA");
 		final RSAKeyGenParameterSpec spec = new RSAKeyGenParameterSpec(1024, RSAKeyGenParameterSpec.F4);
-		keygen.initialize(spec);
+		_keyPairGenerator.initialize(spec);
 		
 		// Generate the initial set of keys.
-		for (int i = 0; i < 10; i++)
+		for (int i = 0; i < RSA_KEY_PAIRS; i++)
 		{
-			_keyPairs[i] = new ScrambledKeyPair(keygen.generateKeyPair());
+			_keyPairs.set(i, new ScrambledKeyPair(_keyPairGenerator.generateKeyPair()));
 		}
 		
-		LOGGER.info("Cached 10 KeyPairs for RSA communication.");
+		LOGGER.info("Cached " + RSA_KEY_PAIRS + " KeyPairs for RSA communication.");
 		
-		testCipher((RSAPrivateKey) _keyPairs[0].getPrivateKey());
+		testCipher((RSAPrivateKey) _keyPairs.get(0).getPrivateKey());
 		
 		// Store keys for blowfish communication.
 		generateBlowFishKeys();
 		
+		final int cryptoThreads = LoginConfig.CRYPTO_THREAD_POOL_SIZE > 0 ? LoginConfig.CRYPTO_THREAD_POOL_SIZE : Runtime.getRuntime().availableProcessors();
+		_cryptoPool = new ThreadPoolExecutor(cryptoThreads, cryptoThreads, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(Math.max(1, LoginConfig.CRYPTO_QUEUE_SIZE)), new ThreadProvider("L2jMobius Login Crypto", true));
+		LOGGER.info("Started " + cryptoThreads + " threads for login decryption.");
+		
+		// Replace one key pair at a time in the background, so key generation never runs on a login path.
+		if (LoginConfig.KEY_PAIR_ROTATION_INTERVAL > 0)
+		{
+			final long interval = (LoginConfig.KEY_PAIR_ROTATION_INTERVAL * 60000L) / RSA_KEY_PAIRS;
+			ThreadPool.scheduleAtFixedRate(() ->
+			{
+				try
+				{
+					_cryptoPool.execute(this::rotateKeyPair);
+				}
+				catch (RejectedExecutionException e)
+				{
+					// Logins come first, the key pair is replaced on the next interval.
+				}
+			}, interval, interval);
+		}
+		
 		// Start the client purge task.
 		ThreadPool.scheduleAtFixedRate(this::purge, LOGIN_TIMEOUT, LOGIN_TIMEOUT);
 	}
 	
+	private void rotateKeyPair()
+	{
+		synchronized (_keyPairGenerator)
+		{
+			// Clients keep the key pair they were given on connection.
+			_keyPairs.set(_nextKeyPairRotation, new ScrambledKeyPair(_keyPairGenerator.generateKeyPair()));
+			_nextKeyPairRotation = (_nextKeyPairRotation + 1) % RSA_KEY_PAIRS;
+		}
+	}
+	
+	/**
+	 * Executes a CPU bound login task, such as RSA decryption, on the dedicated crypto pool.<br>
+	 * When the crypto queue is full the client is disconnected instead, so a login flood cannot queue work without limit.
+	 * @param client the client the task belongs to
+	 * @param task the task to execute
+	 */
+	public void executeCrypto(LoginClient client, Runnable task)
+	{
+		try
+		{
+			_cryptoPool.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			client.close(LoginFailReason.REASON_SERVER_OVERLOADED);
+		}
+	}
+	
+	/**
+	 * @param password the plain password
+	 * @return the Base64 encoded SHA digest stored for the password
+	 * @throws NoSuchAlgorithmException if the SHA digest is not available
+	 */
+	public static String hashPassword(String password) throws NoSuchAlgorithmException
+	{
+		final MessageDigest md = MessageDigest.getInstance("SHA");
+		return Base64.getEncoder().encodeToString(md.digest(password.getBytes(StandardCharsets.UTF_8)));
+	}
+	
 	/**
 	 * This is mostly to force the initialization of the Crypto Implementation, avoiding it being done on runtime when its first needed.<br>
 	 * In short it avoids the worst-case execution time on runtime by doing it on loading.
@@ -168,29 +239,32 @@ public class LoginController
 	
 	public AccountInfo retriveAccountInfo(String clientAddr, String login, String password)
 	{
-		return retriveAccountInfo(clientAddr, login, password, true);
+		try
+		{
+			return retriveAccountInfoByHash(clientAddr, login, hashPassword(password));
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			LOGGER.log(Level.WARNING, "Exception while retriving account info for '" + login + "'!", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * @param clientAddr the client address
+	 * @param login the account name
+	 * @param passwordHash the password hash, as returned by {@link #hashPassword(String)}
+	 * @return the account info, or {@code null} if the account does not exist or the password is wrong
+	 */
+	public AccountInfo retriveAccountInfoByHash(String clientAddr, String login, String passwordHash)
+	{
+		return retriveAccountInfo(clientAddr, login, passwordHash, true);
 	}
 	
 	private void recordFailedLoginAttemp(String addr)
 	{
-		// We need to synchronize this!
-		// When multiple connections from the same address fail to login at the same time, unexpected behavior can happen.
-		Integer failedLoginAttemps;
-		synchronized (_failedLoginAttemps)
-		{
-			failedLoginAttemps = _failedLoginAttemps.get(addr);
-			if (failedLoginAttemps == null)
-			{
-				failedLoginAttemps = 1;
-			}
-			else
-			{
-				++failedLoginAttemps;
-			}
-			
-			_failedLoginAttemps.put(addr, failedLoginAttemps);
-		}
-		
+		// Counted atomically, as multiple connections from the same address may fail to login at the same time.
+		final int failedLoginAttemps = _failedLoginAttemps.merge(addr, 1, Integer::sum);
 		if (failedLoginAttemps >= LoginConfig.LOGIN_TRY_BEFORE_BAN)
 		{
 			addBanForAddress(addr, LoginConfig.LOGIN_BLOCK_AFTER_BAN * 1000);
@@ -203,20 +277,13 @@ public class LoginController
 	
 	private void clearFailedLoginAttemps(String clientAddr)
 	{
-		synchronized (_failedLoginAttemps)
-		{
-			_failedLoginAttemps.remove(clientAddr);
-		}
+		_failedLoginAttemps.remove(clientAddr);
 	}
 	
-	private AccountInfo retriveAccountInfo(String clientAddr, String login, String password, boolean autoCreateIfEnabled)
+	private AccountInfo retriveAccountInfo(String clientAddr, String login, String hashBase64, boolean autoCreateIfEnabled)
 	{
 		try
 		{
-			final MessageDigest md = MessageDigest.getInstance("SHA");
-			final byte[] raw = password.getBytes(StandardCharsets.UTF_8);
-			final String hashBase64 = Base64.getEncoder().encodeToString(md.digest(raw));
-			
 			try (Connection con = DatabaseFactory.getConnection();
 				PreparedStatement ps = con.prepareStatement(USER_INFO_SELECT))
 			{
@@ -264,7 +331,7 @@ public class LoginController
 			}
 			
 			LOGGER.info("Auto created account '" + login + "'.");
-			return retriveAccountInfo(clientAddr, login, password, false);
+			return retriveAccountInfo(clientAddr, login, hashBase64, false);
 		}
 		catch (Exception e)
 		{
@@ -427,17 +494,12 @@ public class LoginController
 			final boolean loginOk = gsi.canLogin(client);
 			if (loginOk && (client.getLastServer() != serverId))
 			{
-				try (Connection con = DatabaseFactory.getConnection();
-					PreparedStatement ps = con.prepareStatement(ACCOUNT_LAST_SERVER_UPDATE))
+				final String account = client.getAccount();
+				DatabaseWriteQueue.getInstance().add(account.hashCode(), account, ACCOUNT_LAST_SERVER_UPDATE, ps ->
 				{
 					ps.setInt(1, serverId);
-					ps.setString(2, client.getAccount());
-					ps.executeUpdate();
-				}
-				catch (Exception e)
-				{
-					LOGGER.log(Level.WARNING, "Could not set lastServer: " + e.getMessage(), e);
-				}
+					ps.setString(2, account);
+				});
 			}
 			
 			return loginOk;
@@ -505,7 +567,7 @@ public class LoginController
 	 */
 	public ScrambledKeyPair getScrambledRSAKeyPair()
 	{
-		return _keyPairs[Rnd.get(10)];
+		return _keyPairs.get(Rnd.get(RSA_KEY_PAIRS));
 	}
 	
 	/**
@@ -567,14 +629,15 @@ public class LoginController
 			
 			client.setAccessLevel(info.getAccessLevel());
 			client.setLastServer(info.getLastServer());
-			try (Connection con = DatabaseFactory.getConnection();
-				PreparedStatement ps = con.prepareStatement(ACCOUNT_INFO_UPDATE))
+			
+			final String login = info.getLogin();
+			final long lastActive = System.currentTimeMillis();
+			DatabaseWriteQueue.getInstance().add(login.hashCode(), login, ACCOUNT_INFO_UPDATE, ps ->
 			{
-				ps.setLong(1, System.currentTimeMillis());
+				ps.setLong(1, lastActive);
 				ps.setString(2, address);
-				ps.setString(3, info.getLogin());
-				ps.execute();
-			}
+				ps.setString(3, login);
+			});
 			
 			return true;
 		}
@@ -32,6 +32,8 @@ import org.l2jmobius.commons.config.DatabaseConfig;
 import org.l2jmobius.commons.config.InterfaceConfig;
 import org.l2jmobius.commons.database.DatabaseBackup;
 import org.l2jmobius.commons.database.DatabaseFactory;
+import org.l2jmobius.commons.database.DatabaseStatistics;
+import org.l2jmobius.commons.database.DatabaseWriteQueue;
 import org.l2jmobius.commons.network.ConnectionManager;
 import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.loginserver.config.LoginConfig;
@@ -85,6 +87,7 @@ public class LoginServer
 		
 		// Initialize ThreadPool.
 		ThreadPool.init();
+		DatabaseStatistics.getInstance().scheduleDump();
 		
 		try
 		{
@@ -182,6 +185,8 @@ public class LoginServer
 	
 	public void shutdown(boolean restart)
 	{
+		DatabaseWriteQueue.getInstance().shutdown();
+		
 		if (DatabaseConfig.BACKUP_DATABASE)
 		{
 			DatabaseBackup.performBackup("login");
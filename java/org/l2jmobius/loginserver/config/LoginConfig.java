@@ -57,6 +57,9 @@ public class LoginConfig
 	public static int NORMAL_CONNECTION_TIME;
 	public static int FAST_CONNECTION_TIME;
 	public static int MAX_CONNECTION_PER_IP;
+	public static int CRYPTO_THREAD_POOL_SIZE;
+	public static int CRYPTO_QUEUE_SIZE;
+	public static int KEY_PAIR_ROTATION_INTERVAL;
 	public static boolean ENABLE_CMD_LINE_LOGIN;
 	public static boolean ONLY_CMD_LINE_LOGIN;
 	
@@ -89,6 +92,9 @@ public class LoginConfig
 		NORMAL_CONNECTION_TIME = config.getInt("NormalConnectionTime", 700);
 		FAST_CONNECTION_TIME = config.getInt("FastConnectionTime", 350);
 		MAX_CONNECTION_PER_IP = config.getInt("MaxConnectionPerIP", 50);
+		CRYPTO_THREAD_POOL_SIZE = config.getInt("CryptoThreadPoolSize", -1);
+		CRYPTO_QUEUE_SIZE = config.getInt("CryptoQueueSize", 1000);
+		KEY_PAIR_ROTATION_INTERVAL = config.getInt("KeyPairRotationInterval", 60);
 		ENABLE_CMD_LINE_LOGIN = config.getBoolean("EnableCmdLineLogin", false);
 		ONLY_CMD_LINE_LOGIN = config.getBoolean("OnlyCmdLineLogin", false);
 	}
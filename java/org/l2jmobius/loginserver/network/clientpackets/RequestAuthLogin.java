@@ -26,6 +26,7 @@ import java.util.logging.Logger;
 
 import javax.crypto.Cipher;
 
+import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.loginserver.GameServerTable.GameServerInfo;
 import org.l2jmobius.loginserver.config.LoginConfig;
 import org.l2jmobius.loginserver.LoginController;
@@ -76,48 +77,58 @@ public class RequestAuthLogin extends LoginClientPacket
 			return;
 		}
 		
+		// Decrypt and hash on the crypto pool, then look up the account on the thread pool.
 		final LoginClient client = getClient();
-		final byte[] decrypted = new byte[_newAuthMethod ? 256 : 128];
-		try
+		final LoginController lc = LoginController.getInstance();
+		lc.executeCrypto(client, () ->
 		{
-			final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
-			rsaCipher.init(Cipher.DECRYPT_MODE, client.getRSAPrivateKey());
-			rsaCipher.doFinal(_raw1, 0, 128, decrypted, 0);
-			if (_newAuthMethod)
+			final byte[] decrypted = new byte[_newAuthMethod ? 256 : 128];
+			try
 			{
-				rsaCipher.doFinal(_raw2, 0, 128, decrypted, 128);
+				final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
+				rsaCipher.init(Cipher.DECRYPT_MODE, client.getRSAPrivateKey());
+				rsaCipher.doFinal(_raw1, 0, 128, decrypted, 0);
+				if (_newAuthMethod)
+				{
+					rsaCipher.doFinal(_raw2, 0, 128, decrypted, 128);
+				}
 			}
-		}
-		catch (GeneralSecurityException e)
-		{
-			LOGGER.log(Level.INFO, "", e);
-			return;
-		}
-		
-		final String user;
-		final String password;
-		try
-		{
-			if (_newAuthMethod)
+			catch (GeneralSecurityException e)
+			{
+				LOGGER.log(Level.INFO, "", e);
+				return;
+			}
+			
+			final String user;
+			final String passwordHash;
+			try
 			{
-				user = new String(decrypted, 0x4E, 50).trim() + new String(decrypted, 0xCE, 14).trim();
-				password = new String(decrypted, 0xDC, 16).trim();
+				if (_newAuthMethod)
+				{
+					user = new String(decrypted, 0x4E, 50).trim() + new String(decrypted, 0xCE, 14).trim();
+					passwordHash = LoginController.hashPassword(new String(decrypted, 0xDC, 16).trim());
+				}
+				else
+				{
+					user = new String(decrypted, 0x5E, 14).trim();
+					passwordHash = LoginController.hashPassword(new String(decrypted, 0x6C, 16).trim());
+				}
 			}
-			else
+			catch (Exception e)
 			{
-				user = new String(decrypted, 0x5E, 14).trim();
-				password = new String(decrypted, 0x6C, 16).trim();
+				LOGGER.log(Level.WARNING, "", e);
+				return;
 			}
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "", e);
-			return;
-		}
-		
+			
+			ThreadPool.execute(() -> login(client, user, passwordHash));
+		});
+	}
+	
+	private void login(LoginClient client, String user, String passwordHash)
+	{
 		final String clientAddr = client.getIp();
 		final LoginController lc = LoginController.getInstance();
-		final AccountInfo info = lc.retriveAccountInfo(clientAddr, user, password);
+		final AccountInfo info = lc.retriveAccountInfoByHash(clientAddr, user, passwordHash);
 		if (info == null)
 		{
 			// Account or password was wrong.
@@ -26,6 +26,7 @@ import java.util.logging.Logger;
 
 import javax.crypto.Cipher;
 
+import org.l2jmobius.commons.threads.ThreadPool;
 import org.l2jmobius.loginserver.GameServerTable.GameServerInfo;
 import org.l2jmobius.loginserver.config.LoginConfig;
 import org.l2jmobius.loginserver.LoginController;
@@ -65,36 +66,46 @@ public class RequestCmdLogin extends LoginClientPacket
 			return;
 		}
 		
+		// Decrypt and hash on the crypto pool, then look up the account on the thread pool.
 		final LoginClient client = getClient();
-		final byte[] decrypted = new byte[128];
-		try
-		{
-			final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
-			rsaCipher.init(Cipher.DECRYPT_MODE, client.getRSAPrivateKey());
-			rsaCipher.doFinal(_raw, 0, 128, decrypted, 0);
-		}
-		catch (GeneralSecurityException e)
-		{
-			LOGGER.log(Level.INFO, "", e);
-			return;
-		}
-		
-		String user;
-		String password;
-		try
-		{
-			user = new String(decrypted, 0x40, 14).trim();
-			password = new String(decrypted, 0x60, 16).trim();
-		}
-		catch (Exception e)
+		final LoginController lc = LoginController.getInstance();
+		lc.executeCrypto(client, () ->
 		{
-			LOGGER.log(Level.WARNING, "", e);
-			return;
-		}
-		
+			final byte[] decrypted = new byte[128];
+			try
+			{
+				final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
+				rsaCipher.init(Cipher.DECRYPT_MODE, client.getRSAPrivateKey());
+				rsaCipher.doFinal(_raw, 0, 128, decrypted, 0);
+			}
+			catch (GeneralSecurityException e)
+			{
+				LOGGER.log(Level.INFO, "", e);
+				return;
+			}
+			
+			final String user;
+			final String passwordHash;
+			try
+			{
+				user = new String(decrypted, 0x40, 14).trim();
+				passwordHash = LoginController.hashPassword(new String(decrypted, 0x60, 16).trim());
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, "", e);
+				return;
+			}
+			
+			ThreadPool.execute(() -> login(client, user, passwordHash));
+		});
+	}
+	
+	private void login(LoginClient client, String user, String passwordHash)
+	{
 		final String clientAddr = client.getIp();
 		final LoginController lc = LoginController.getInstance();
-		final AccountInfo info = lc.retriveAccountInfo(clientAddr, user, password);
+		final AccountInfo info = lc.retriveAccountInfoByHash(clientAddr, user, passwordHash);
 		if (info == null)
 		{
 			// Account or password was wrong.
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.l2jmobius.gameserver.model.EffectList;
+import org.l2jmobius.gameserver.model.StatSet;
+import org.l2jmobius.gameserver.model.skill.AbnormalType;
+import org.l2jmobius.gameserver.model.skill.BuffInfo;
+import org.l2jmobius.gameserver.model.skill.Skill;
+
+/**
+ * Effect list benchmark.<br>
+ * Fills an effect list like the one of a raid boss (36 buffs, 12 dances, 24 debuffs and 10 passives) and compares the indexed lookups with the linear scans used before the effect index.<br>
+ * The effects and their abnormal types are put in the effect list directly, since adding them through {@link EffectList#add(BuffInfo)} would apply them to an owner.<br>
+ * Usage: EffectListBenchmark [iterations] [rounds]
+ * @author Mobius
+ */
+public class EffectListBenchmark
+{
+	private static final int FIRST_SKILL_ID = 1000;
+	private static final int QUERIES = 1024;
+	
+	private static int _nextSkillId = FIRST_SKILL_ID;
+	
+	@SuppressWarnings("unchecked")
+	public static void main(String[] args) throws Exception
+	{
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		
+		final EffectList effectList = new EffectList(null);
+		final Queue<BuffInfo> actives = (Queue<BuffInfo>) getField(effectList, "_actives");
+		final Set<BuffInfo> passives = (Set<BuffInfo>) getField(effectList, "_passives");
+		final AtomicInteger modCount = (AtomicInteger) getField(effectList, "_modCount");
+		final Set<AbnormalType> stackedEffects = (Set<AbnormalType>) getField(effectList, "_stackedEffects");
+		
+		final AbnormalType[] types = AbnormalType.values();
+		for (int i = 0; i < 36; i++)
+		{
+			actives.add(createInfo("A2", types[5 + i], 0, false));
+		}
+		for (int i = 0; i < 12; i++)
+		{
+			actives.add(createInfo("A2", types[60 + i], 3, false));
+		}
+		for (int i = 0; i < 24; i++)
+		{
+			actives.add(createInfo("A2", types[100 + i], 0, true));
+		}
+		for (int i = 0; i < 10; i++)
+		{
+			passives.add(createInfo("P", AbnormalType.NONE, 0, false));
+		}
+		for (BuffInfo info : actives)
+		{
+			stackedEffects.add(info.getSkill().getAbnormalType());
+		}
+		modCount.incrementAndGet();
+		
+		final Random random = new Random(1);
+		final int[] skillIds = new int[QUERIES];
+		final AbnormalType[] abnormalTypes = new AbnormalType[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+		{
+			skillIds[i] = FIRST_SKILL_ID + random.nextInt(200);
+			abnormalTypes[i] = types[random.nextInt(128)];
+		}
+		
+		// The index must give the same answers as the linear scans.
+		int mismatches = 0;
+		for (int i = 0; i < QUERIES; i++)
+		{
+			if (isAffectedBySkill(actives, passives, skillIds[i]) != effectList.isAffectedBySkill(skillIds[i]))
+			{
+				mismatches++;
+			}
+			if (getFirstByAbnormalType(actives, abnormalTypes[i]) != effectList.getFirstBuffInfoByAbnormalType(abnormalTypes[i]))
+			{
+				mismatches++;
+			}
+		}
+		if (!getBuffs(actives).equals(effectList.getBuffs()))
+		{
+			mismatches++;
+		}
+		System.out.println("Index mismatches: " + mismatches + ".");
+		
+		final long total = (long) iterations * QUERIES;
+		long sink = 0;
+		for (int round = 0; round < rounds; round++)
+		{
+			long start = System.nanoTime();
+			for (int iteration = 0; iteration < iterations; iteration++)
+			{
+				for (int skillId : skillIds)
+				{
+					sink += isAffectedBySkill(actives, passives, skillId) ? 1 : 0;
+				}
+			}
+			final long scanSkill = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int iteration = 0; iteration < iterations; iteration++)
+			{
+				for (int skillId : skillIds)
+				{
+					sink += effectList.isAffectedBySkill(skillId) ? 1 : 0;
+				}
+			}
+			final long indexSkill = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int iteration = 0; iteration < iterations; iteration++)
+			{
+				for (AbnormalType type : abnormalTypes)
+				{
+					sink += getFirstByAbnormalType(actives, type) != null ? 1 : 0;
+				}
+			}
+			final long scanType = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int iteration = 0; iteration < iterations; iteration++)
+			{
+				for (AbnormalType type : abnormalTypes)
+				{
+					sink += effectList.getFirstBuffInfoByAbnormalType(type) != null ? 1 : 0;
+				}
+			}
+			final long indexType = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < total; i += 100)
+			{
+				sink += getBuffs(actives).size();
+			}
+			final long scanBuffs = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < total; i += 100)
+			{
+				sink += effectList.getBuffs().size();
+			}
+			final long indexBuffs = System.nanoTime() - start;
+			
+			// Every modification rebuilds the index on the next lookup.
+			start = System.nanoTime();
+			for (int i = 0; i < 100000; i++)
+			{
+				modCount.incrementAndGet();
+				sink += effectList.isAffectedBySkill(skillIds[i % QUERIES]) ? 1 : 0;
+			}
+			final long rebuild = System.nanoTime() - start;
+			
+			System.out.println(String.format("isAffectedBySkill %.1f/%.1f ns, by abnormal type %.1f/%.1f ns, getBuffs %.1f/%.1f ns (scan/index), rebuild and lookup %.1f ns.", (double) scanSkill / total, (double) indexSkill / total, (double) scanType / total, (double) indexType / total, (double) scanBuffs / (total / 100), (double) indexBuffs / (total / 100), rebuild / 100000d));
+		}
+		
+		// Keep the results alive.
+		if (sink < 0)
+		{
+			System.out.println(sink);
+		}
+	}
+	
+	private static BuffInfo createInfo(String operateType, AbnormalType abnormalType, int magic, boolean debuff) throws Exception
+	{
+		// The abnormal time of other than static skills depends on the caster, so the info is created with a static skill first.
+		final BuffInfo info = new BuffInfo(null, null, createSkill(0, "A2", AbnormalType.NONE, 2, false), false, null, null);
+		final Field field = BuffInfo.class.getDeclaredField("_skill");
+		field.setAccessible(true);
+		field.set(info, createSkill(_nextSkillId++, operateType, abnormalType, magic, debuff));
+		return info;
+	}
+	
+	private static Skill createSkill(int id, String operateType, AbnormalType abnormalType, int magic, boolean debuff)
+	{
+		final StatSet set = new StatSet();
+		set.set(".id", id);
+		set.set(".level", 1);
+		set.set("operateType", operateType);
+		set.set("abnormalType", abnormalType);
+		set.set("isMagic", magic);
+		set.set("isDebuff", debuff);
+		return new Skill(set);
+	}
+	
+	private static Object getField(Object object, String name) throws Exception
+	{
+		final Field field = object.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(object);
+	}
+	
+	private static boolean isAffectedBySkill(Collection<BuffInfo> actives, Collection<BuffInfo> passives, int skillId)
+	{
+		for (BuffInfo info : actives)
+		{
+			if (info.getSkill().getId() == skillId)
+			{
+				return true;
+			}
+		}
+		for (BuffInfo info : passives)
+		{
+			if (info.getSkill().getId() == skillId)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static BuffInfo getFirstByAbnormalType(Collection<BuffInfo> actives, AbnormalType type)
+	{
+		for (BuffInfo info : actives)
+		{
+			if (info.isAbnormalType(type))
+			{
+				return info;
+			}
+		}
+		return null;
+	}
+	
+	private static List<BuffInfo> getBuffs(Collection<BuffInfo> actives)
+	{
+		final List<BuffInfo> buffs = new ArrayList<>();
+		for (BuffInfo info : actives)
+		{
+			if (info.getSkill().getBuffType().isBuff())
+			{
+				buffs.add(info);
+			}
+		}
+		return buffs;
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.l2jmobius.gameserver.cache.HtmCache;
+import org.l2jmobius.gameserver.config.ServerConfig;
+import org.l2jmobius.gameserver.network.serverpackets.NpcHtmlMessage;
+
+/**
+ * Html template benchmark.<br>
+ * Fills the placeholders of every datapack page in random orders through {@link NpcHtmlMessage#replace(String, String)} and compares the result with the regular expression replacement used before html templates.<br>
+ * Then reports the time to fill every placeholder of the pages with at least {@link #BENCHMARK_PLACEHOLDERS} placeholders, with both methods.<br>
+ * Run from the game server folder.<br>
+ * Usage: HtmlTemplateBenchmark [sequences per page] [rounds]
+ * @author Mobius
+ */
+public class HtmlTemplateBenchmark
+{
+	private static final Pattern PLACEHOLDER = Pattern.compile("%[A-Za-z0-9_]+%");
+	private static final int BENCHMARK_PLACEHOLDERS = 8;
+	private static final int BENCHMARK_ITERATIONS = 20;
+	private static final int MAX_HTML_LENGTH = 17200;
+	private static final String[] VALUES =
+	{
+		"123",
+		"Name$1",
+		"",
+		"<a action=\"bypass -h npc_%objectId%_Chat\">Chat</a>",
+		"%name%"
+	};
+	
+	public static void main(String[] args) throws Exception
+	{
+		final int sequences = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		
+		ServerConfig.DATAPACK_ROOT = new File(".").getCanonicalFile();
+		ServerConfig.SCRIPT_ROOT = new File(ServerConfig.DATAPACK_ROOT, "data/scripts");
+		
+		final Path root = ServerConfig.DATAPACK_ROOT.toPath();
+		final List<String> paths;
+		try (Stream<Path> stream = Files.walk(root.resolve("data")))
+		{
+			paths = stream.filter(path -> path.toString().endsWith(".htm")).map(path -> root.relativize(path).toString().replace('\\', '/')).sorted().toList();
+		}
+		
+		final HtmCache cache = HtmCache.getInstance();
+		final Random random = new Random(1);
+		final List<String> benchmarkPaths = new ArrayList<>();
+		final List<List<String>> benchmarkPlaceholders = new ArrayList<>();
+		int pages = 0;
+		int checks = 0;
+		int mismatches = 0;
+		for (String path : paths)
+		{
+			final String content = cache.getHtm(null, path);
+			if (content == null)
+			{
+				continue;
+			}
+			pages++;
+			
+			final List<String> placeholders = new ArrayList<>();
+			final Matcher matcher = PLACEHOLDER.matcher(content);
+			while (matcher.find())
+			{
+				if (!placeholders.contains(matcher.group()))
+				{
+					placeholders.add(matcher.group());
+				}
+			}
+			
+			if (placeholders.size() >= BENCHMARK_PLACEHOLDERS)
+			{
+				benchmarkPaths.add(path);
+				benchmarkPlaceholders.add(List.copyOf(placeholders));
+			}
+			
+			for (int sequence = 0; sequence < sequences; sequence++)
+			{
+				// Random order, repeated replacements, replacements of text that is not a placeholder and values containing placeholders.
+				final List<String[]> replacements = new ArrayList<>();
+				Collections.shuffle(placeholders, random);
+				for (String placeholder : placeholders)
+				{
+					replacements.add(new String[]
+					{
+						placeholder,
+						VALUES[random.nextInt(VALUES.length)]
+					});
+					if (random.nextInt(4) == 0)
+					{
+						replacements.add(new String[]
+						{
+							placeholder,
+							"again"
+						});
+					}
+				}
+				if (random.nextInt(3) == 0)
+				{
+					replacements.add(random.nextInt(Math.min(2, replacements.size() + 1)), new String[]
+					{
+						"%objectId%",
+						"777"
+					});
+				}
+				if (random.nextInt(5) == 0)
+				{
+					replacements.add(new String[]
+					{
+						"bypass",
+						"BYPASS"
+					});
+				}
+				
+				String expected = content.contains("<html") || content.startsWith("..\\L2") ? content : "<html><body>" + content + "</body></html>";
+				if (expected.length() > MAX_HTML_LENGTH)
+				{
+					expected = expected.substring(0, MAX_HTML_LENGTH);
+				}
+				for (String[] replacement : replacements)
+				{
+					expected = replaceAll(expected, Pattern.quote(replacement[0]), replacement[1]);
+				}
+				
+				final NpcHtmlMessage message = new NpcHtmlMessage();
+				message.setFile(null, path);
+				for (String[] replacement : replacements)
+				{
+					message.replace(replacement[0], replacement[1]);
+				}
+				
+				checks++;
+				if (!expected.equals(message.getHtml()))
+				{
+					mismatches++;
+					System.out.println("Mismatch in " + path + ".");
+				}
+			}
+		}
+		System.out.println(pages + " pages, " + checks + " replacement sequences, " + mismatches + " mismatches.");
+		
+		if (benchmarkPaths.isEmpty())
+		{
+			return;
+		}
+		
+		for (int round = 0; round < rounds; round++)
+		{
+			long length = 0;
+			long start = System.nanoTime();
+			for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++)
+			{
+				for (int i = 0; i < benchmarkPaths.size(); i++)
+				{
+					String html = cache.getHtm(null, benchmarkPaths.get(i));
+					for (String placeholder : benchmarkPlaceholders.get(i))
+					{
+						html = replaceAll(html, placeholder, "value");
+					}
+					length += html.length();
+				}
+			}
+			final long regexTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int iteration = 0; iteration < BENCHMARK_ITERATIONS; iteration++)
+			{
+				for (int i = 0; i < benchmarkPaths.size(); i++)
+				{
+					final NpcHtmlMessage message = new NpcHtmlMessage();
+					message.setFile(null, benchmarkPaths.get(i));
+					for (String placeholder : benchmarkPlaceholders.get(i))
+					{
+						message.replace(placeholder, "value");
+					}
+					length += message.getHtml().length();
+				}
+			}
+			final long templateTime = System.nanoTime() - start;
+			
+			final int count = BENCHMARK_ITERATIONS * benchmarkPaths.size();
+			System.out.println(String.format("%d pages: regular expressions %.1f us/page, templates %.1f us/page (%d chars).", benchmarkPaths.size(), regexTime / 1000d / count, templateTime / 1000d / count, length));
+		}
+	}
+	
+	/**
+	 * @param html the html
+	 * @param pattern the regular expression
+	 * @param value the replacement
+	 * @return the html with the pattern replaced the way it was before html templates
+	 */
+	private static String replaceAll(String html, String pattern, String value)
+	{
+		return html.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+
+import org.l2jmobius.commons.network.Buffer;
+import org.l2jmobius.loginserver.crypt.NewCrypt;
+
+/**
+ * Headless login load generator.<br>
+ * Replays complete client logins (init, game guard and RSA encrypted credentials) against a running login server and reports logins per second and latency percentiles.<br>
+ * Usage: LoginLoadTest [host] [port] [logins] [concurrency] [account prefix] [password]
+ * @author Mobius
+ */
+public class LoginLoadTest
+{
+	private static final byte[] STATIC_BLOWFISH_KEY =
+	{
+		(byte) 0x6b,
+		(byte) 0x60,
+		(byte) 0xcb,
+		(byte) 0x5b,
+		(byte) 0x82,
+		(byte) 0xce,
+		(byte) 0x90,
+		(byte) 0xb1,
+		(byte) 0xcc,
+		(byte) 0x2b,
+		(byte) 0x6c,
+		(byte) 0x55,
+		(byte) 0x6c,
+		(byte) 0x6c,
+		(byte) 0x6c,
+		(byte) 0x6c
+	};
+	
+	private static final int SOCKET_TIMEOUT = 60000;
+	
+	private final String _host;
+	private final int _port;
+	private final String _accountPrefix;
+	private final String _password;
+	private final AtomicInteger _accepted = new AtomicInteger();
+	private final AtomicInteger _rejected = new AtomicInteger();
+	private final AtomicInteger _errors = new AtomicInteger();
+	
+	/**
+	 * Wraps a byte array as a little endian {@link Buffer} for the login crypt classes.
+	 */
+	private static class ArrayBuffer implements Buffer
+	{
+		private final ByteBuffer _buffer;
+		
+		ArrayBuffer(byte[] data)
+		{
+			_buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		
+		@Override
+		public byte readByte(int index)
+		{
+			return _buffer.get(index);
+		}
+		
+		@Override
+		public void writeByte(int index, byte value)
+		{
+			_buffer.put(index, value);
+		}
+		
+		@Override
+		public short readShort(int index)
+		{
+			return _buffer.getShort(index);
+		}
+		
+		@Override
+		public void writeShort(int index, short value)
+		{
+			_buffer.putShort(index, value);
+		}
+		
+		@Override
+		public int readInt(int index)
+		{
+			return _buffer.getInt(index);
+		}
+		
+		@Override
+		public void writeInt(int index, int value)
+		{
+			_buffer.putInt(index, value);
+		}
+		
+		@Override
+		public int limit()
+		{
+			return _buffer.limit();
+		}
+		
+		@Override
+		public void limit(int newLimit)
+		{
+			_buffer.limit(newLimit);
+		}
+	}
+	
+	private LoginLoadTest(String host, int port, String accountPrefix, String password)
+	{
+		_host = host;
+		_port = port;
+		_accountPrefix = accountPrefix;
+		_password = password;
+	}
+	
+	/**
+	 * Performs a complete login.
+	 * @param index the account index
+	 * @return the time in nanoseconds between sending the credentials and receiving the answer
+	 * @throws Exception if the login could not be completed
+	 */
+	private long login(int index) throws Exception
+	{
+		try (Socket socket = new Socket())
+		{
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(SOCKET_TIMEOUT);
+			socket.connect(new InetSocketAddress(_host, _port), SOCKET_TIMEOUT);
+			final DataInputStream in = new DataInputStream(socket.getInputStream());
+			final OutputStream out = socket.getOutputStream();
+			
+			// Init, encrypted with the static key and a xor pass.
+			final byte[] init = readPacket(in);
+			final ArrayBuffer initBuffer = new ArrayBuffer(init);
+			new NewCrypt(STATIC_BLOWFISH_KEY).decrypt(initBuffer, 0, init.length);
+			decXORPass(initBuffer, init.length);
+			if (init[0] != 0x00)
+			{
+				throw new IOException("Unexpected init packet " + init[0]);
+			}
+			
+			final int sessionId = initBuffer.readInt(1);
+			final byte[] modulus = unscrambleModulus(Arrays.copyOfRange(init, 9, 9 + 128));
+			final NewCrypt crypt = new NewCrypt(Arrays.copyOfRange(init, 9 + 128 + 16, 9 + 128 + 16 + 16));
+			
+			// Game guard authentication.
+			final byte[] authGameGuard = new byte[21];
+			final ArrayBuffer authGameGuardBuffer = new ArrayBuffer(authGameGuard);
+			authGameGuard[0] = 0x07;
+			authGameGuardBuffer.writeInt(1, sessionId);
+			writePacket(out, crypt, authGameGuard);
+			final byte[] ggAuth = readPacket(in);
+			crypt.decrypt(new ArrayBuffer(ggAuth), 0, ggAuth.length);
+			if (ggAuth[0] != 0x0b)
+			{
+				throw new IOException("Unexpected game guard answer " + ggAuth[0]);
+			}
+			
+			// Credentials.
+			final byte[] credentials = new byte[128];
+			final byte[] account = (_accountPrefix + index).getBytes(StandardCharsets.US_ASCII);
+			final byte[] password = _password.getBytes(StandardCharsets.US_ASCII);
+			System.arraycopy(account, 0, credentials, 0x5E, Math.min(account.length, 14));
+			System.arraycopy(password, 0, credentials, 0x6C, Math.min(password.length, 16));
+			final RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(new BigInteger(1, modulus), BigInteger.valueOf(65537)));
+			final Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
+			rsaCipher.init(Cipher.ENCRYPT_MODE, publicKey);
+			final byte[] requestAuthLogin = new byte[1 + 128];
+			rsaCipher.doFinal(credentials, 0, 128, requestAuthLogin, 1);
+			
+			final long start = System.nanoTime();
+			writePacket(out, crypt, requestAuthLogin);
+			final byte[] answer = readPacket(in);
+			final long time = System.nanoTime() - start;
+			crypt.decrypt(new ArrayBuffer(answer), 0, answer.length);
+			
+			// LoginOk and ServerList are sent on success, LoginFail and AccountKicked otherwise.
+			if ((answer[0] == 0x03) || (answer[0] == 0x04))
+			{
+				_accepted.incrementAndGet();
+			}
+			else
+			{
+				_rejected.incrementAndGet();
+			}
+			
+			return time;
+		}
+	}
+	
+	private static byte[] readPacket(DataInputStream in) throws IOException
+	{
+		final int size = Short.toUnsignedInt(Short.reverseBytes(in.readShort())) - 2;
+		final byte[] data = new byte[size];
+		in.readFully(data);
+		return data;
+	}
+	
+	private static void writePacket(OutputStream out, NewCrypt crypt, byte[] data) throws IOException
+	{
+		// Room for the checksum, padded to the blowfish block size.
+		final int size = ((data.length + 4 + 7) / 8) * 8;
+		final byte[] packet = new byte[size + 2];
+		packet[0] = (byte) (packet.length & 0xFF);
+		packet[1] = (byte) (packet.length >> 8);
+		System.arraycopy(data, 0, packet, 2, data.length);
+		
+		final ArrayBuffer buffer = new ArrayBuffer(Arrays.copyOfRange(packet, 2, packet.length));
+		NewCrypt.appendChecksum(buffer, 0, size);
+		crypt.crypt(buffer, 0, size);
+		for (int i = 0; i < size; i++)
+		{
+			packet[i + 2] = buffer.readByte(i);
+		}
+		
+		out.write(packet);
+		out.flush();
+	}
+	
+	private static void decXORPass(Buffer data, int size)
+	{
+		int ecx = data.readInt(size - 8);
+		for (int pos = size - 12; pos >= 4; pos -= 4)
+		{
+			final int edx = data.readInt(pos) ^ ecx;
+			ecx -= edx;
+			data.writeInt(pos, edx);
+		}
+	}
+	
+	private static byte[] unscrambleModulus(byte[] modulus)
+	{
+		for (int i = 0; i < 0x40; i++)
+		{
+			modulus[0x40 + i] = (byte) (modulus[0x40 + i] ^ modulus[i]);
+		}
+		
+		for (int i = 0; i < 4; i++)
+		{
+			modulus[0x0d + i] = (byte) (modulus[0x0d + i] ^ modulus[0x34 + i]);
+		}
+		
+		for (int i = 0; i < 0x40; i++)
+		{
+			modulus[i] = (byte) (modulus[i] ^ modulus[0x40 + i]);
+		}
+		
+		for (int i = 0; i < 4; i++)
+		{
+			final byte temp = modulus[0x00 + i];
+			modulus[0x00 + i] = modulus[0x4d + i];
+			modulus[0x4d + i] = temp;
+		}
+		
+		return modulus;
+	}
+	
+	private static long percentile(long[] sortedTimes, double percentile)
+	{
+		return sortedTimes[Math.min(sortedTimes.length - 1, (int) Math.ceil((percentile / 100) * sortedTimes.length) - 1)];
+	}
+	
+	public static void main(String[] args) throws InterruptedException
+	{
+		final String host = args.length > 0 ? args[0] : "127.0.0.1";
+		final int port = args.length > 1 ? Integer.parseInt(args[1]) : 2106;
+		final int logins = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		final int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+		final String accountPrefix = args.length > 4 ? args[4] : "loadtest";
+		final String password = args.length > 5 ? args[5] : "loadtest";
+		
+		System.out.println("Replaying " + logins + " logins to " + host + ":" + port + " with " + concurrency + " concurrent clients...");
+		final LoginLoadTest test = new LoginLoadTest(host, port, accountPrefix, password);
+		final long[] times = new long[logins];
+		final AtomicInteger completed = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		final long start = System.nanoTime();
+		for (int i = 0; i < logins; i++)
+		{
+			final int index = i;
+			executor.execute(() ->
+			{
+				try
+				{
+					final long time = test.login(index);
+					times[completed.getAndIncrement()] = time;
+				}
+				catch (Exception e)
+				{
+					test._errors.incrementAndGet();
+				}
+			});
+		}
+		
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.DAYS);
+		final long elapsed = System.nanoTime() - start;
+		
+		final long[] sortedTimes = Arrays.copyOf(times, completed.get());
+		Arrays.sort(sortedTimes);
+		System.out.println("Completed " + sortedTimes.length + " logins in " + (elapsed / 1000000) + " ms (" + test._accepted.get() + " accepted, " + test._rejected.get() + " rejected, " + test._errors.get() + " errors).");
+		if (sortedTimes.length > 0)
+		{
+			System.out.println(String.format("Logins per second: %.1f", (sortedTimes.length * 1000000000d) / elapsed));
+			System.out.println(String.format("Authentication latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms", percentile(sortedTimes, 50) / 1000000d, percentile(sortedTimes, 90) / 1000000d, percentile(sortedTimes, 99) / 1000000d, sortedTimes[sortedTimes.length - 1] / 1000000d));
+		}
+	}
+}
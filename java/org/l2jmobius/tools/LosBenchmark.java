@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.io.File;
+import java.nio.file.Paths;
+
+import org.l2jmobius.gameserver.config.GeoEngineConfig;
+import org.l2jmobius.gameserver.config.ServerConfig;
+import org.l2jmobius.gameserver.geoengine.GeoEngine;
+import org.l2jmobius.gameserver.geoengine.util.LineOfSightTrace;
+
+/**
+ * Line of sight benchmark.<br>
+ * Replays a trace recorded with //geo_los_trace against the server geodata, once without and once with the line of sight cache, checks that both give the same results and reports the time per query.<br>
+ * Run from the game server folder.<br>
+ * Usage: LosBenchmark [trace file] [iterations]
+ * @author Mobius
+ */
+public class LosBenchmark
+{
+	public static void main(String[] args) throws Exception
+	{
+		final String traceFile = args.length > 0 ? args[0] : "saves/los_trace.txt";
+		final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		
+		ServerConfig.DATAPACK_ROOT = new File(".").getCanonicalFile();
+		GeoEngineConfig.load();
+		
+		final int[] queries = LineOfSightTrace.load(Paths.get(traceFile));
+		final int count = queries.length / 6;
+		if (count == 0)
+		{
+			System.out.println("No queries found in " + traceFile + ".");
+			return;
+		}
+		
+		final GeoEngine geoEngine = GeoEngine.getInstance();
+		final long cacheTime = GeoEngineConfig.LOS_CACHE_TIME;
+		System.out.println("Replaying " + count + " queries " + iterations + " times.");
+		
+		// Uncached results are the reference.
+		GeoEngineConfig.LOS_CACHE_TIME = 0;
+		final boolean[] expected = new boolean[count];
+		run(geoEngine, queries, expected);
+		final long uncachedTime = measure(geoEngine, queries, iterations);
+		
+		GeoEngineConfig.LOS_CACHE_TIME = Math.max(cacheTime, 60000);
+		geoEngine.clearLosCache();
+		final boolean[] cached = new boolean[count];
+		final long hitsBefore = geoEngine.getLosCacheHits();
+		final long missesBefore = geoEngine.getLosCacheMisses();
+		run(geoEngine, queries, cached);
+		final long cachedTime = measure(geoEngine, queries, iterations);
+		final long hits = geoEngine.getLosCacheHits() - hitsBefore;
+		final long misses = geoEngine.getLosCacheMisses() - missesBefore;
+		GeoEngineConfig.LOS_CACHE_TIME = cacheTime;
+		
+		int mismatches = 0;
+		int visible = 0;
+		for (int i = 0; i < count; i++)
+		{
+			if (expected[i] != cached[i])
+			{
+				mismatches++;
+			}
+			if (expected[i])
+			{
+				visible++;
+			}
+		}
+		
+		final long total = (long) count * iterations;
+		System.out.println("Visible: " + visible + "/" + count + ", cached result mismatches: " + mismatches + ".");
+		System.out.println(String.format("Uncached: %.0f ns/query, %.0f queries/s.", (double) uncachedTime / total, (total * 1000000000d) / uncachedTime));
+		System.out.println(String.format("Cached: %.0f ns/query, %.0f queries/s, %.1f%% hits.", (double) cachedTime / total, (total * 1000000000d) / cachedTime, (hits + misses) > 0 ? (hits * 100d) / (hits + misses) : 0));
+	}
+	
+	private static void run(GeoEngine geoEngine, int[] queries, boolean[] results)
+	{
+		for (int i = 0, offset = 0; offset < queries.length; i++, offset += 6)
+		{
+			results[i] = geoEngine.canSeeTarget(queries[offset], queries[offset + 1], queries[offset + 2], queries[offset + 3], queries[offset + 4], queries[offset + 5]);
+		}
+	}
+	
+	private static long measure(GeoEngine geoEngine, int[] queries, int iterations)
+	{
+		int visible = 0;
+		final long start = System.nanoTime();
+		for (int iteration = 0; iteration < iterations; iteration++)
+		{
+			for (int offset = 0; offset < queries.length; offset += 6)
+			{
+				if (geoEngine.canSeeTarget(queries[offset], queries[offset + 1], queries[offset + 2], queries[offset + 3], queries[offset + 4], queries[offset + 5]))
+				{
+					visible++;
+				}
+			}
+		}
+		final long time = System.nanoTime() - start;
+		
+		// Keep the results alive.
+		if (visible < 0)
+		{
+			System.out.println(visible);
+		}
+		return time;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.l2jmobius.commons.network.Buffer;
+import org.l2jmobius.commons.network.Client;
+import org.l2jmobius.commons.network.Connection;
+import org.l2jmobius.commons.network.ConnectionManager;
+import org.l2jmobius.commons.network.ReadablePacket;
+
+/**
+ * Network read path test.<br>
+ * Starts a local connection manager with the ReadBufferSize of config/Network.ini and sends it framed packets of random sizes, split into random chunks over a single connection.<br>
+ * Every packet carries its sequence number and a byte pattern, so the test reports packets lost, reordered or corrupted by the framing, and the time needed to receive them.<br>
+ * Run from the game or login server folder.<br>
+ * Usage: ReadBufferTest [packets] [port]
+ * @author Mobius
+ */
+public class ReadBufferTest
+{
+	private static final int LARGE_PACKET_INTERVAL = 500;
+	private static final int MAX_SMALL_PACKET_SIZE = 60;
+	private static final int MAX_LARGE_PACKET_SIZE = 60000;
+	private static final int MAX_CHUNK_SIZE = 7000;
+	private static final long TIMEOUT = 30000;
+	
+	protected static final AtomicInteger RECEIVED = new AtomicInteger();
+	protected static final AtomicInteger ERRORS = new AtomicInteger();
+	protected static int _expectedSequence = 0;
+	
+	private static class TestClient extends Client<Connection<TestClient>>
+	{
+		TestClient(Connection<TestClient> connection)
+		{
+			super(connection);
+		}
+		
+		@Override
+		public boolean encrypt(Buffer data, int offset, int size)
+		{
+			return true;
+		}
+		
+		@Override
+		public boolean decrypt(Buffer data, int offset, int size)
+		{
+			return true;
+		}
+		
+		@Override
+		protected void onDisconnection()
+		{
+		}
+		
+		@Override
+		public void onConnected()
+		{
+		}
+	}
+	
+	private static class TestPacket extends ReadablePacket<TestClient>
+	{
+		@Override
+		protected boolean read()
+		{
+			final int sequence = readInt();
+			final int length = remaining();
+			for (int i = 0; i < length; i++)
+			{
+				if (readByte() != (byte) (sequence + i))
+				{
+					ERRORS.incrementAndGet();
+					break;
+				}
+			}
+			
+			synchronized (ReadBufferTest.class)
+			{
+				if (sequence != _expectedSequence)
+				{
+					ERRORS.incrementAndGet();
+				}
+				_expectedSequence = sequence + 1;
+			}
+			
+			RECEIVED.incrementAndGet();
+			return false;
+		}
+		
+		@Override
+		public void run()
+		{
+		}
+	}
+	
+	public static void main(String[] args) throws Exception
+	{
+		final int packets = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		final int port = args.length > 1 ? Integer.parseInt(args[1]) : 17777;
+		
+		final ConnectionManager<TestClient> connectionManager = new ConnectionManager<>(new InetSocketAddress("127.0.0.1", port), TestClient::new, (buffer, client) -> new TestPacket());
+		
+		// Frame all packets up front, so only the sending is timed.
+		final Random random = new Random(1);
+		final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+		for (int sequence = 0; sequence < packets; sequence++)
+		{
+			final int length = (sequence % LARGE_PACKET_INTERVAL) == 0 ? random.nextInt(MAX_LARGE_PACKET_SIZE) : random.nextInt(MAX_SMALL_PACKET_SIZE);
+			final int size = 2 + 4 + length;
+			frames.write(size & 0xFF);
+			frames.write(size >> 8);
+			frames.write(sequence & 0xFF);
+			frames.write((sequence >> 8) & 0xFF);
+			frames.write((sequence >> 16) & 0xFF);
+			frames.write(sequence >>> 24);
+			for (int i = 0; i < length; i++)
+			{
+				frames.write((byte) (sequence + i));
+			}
+		}
+		final byte[] data = frames.toByteArray();
+		
+		final long start = System.nanoTime();
+		try (Socket socket = new Socket("127.0.0.1", port))
+		{
+			final OutputStream out = socket.getOutputStream();
+			int position = 0;
+			while (position < data.length)
+			{
+				final int chunk = Math.min(data.length - position, 1 + random.nextInt(MAX_CHUNK_SIZE));
+				out.write(data, position, chunk);
+				out.flush();
+				position += chunk;
+			}
+			
+			final long end = System.currentTimeMillis() + TIMEOUT;
+			while ((RECEIVED.get() < packets) && (System.currentTimeMillis() < end))
+			{
+				Thread.sleep(10);
+			}
+		}
+		final long time = System.nanoTime() - start;
+		
+		System.out.println("Received " + RECEIVED.get() + "/" + packets + " packets (" + data.length + " bytes) with " + ERRORS.get() + " errors in " + (time / 1000000) + "ms.");
+		connectionManager.shutdown();
+		System.exit(0);
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.l2jmobius.commons.threads.ThreadProvider;
+import org.l2jmobius.commons.threads.TimingWheelExecutor;
+
+/**
+ * Timing wheel benchmark.<br>
+ * Checks that the timing wheel never runs tasks early, never runs cancelled tasks and keeps the rate of fixed rate tasks.<br>
+ * Then schedules and cancels short timers from several threads while long timers stay scheduled, alternating the timing wheel and the ScheduledThreadPoolExecutor used by default.<br>
+ * Usage: TimingWheelBenchmark [threads] [operations per thread] [live timers] [rounds]
+ * @author Mobius
+ */
+public class TimingWheelBenchmark
+{
+	private static final int POOL_THREADS = 8;
+	private static final long TICK_DURATION = 10;
+	
+	public static void main(String[] args) throws Exception
+	{
+		final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		final int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		final int liveTimers = args.length > 2 ? Integer.parseInt(args[2]) : 300000;
+		final int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+		
+		checkCorrectness();
+		
+		for (int round = 0; round < rounds; round++)
+		{
+			final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(POOL_THREADS, new ThreadProvider("Benchmark Executor", true));
+			executor.setRemoveOnCancelPolicy(true);
+			System.out.println("ScheduledThreadPoolExecutor: " + measure(executor, threads, operations, liveTimers) + "ms.");
+			System.out.println("TimingWheelExecutor: " + measure(new TimingWheelExecutor(POOL_THREADS, TICK_DURATION, new ThreadProvider("Benchmark Wheel", true)), threads, operations, liveTimers) + "ms.");
+		}
+		System.exit(0);
+	}
+	
+	private static void checkCorrectness() throws Exception
+	{
+		final ScheduledExecutorService wheel = new TimingWheelExecutor(POOL_THREADS, TICK_DURATION, new ThreadProvider("Check Wheel", true));
+		final Random random = new Random(1);
+		
+		// One shot timers must never run before their delay.
+		final int timers = 20000;
+		final AtomicLong maxLateness = new AtomicLong();
+		final AtomicInteger early = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(timers);
+		for (int i = 0; i < timers; i++)
+		{
+			final long delay = random.nextInt((i % 10) == 0 ? 12000 : 3000);
+			final long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+			wheel.schedule(() ->
+			{
+				final long lateness = System.nanoTime() - due;
+				if (lateness < 0)
+				{
+					early.incrementAndGet();
+				}
+				maxLateness.accumulateAndGet(lateness, Math::max);
+				latch.countDown();
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+		
+		// Cancelled timers must never run.
+		final AtomicInteger cancelledRuns = new AtomicInteger();
+		final List<ScheduledFuture<?>> cancelled = new ArrayList<>();
+		for (int i = 0; i < 10000; i++)
+		{
+			cancelled.add(wheel.schedule(cancelledRuns::incrementAndGet, 500 + (i % 2000), TimeUnit.MILLISECONDS));
+		}
+		for (ScheduledFuture<?> future : cancelled)
+		{
+			future.cancel(false);
+		}
+		
+		// Fixed rate timers must keep their rate.
+		final AtomicInteger periodicRuns = new AtomicInteger();
+		final long periodicStart = System.nanoTime();
+		final ScheduledFuture<?> periodic = wheel.scheduleAtFixedRate(periodicRuns::incrementAndGet, 0, 100, TimeUnit.MILLISECONDS);
+		
+		latch.await();
+		periodic.cancel(false);
+		final long expectedRuns = 1 + (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - periodicStart) / 100);
+		
+		System.out.println(timers + " timers: " + early.get() + " early, " + (maxLateness.get() / 1000000) + "ms max lateness.");
+		System.out.println(cancelled.size() + " cancelled timers: " + cancelledRuns.get() + " executed.");
+		System.out.println("Fixed rate timer: " + periodicRuns.get() + " runs, " + expectedRuns + " expected.");
+		wheel.shutdownNow();
+	}
+	
+	private static long measure(ScheduledExecutorService executor, int threads, int operations, int liveTimers) throws Exception
+	{
+		for (int i = 0; i < liveTimers; i++)
+		{
+			executor.schedule(() ->
+			{
+			}, 60000 + (i % 600000), TimeUnit.MILLISECONDS);
+		}
+		
+		final ExecutorService drivers = Executors.newFixedThreadPool(threads);
+		final List<Future<?>> results = new ArrayList<>();
+		final long start = System.nanoTime();
+		for (int thread = 0; thread < threads; thread++)
+		{
+			final Random random = new Random(thread);
+			results.add(drivers.submit(() ->
+			{
+				for (int i = 0; i < operations; i++)
+				{
+					final ScheduledFuture<?> future = executor.schedule(() ->
+					{
+					}, 1000 + random.nextInt(30000), TimeUnit.MILLISECONDS);
+					if ((i & 1) == 0)
+					{
+						future.cancel(false);
+					}
+				}
+			}));
+		}
+		for (Future<?> result : results)
+		{
+			result.get();
+		}
+		final long time = System.nanoTime() - start;
+		
+		drivers.shutdown();
+		executor.shutdownNow();
+		return TimeUnit.NANOSECONDS.toMillis(time);
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2013 L2jMobius
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.l2jmobius.tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.l2jmobius.gameserver.model.World;
+import org.l2jmobius.gameserver.model.WorldObject;
+import org.l2jmobius.gameserver.model.WorldRegion;
+import org.l2jmobius.gameserver.model.actor.Creature;
+import org.l2jmobius.gameserver.model.actor.Player;
+
+/**
+ * World range query benchmark.<br>
+ * Places objects around a town sized area and compares {@link World#forEachVisibleObjectInRange(WorldObject, Class, int, Consumer)} with the scan of every surrounding region used before the region type index.<br>
+ * Players and npcs cannot be created outside a running server, so the objects are plain world objects. Queries for all objects measure the region overlap and distance test, queries for players measure the type index skipping objects of other types.<br>
+ * Usage: WorldRegionBenchmark [objects] [area size] [queries] [rounds]
+ * @author Mobius
+ */
+public class WorldRegionBenchmark
+{
+	private static final int CENTER_X = 83000;
+	private static final int CENTER_Y = 148000;
+	private static final int CENTER_Z = -3400;
+	private static final int[] RANGES =
+	{
+		300,
+		900,
+		1500
+	};
+	
+	private static class TestObject extends WorldObject
+	{
+		TestObject(int objectId)
+		{
+			super(objectId);
+		}
+		
+		@Override
+		public boolean isAutoAttackable(Creature attacker)
+		{
+			return false;
+		}
+		
+		@Override
+		public void sendInfo(Player player)
+		{
+		}
+	}
+	
+	private static int _count;
+	
+	public static void main(String[] args)
+	{
+		final int objects = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		final int areaSize = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+		final int queries = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+		final int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+		
+		final World world = World.getInstance();
+		final Random random = new Random(1);
+		final List<WorldObject> placed = new ArrayList<>(objects);
+		for (int i = 0; i < objects; i++)
+		{
+			final WorldObject object = new TestObject(i + 1);
+			object.setXYZ(CENTER_X + random.nextInt(areaSize) - (areaSize / 2), CENTER_Y + random.nextInt(areaSize) - (areaSize / 2), CENTER_Z + random.nextInt(200));
+			world.getRegion(object).addVisibleObject(object);
+			placed.add(object);
+		}
+		
+		final WorldObject[] origins = new WorldObject[queries];
+		for (int i = 0; i < queries; i++)
+		{
+			origins[i] = placed.get(random.nextInt(objects));
+		}
+		System.out.println(objects + " objects in " + areaSize + "x" + areaSize + ", " + queries + " queries per range.");
+		
+		for (int round = 0; round < rounds; round++)
+		{
+			final StringBuilder sb = new StringBuilder();
+			for (int range : RANGES)
+			{
+				measure(world, origins, WorldObject.class, range, sb);
+				measure(world, origins, Player.class, range, sb);
+			}
+			System.out.println(sb.append("(scan/index per query)"));
+		}
+	}
+	
+	private static <T extends WorldObject> void measure(World world, WorldObject[] origins, Class<T> clazz, int range, StringBuilder sb)
+	{
+		final Consumer<T> counter = _ -> _count++;
+		
+		_count = 0;
+		long start = System.nanoTime();
+		for (WorldObject origin : origins)
+		{
+			scan(world, origin, clazz, range, counter);
+		}
+		final long scanTime = System.nanoTime() - start;
+		final int scanCount = _count;
+		
+		_count = 0;
+		start = System.nanoTime();
+		for (WorldObject origin : origins)
+		{
+			world.forEachVisibleObjectInRange(origin, clazz, range, counter);
+		}
+		final long indexTime = System.nanoTime() - start;
+		
+		sb.append(String.format("%s %d: %.1f/%.1f us%s. ", clazz.getSimpleName(), range, scanTime / 1000d / origins.length, indexTime / 1000d / origins.length, scanCount == _count ? "" : " (result mismatch " + scanCount + "/" + _count + ")"));
+	}
+	
+	/**
+	 * The range query as it was before the region type index.
+	 * @param <T> the object type
+	 * @param world the world
+	 * @param object the query origin
+	 * @param clazz the object type
+	 * @param range the range
+	 * @param c the consumer
+	 */
+	private static <T extends WorldObject> void scan(World world, WorldObject object, Class<T> clazz, int range, Consumer<T> c)
+	{
+		final WorldRegion worldRegion = world.getRegion(object);
+		final WorldRegion[] surroundingRegions = worldRegion.getSurroundingRegions();
+		for (int i = 0; i < surroundingRegions.length; i++)
+		{
+			final Collection<WorldObject> visibleObjects = surroundingRegions[i].getVisibleObjects();
+			if (visibleObjects.isEmpty())
+			{
+				continue;
+			}
+			
+			for (WorldObject wo : visibleObjects)
+			{
+				if ((wo == object) || !clazz.isInstance(wo))
+				{
+					continue;
+				}
+				
+				if (wo.getInstanceWorld() != object.getInstanceWorld())
+				{
+					continue;
+				}
+				
+				if (wo.calculateDistance3D(object) <= range)
+				{
+					c.accept(clazz.cast(wo));
+				}
+			}
+		}
+	}
+}